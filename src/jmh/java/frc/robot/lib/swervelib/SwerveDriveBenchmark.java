@@ -0,0 +1,122 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SwerveDriveBenchmark {
+    private static final int SPEED_COUNT = 64;
+    private static final int VISION_BURST_SIZE = 8;
+
+    @Param({"3", "4", "6"})
+    public int moduleCount;
+
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private Rotation2d heading = Rotation2d.fromDegrees(0);
+    private final ChassisSpeeds[] chassisSpeeds = new ChassisSpeeds[SPEED_COUNT];
+    private final Rotation2d[] headings = new Rotation2d[SPEED_COUNT];
+    private final Pose2d[] visionPoses = new Pose2d[VISION_BURST_SIZE];
+    private SwerveDrive swerveDrive;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        var moduleLocationsM = switch (moduleCount) {
+            case 3 -> SwerveDriveFixture.THREE_MODULES;
+            case 4 -> SwerveDriveFixture.FOUR_MODULES;
+            case 6 -> SwerveDriveFixture.SIX_MODULES;
+            default -> throw new IllegalArgumentException("No layout for " + moduleCount + " modules");
+        };
+        swerveDrive = fixture
+            .withModuleLocations(moduleLocationsM)
+            .withGyroAngle(() -> heading)
+            .withLaggingSteer()
+            .build();
+        for (int i = 0; i < SPEED_COUNT; i++) {
+            var angle = i * 2 * Math.PI / SPEED_COUNT;
+            chassisSpeeds[i] = new ChassisSpeeds(
+                Math.cos(angle) * SwerveDriveFixture.MAX_SPEED_MS,
+                Math.sin(angle) * SwerveDriveFixture.MAX_SPEED_MS,
+                Math.sin(3 * angle) * Math.PI
+            );
+            headings[i] = Rotation2d.fromRadians(angle);
+        }
+        for (int i = 0; i < VISION_BURST_SIZE; i++) {
+            visionPoses[i] = new Pose2d(1.0 + 0.01 * i, 2.0 - 0.01 * i, Rotation2d.fromDegrees(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (SPEED_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public void setOpenLoopSpeed() {
+        swerveDrive.setOpenLoopSpeed(chassisSpeeds[nextIndex()]);
+    }
+
+    @Benchmark
+    public void setClosedLoopSpeed() {
+        swerveDrive.setClosedLoopSpeed(chassisSpeeds[nextIndex()]);
+    }
+
+    /** A full robot cycle: odometry on the sensors moved by the previous command, then a new command. */
+    @Benchmark
+    public void periodicWithOdometry() {
+        var i = nextIndex();
+        heading = headings[i];
+        swerveDrive.periodic();
+        swerveDrive.setClosedLoopSpeed(chassisSpeeds[i]);
+    }
+
+    @Benchmark
+    public ChassisSpeeds getChassisSpeed() {
+        swerveDrive.setClosedLoopSpeed(chassisSpeeds[nextIndex()]);
+        return swerveDrive.getChassisSpeed();
+    }
+
+    /**
+     * Several cameras reporting in the same cycle, a little behind the latest odometry sample.
+     * The measurements are queued, then fused by the periodic() of the next invocation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(VISION_BURST_SIZE)
+    public void addVisionMeasurementBurst() {
+        var i = nextIndex();
+        heading = headings[i];
+        swerveDrive.periodic();
+        var timestampSeconds = MathSharedStore.getTimestamp() - 0.005;
+        for (var visionPose: visionPoses) {
+            swerveDrive.addVisionMeasurement(visionPose, timestampSeconds);
+        }
+    }
+}
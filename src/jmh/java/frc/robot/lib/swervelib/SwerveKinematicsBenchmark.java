@@ -0,0 +1,166 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * WPILib's kinematics against SwerveKinematics, one call each, on the module layouts of the drivetrains in subsystems.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SwerveKinematicsBenchmark {
+    private static final int SPEED_COUNT = 64;
+
+    @Param({"KrakenMk4", "KrakenMk4i", "MaxSwerve"})
+    public String layout;
+
+    private final ChassisSpeeds[] chassisSpeeds = new ChassisSpeeds[SPEED_COUNT];
+    private final ChassisSpeeds result = new ChassisSpeeds();
+    private SwerveDriveKinematics wpilibKinematics;
+    private SwerveKinematics kinematics;
+    private SwerveSetPointGenerator setPointGenerator;
+    private SwerveModuleState[] measuredStates;
+    private double[] measuredSpeedsMS;
+    private double[] measuredAnglesRadians;
+    private double[] speedsMS;
+    private double[] anglesRadians;
+    private double[] steerVelocitiesRadiansPerSecond;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        var moduleLocationsM = switch (layout) {
+            case "KrakenMk4" -> rectangle(.415, .596, .420, .594);
+            case "KrakenMk4i" -> rectangle(.632, .63, .631, .635);
+            case "MaxSwerve" -> rectangle(.47, .47, .47, .47);
+            default -> throw new IllegalArgumentException("Unknown layout: " + layout);
+        };
+        wpilibKinematics = new SwerveDriveKinematics(moduleLocationsM);
+        kinematics = new SwerveKinematics(moduleLocationsM);
+        setPointGenerator = new SwerveSetPointGeneratorConfiguration(10, 4 * Math.PI)
+            .createSetPointGenerator(kinematics, SwerveDriveFixture.MAX_SPEED_MS);
+
+        for (int i = 0; i < SPEED_COUNT; i++) {
+            var angle = i * 2 * Math.PI / SPEED_COUNT;
+            chassisSpeeds[i] = new ChassisSpeeds(
+                Math.cos(angle) * SwerveDriveFixture.MAX_SPEED_MS,
+                Math.sin(angle) * SwerveDriveFixture.MAX_SPEED_MS,
+                Math.sin(3 * angle) * Math.PI
+            );
+        }
+
+        var moduleCount = moduleLocationsM.length;
+        measuredStates = new SwerveModuleState[moduleCount];
+        measuredSpeedsMS = new double[moduleCount];
+        measuredAnglesRadians = new double[moduleCount];
+        speedsMS = new double[moduleCount];
+        anglesRadians = new double[moduleCount];
+        steerVelocitiesRadiansPerSecond = new double[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            measuredSpeedsMS[i] = 1.0 + 0.1 * i;
+            measuredAnglesRadians[i] = 0.3 * i;
+            measuredStates[i] = new SwerveModuleState(measuredSpeedsMS[i], new Rotation2d(measuredAnglesRadians[i]));
+        }
+    }
+
+    private static Translation2d[] rectangle(double frontSideM, double rightSideM, double backSideM, double leftSideM) {
+        return new Translation2d[] {
+            new Translation2d(frontSideM / 2, leftSideM / 2),
+            new Translation2d(frontSideM / 2, -rightSideM / 2),
+            new Translation2d(-backSideM / 2, leftSideM / 2),
+            new Translation2d(-backSideM / 2, -rightSideM / 2)
+        };
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (SPEED_COUNT - 1);
+        return index;
+    }
+
+    /** Inverse kinematics and desaturation, as done by SwerveDrive.setClosedLoopSpeed(). */
+    @Benchmark
+    public SwerveModuleState[] wpilibToModuleStates() {
+        var states = wpilibKinematics.toSwerveModuleStates(chassisSpeeds[nextIndex()]);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, SwerveDriveFixture.MAX_SPEED_MS);
+        return states;
+    }
+
+    @Benchmark
+    public void toModuleStates(Blackhole blackhole) {
+        var speeds = chassisSpeeds[nextIndex()];
+        kinematics.toModuleStates(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond, speedsMS, anglesRadians);
+        SwerveKinematics.desaturate(speedsMS, SwerveDriveFixture.MAX_SPEED_MS);
+        blackhole.consume(speedsMS);
+        blackhole.consume(anglesRadians);
+    }
+
+    @Benchmark
+    public ChassisSpeeds wpilibToChassisSpeeds() {
+        return wpilibKinematics.toChassisSpeeds(measuredStates);
+    }
+
+    @Benchmark
+    public ChassisSpeeds toChassisSpeeds() {
+        kinematics.toChassisSpeeds(measuredSpeedsMS, measuredAnglesRadians, result);
+        return result;
+    }
+
+    @Benchmark
+    public ChassisSpeeds wpilibDiscretize() {
+        return ChassisSpeeds.discretize(chassisSpeeds[nextIndex()], SwerveDriveFixture.PERIOD_S);
+    }
+
+    @Benchmark
+    public ChassisSpeeds discretize() {
+        var speeds = chassisSpeeds[nextIndex()];
+        SwerveKinematics.discretize(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond, SwerveDriveFixture.PERIOD_S, result);
+        return result;
+    }
+
+    /** Replaces toModuleStates when the set point generator is configured. */
+    @Benchmark
+    public void generateSetPoint(Blackhole blackhole) {
+        var speeds = chassisSpeeds[nextIndex()];
+        setPointGenerator.generate(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond, speedsMS, anglesRadians);
+        blackhole.consume(speedsMS);
+        blackhole.consume(anglesRadians);
+    }
+
+    /** Added by the second order kinematics, with the acceleration from the previous speeds. */
+    @Benchmark
+    public double[] toSteerVelocities() {
+        var previous = chassisSpeeds[index];
+        var speeds = chassisSpeeds[nextIndex()];
+        kinematics.toSteerVelocities(
+            speeds.vxMetersPerSecond,
+            speeds.vyMetersPerSecond,
+            speeds.omegaRadiansPerSecond,
+            (speeds.vxMetersPerSecond - previous.vxMetersPerSecond) / SwerveDriveFixture.PERIOD_S,
+            (speeds.vyMetersPerSecond - previous.vyMetersPerSecond) / SwerveDriveFixture.PERIOD_S,
+            (speeds.omegaRadiansPerSecond - previous.omegaRadiansPerSecond) / SwerveDriveFixture.PERIOD_S,
+            steerVelocitiesRadiansPerSecond);
+        return steerVelocitiesRadiansPerSecond;
+    }
+}
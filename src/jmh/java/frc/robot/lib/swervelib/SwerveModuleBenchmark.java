@@ -0,0 +1,73 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SwerveModuleBenchmark {
+    private static final int ANGLE_COUNT = 64;
+
+    private final double[] targetAnglesRadians = new double[ANGLE_COUNT];
+    private final double[] currentAnglesRadians = new double[ANGLE_COUNT];
+    private final DiscreetAngle[] targetAngles = new DiscreetAngle[ANGLE_COUNT];
+    private final ContinuousAngle[] currentAngles = new ContinuousAngle[ANGLE_COUNT];
+    private final MutableSteerSetPoint steerSetPoint = new MutableSteerSetPoint();
+    private SwerveModule module;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ANGLE_COUNT; i++) {
+            targetAnglesRadians[i] = AngleMath.wrap(i * 1.7);
+            currentAnglesRadians[i] = (i - ANGLE_COUNT / 2) * 0.9;
+            targetAngles[i] = DiscreetAngle.fromRadians(targetAnglesRadians[i]);
+            currentAngles[i] = ContinuousAngle.fromRadians(currentAnglesRadians[i]);
+        }
+        module = new SwerveModule(
+            new FakeDriveController(SwerveDriveFixture.MAX_SPEED_MS),
+            new FakeSteerController(() -> DiscreetAngle.fromDegrees(0), true)
+        );
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & (ANGLE_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public SteerSetPoint getSteerAngleAndDriveSign() {
+        var i = nextIndex();
+        return SwerveModule.getSteerAngleAndDriveSign(targetAngles[i], currentAngles[i]);
+    }
+
+    @Benchmark
+    public void optimizePrimitive(Blackhole blackhole) {
+        var i = nextIndex();
+        AngleMath.optimize(targetAnglesRadians[i], currentAnglesRadians[i], steerSetPoint);
+        blackhole.consume(steerSetPoint.targetAngleRadians);
+        blackhole.consume(steerSetPoint.driveSign);
+    }
+
+    @Benchmark
+    public void setClosedLoopSpeed() {
+        var i = nextIndex();
+        module.setClosedLoopSpeed(1.0, targetAnglesRadians[i]);
+        module.periodic();
+    }
+}
@@ -16,7 +16,24 @@ public class SparkMaxUtils {
         }
     }
 
-    public static SparkMax getController(int sparkMaxCanId) {
+    /**
+     * configure() only returns once the Spark MAX acknowledged the parameters: reading a setting back once
+     * is enough to verify it, without polling.
+     */
+    public static final void ensureApplied(String setting, int sparkMaxCanId, double actualValue, double expectedValue, double tolerance) {
+        if (!MathUtils.areApproxEqual(actualValue, expectedValue, tolerance)) {
+            throw new RuntimeException(String.format(
+                "%s not applied on Spark MAX %d : %f should be equal to %f",
+                setting,
+                sparkMaxCanId,
+                actualValue,
+                expectedValue
+            ));
+        }
+    }
+
+    // Synchronized: the swerve modules are created in parallel, and a Spark MAX can be shared by the steer controller and the absolute encoder.
+    public static synchronized SparkMax getController(int sparkMaxCanId) {
         if (sparkMaxes.containsKey(sparkMaxCanId)) {
             return sparkMaxes.get(sparkMaxCanId);
         }
@@ -1,6 +1,7 @@
 package frc.robot.lib;
 
 import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
 
 public class TalonFXUtils {
     public static final void throwIfError(StatusCode error) {
@@ -8,4 +9,26 @@ public class TalonFXUtils {
             throw new RuntimeException(String.format("Error: %s", error.name()));
         }
     }
+
+    /**
+     * Waits for the signal to report the expected value. Each wait blocks until the next frame is received,
+     * instead of sleeping between polls, so it returns as soon as the device confirms the setting.
+     */
+    public static final void waitForValue(String reason, StatusSignal<?> signal, double expectedValue, double timeoutSeconds) {
+        long deadlineNanos = System.nanoTime() + (long) (timeoutSeconds * 1e9);
+        double remainingSeconds = timeoutSeconds;
+        while (remainingSeconds > 0) {
+            signal.waitForUpdate(remainingSeconds);
+            if (signal.getStatus().isOK() && MathUtils.areApproxEqual(expectedValue, signal.getValueAsDouble())) {
+                return;
+            }
+            remainingSeconds = (deadlineNanos - System.nanoTime()) / 1e9;
+        }
+        throw new RuntimeException(String.format(
+            "Waited too long for %s : %f should be equal to %f",
+            reason,
+            signal.getValueAsDouble(),
+            expectedValue
+        ));
+    }
 }
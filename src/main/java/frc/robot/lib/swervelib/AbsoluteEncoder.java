@@ -8,4 +8,24 @@ public interface AbsoluteEncoder{
      * @return The current angle in radians. Range: [0, 2pi)
      */
     DiscreetAngle getAbsoluteAngle();
+
+    /**
+     * Same as getAbsoluteAngle(), without allocating. Range: [0, 2pi)
+     */
+    default double getAbsoluteAngleRadians() {
+        return getAbsoluteAngle().radians();
+    }
+
+    /**
+     * See {@link SteerController#applySignalBudget}, which forwards it.
+     */
+    default void applySignalBudget(CanSignalBudget budget) {
+    }
+
+    /**
+     * See {@link SteerController#getSensorSignals}, which includes them.
+     */
+    default SensorSignals getSensorSignals() {
+        return null;
+    }
 }
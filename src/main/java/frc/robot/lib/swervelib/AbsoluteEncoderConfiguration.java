@@ -6,4 +6,11 @@ public interface AbsoluteEncoderConfiguration {
      * For non-CAN encoder, for example internal absolute encodre, you can safely ignore the CAN id.
      */
     public AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, DiscreetAngle alignAngle);
+
+    /**
+     * Same, on a named CAN bus. Encoders which can only be on the roboRIO bus can keep this default.
+     */
+    public default AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, String canBusName, DiscreetAngle alignAngle) {
+        return createAbsoluteEncoder(encoderCanId, alignAngle);
+    }
 }
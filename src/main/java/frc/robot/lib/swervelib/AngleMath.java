@@ -0,0 +1,124 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Angle operations on primitive doubles, all in radians.
+ * <p>
+ * This is what the control loop uses. {@link ContinuousAngle} and {@link DiscreetAngle} are built on top of it
+ * for configuration and telemetry, where allocating does not matter. Where WPILib needs a Rotation2d,
+ * {@link #rotationOf(Rotation2d, double)} only allocates one when the angle changed.
+ */
+public final class AngleMath {
+    public static final double TWO_PI = 2 * Math.PI;
+    public static final double HALF_PI = Math.PI / 2.0;
+    private static final double DEGREES_PER_RADIAN = 180.0 / Math.PI;
+    private static final double RADIANS_PER_DEGREE = Math.PI / 180.0;
+
+    /**
+     * @return the same angle in the [0, 2pi[ range.
+     */
+    public static double wrap(double angleRadians) {
+        var wrappedRadians = angleRadians % TWO_PI;
+        return wrappedRadians < 0 ? wrappedRadians + TWO_PI : wrappedRadians;
+    }
+
+    /**
+     * @return the smallest rotation going from one angle to the other, in the [-pi, pi[ range.
+     */
+    public static double shortestDelta(double fromRadians, double toRadians) {
+        double differenceRadians = wrap(toRadians) - wrap(fromRadians);
+
+        if (differenceRadians >= Math.PI) {
+            differenceRadians -= TWO_PI;
+        } else if (differenceRadians < -Math.PI) {
+            differenceRadians += TWO_PI;
+        }
+        return differenceRadians;
+    }
+
+    /**
+     * @return the continuous angle pointing the same way as angleRadians which is the closest to referenceRadians.
+     */
+    public static double unwrap(double angleRadians, double referenceRadians) {
+        return referenceRadians + shortestDelta(referenceRadians, angleRadians);
+    }
+
+    /**
+     * Finds the steer angle, closest to the current one, giving the target wheel direction. When the target is
+     * more than 90 deg away, the drive can be inverted so the module turns by less than 90 deg instead.
+     *
+     * @param targetRadians the wheel direction wanted, in any range.
+     * @param currentRadians the current continuous steer angle.
+     * @param result receives the continuous steer angle to reach and the sign to apply to the drive.
+     */
+    public static void optimize(double targetRadians, double currentRadians, MutableSteerSetPoint result) {
+        var driveSign = 1.0;
+        double differenceRadians = shortestDelta(currentRadians, targetRadians);
+
+        if (differenceRadians > HALF_PI) {
+            differenceRadians -= Math.PI;
+            driveSign = -1.0;
+        } else if (differenceRadians < -HALF_PI) {
+            differenceRadians += Math.PI;
+            driveSign = -1.0;
+        }
+
+        result.driveSign = driveSign;
+        result.targetAngleRadians = currentRadians + differenceRadians;
+    }
+
+    /**
+     * {@link #optimize(double, double, MutableSteerSetPoint)} for all the modules at once, without branches, so the
+     * loop can be vectorized. Results are the same within rounding.
+     *
+     * @param resultRadians receives the continuous steer angles to reach.
+     * @param resultDriveSigns receives the signs to apply to the drives.
+     */
+    public static void optimize(double[] targetsRadians, double[] currentsRadians, double[] resultRadians, double[] resultDriveSigns) {
+        for (int i = 0; i < targetsRadians.length; i++) {
+            var differenceRadians = targetsRadians[i] - currentsRadians[i];
+            // To [-pi, pi]: at +-pi, both ways end up inverting the drive without turning.
+            differenceRadians -= TWO_PI * Math.rint(differenceRadians / TWO_PI);
+            // -1, 0 or 1: more than 90 deg away, half a turn less with the drive inverted.
+            var halfTurns = Math.rint(differenceRadians / Math.PI);
+            resultRadians[i] = currentsRadians[i] + differenceRadians - halfTurns * Math.PI;
+            resultDriveSigns[i] = 1 - 2 * Math.abs(halfTurns);
+        }
+    }
+
+    /**
+     * Rotation2d being immutable, a new one is only created when the angle actually changed.
+     *
+     * @return previous if already at this angle.
+     */
+    public static Rotation2d rotationOf(Rotation2d previous, double angleRadians) {
+        return previous.getRadians() == angleRadians ? previous : new Rotation2d(angleRadians);
+    }
+
+    /**
+     * @param candidate another rotation which may already be at this angle, e.g. the measured one for a reference.
+     */
+    public static Rotation2d rotationOf(Rotation2d previous, Rotation2d candidate, double angleRadians) {
+        return candidate.getRadians() == angleRadians ? candidate : rotationOf(previous, angleRadians);
+    }
+
+    public static double fromDegrees(double angleDegrees) {
+        return angleDegrees * RADIANS_PER_DEGREE;
+    }
+
+    public static double toDegrees(double angleRadians) {
+        return angleRadians * DEGREES_PER_RADIAN;
+    }
+
+    public static double fromRotations(double angleRotations) {
+        return angleRotations * TWO_PI;
+    }
+
+    public static double toRotations(double angleRadians) {
+        return angleRadians / TWO_PI;
+    }
+
+    private AngleMath() {
+    }
+}
@@ -0,0 +1,17 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * The periodic CAN frames a swerve module can send, as declared in a {@link CanSignalBudget}.
+ */
+public enum CanSignal {
+    DRIVE_POSITION,
+    DRIVE_VELOCITY,
+    /** Applied or closed loop output, only read by getOutput(): NaN when the signal is off. */
+    DRIVE_OUTPUT,
+    STEER_POSITION,
+    /** Only used to compensate the steer position latency. */
+    STEER_VELOCITY,
+    /** Same as DRIVE_OUTPUT. */
+    STEER_OUTPUT,
+    ABSOLUTE_POSITION
+}
@@ -0,0 +1,170 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Declares which CAN signals of the modules are needed, by whom and how often. SwerveDrive applies it to
+ * the controllers, which turn the other status frames off (or as slow as the device allows), and checks the
+ * resulting bus load before the robot starts.
+ * <p>
+ * A frequency of 0 means the consumer does not need the signal.
+ */
+public class CanSignalBudget {
+    public static final double CAN_BITRATE_BITS_PER_S = 1_000_000;
+    // CAN FD keeps the 1 Mbit arbitration but sends the data at 8 Mbit: a frame takes about a third of the
+    // time it takes on a CAN 2.0 bus, as if the bus was 3 Mbit.
+    public static final double CAN_FD_EQUIVALENT_BITRATE_BITS_PER_S = 3_000_000;
+    /** Keeps room for the other devices on the bus (PDH, gyro, mechanisms). */
+    public static final double MAX_BUS_UTILIZATION = 0.9;
+    private static final double MAX_FREQUENCY_HZ = 1000;
+    // Extended identifier, 8 data bytes, worst case bit stuffing and inter-frame space.
+    static final int BITS_PER_FRAME = 160;
+    // Faults and heartbeat frames that stay on even when all the signals are off.
+    static final double DEVICE_BASELINE_FREQUENCY_HZ = 4;
+    // Drive motor, steer motor and absolute encoder.
+    static final int DEVICES_PER_MODULE = 3;
+    static final int MOTORS_PER_MODULE = 2;
+    // Phoenix 6 sends the control requests at 100 Hz by default.
+    private static final double DEFAULT_CONTROL_FREQUENCY_HZ = 100;
+    // The slowest rate Phoenix 6 accepts: enough for getOutput() on a dashboard, without turning it off.
+    private static final double DEFAULT_OUTPUT_FREQUENCY_HZ = 4;
+
+    private static final CanSignal[] SIGNALS = CanSignal.values();
+    private static final CanSignalConsumer[] CONSUMERS = CanSignalConsumer.values();
+
+    private final double[] frequenciesHz;
+    /** How often each motor receives its control frame. */
+    public final double controlFrequencyHz;
+    public final double bitrateBitsPerSecond;
+
+    private CanSignalBudget(double[] frequenciesHz, double controlFrequencyHz, double bitrateBitsPerSecond) {
+        this.frequenciesHz = frequenciesHz;
+        this.controlFrequencyHz = controlFrequencyHz;
+        this.bitrateBitsPerSecond = bitrateBitsPerSecond;
+    }
+
+    /**
+     * What the robot loop reads at 50 Hz, the absolute angles for the dashboards at 10 Hz and the motor outputs at
+     * 4 Hz. The steer velocity comes with the position, to compensate its latency.
+     */
+    public CanSignalBudget() {
+        this(new double[SIGNALS.length * CONSUMERS.length], DEFAULT_CONTROL_FREQUENCY_HZ, CAN_BITRATE_BITS_PER_S);
+        set(CanSignal.DRIVE_VELOCITY, CanSignalConsumer.CONTROL, 50);
+        set(CanSignal.STEER_POSITION, CanSignalConsumer.CONTROL, 50);
+        set(CanSignal.DRIVE_POSITION, CanSignalConsumer.ODOMETRY, 50);
+        set(CanSignal.STEER_POSITION, CanSignalConsumer.ODOMETRY, 50);
+        set(CanSignal.STEER_VELOCITY, CanSignalConsumer.ODOMETRY, 50);
+        set(CanSignal.ABSOLUTE_POSITION, CanSignalConsumer.TELEMETRY, 10);
+        set(CanSignal.DRIVE_OUTPUT, CanSignalConsumer.TELEMETRY, DEFAULT_OUTPUT_FREQUENCY_HZ);
+        set(CanSignal.STEER_OUTPUT, CanSignalConsumer.TELEMETRY, DEFAULT_OUTPUT_FREQUENCY_HZ);
+    }
+
+    /**
+     * For a CAN FD bus (CANivore): the robot loop signals at 100 Hz, so each cycle sees a fresh sample
+     * even when it runs late, and the absolute angles at 20 Hz.
+     */
+    public static CanSignalBudget forCanFd() {
+        var result = new CanSignalBudget(new double[SIGNALS.length * CONSUMERS.length], DEFAULT_CONTROL_FREQUENCY_HZ, CAN_FD_EQUIVALENT_BITRATE_BITS_PER_S);
+        result.set(CanSignal.DRIVE_VELOCITY, CanSignalConsumer.CONTROL, 100);
+        result.set(CanSignal.STEER_POSITION, CanSignalConsumer.CONTROL, 100);
+        result.set(CanSignal.DRIVE_POSITION, CanSignalConsumer.ODOMETRY, 100);
+        result.set(CanSignal.STEER_POSITION, CanSignalConsumer.ODOMETRY, 100);
+        result.set(CanSignal.STEER_VELOCITY, CanSignalConsumer.ODOMETRY, 100);
+        result.set(CanSignal.ABSOLUTE_POSITION, CanSignalConsumer.TELEMETRY, 20);
+        result.set(CanSignal.DRIVE_OUTPUT, CanSignalConsumer.TELEMETRY, DEFAULT_OUTPUT_FREQUENCY_HZ);
+        result.set(CanSignal.STEER_OUTPUT, CanSignalConsumer.TELEMETRY, DEFAULT_OUTPUT_FREQUENCY_HZ);
+        return result;
+    }
+
+    private void set(CanSignal signal, CanSignalConsumer consumer, double frequencyHz) {
+        frequenciesHz[signal.ordinal() * CONSUMERS.length + consumer.ordinal()] = frequencyHz;
+    }
+
+    private static void ensureValidFrequency(double frequencyHz) {
+        if (!(frequencyHz >= 0 && frequencyHz <= MAX_FREQUENCY_HZ)) {
+            throw new IllegalArgumentException(String.format("A CAN signal frequency must be within [0, %.0f] Hz", MAX_FREQUENCY_HZ));
+        }
+    }
+
+    /**
+     * @param frequencyHz 0 when this consumer does not need the signal anymore. A signal no consumer needs is turned
+     * off: for DRIVE_OUTPUT and STEER_OUTPUT, getOutput() then returns NaN.
+     */
+    public CanSignalBudget withSignal(CanSignal signal, CanSignalConsumer consumer, double frequencyHz) {
+        ensureValidFrequency(frequencyHz);
+        var result = new CanSignalBudget(frequenciesHz.clone(), this.controlFrequencyHz, this.bitrateBitsPerSecond);
+        result.set(signal, consumer, frequencyHz);
+        return result;
+    }
+
+    public CanSignalBudget withControlFrequency(double controlFrequencyHz) {
+        ensureValidFrequency(controlFrequencyHz);
+        return new CanSignalBudget(frequenciesHz.clone(), controlFrequencyHz, this.bitrateBitsPerSecond);
+    }
+
+    /**
+     * @param bitrateBitsPerSecond what the load is estimated against: CAN_BITRATE_BITS_PER_S or CAN_FD_EQUIVALENT_BITRATE_BITS_PER_S.
+     */
+    public CanSignalBudget withBitrate(double bitrateBitsPerSecond) {
+        if (!(bitrateBitsPerSecond > 0)) {
+            throw new IllegalArgumentException("A CAN bitrate must be positive");
+        }
+        return new CanSignalBudget(frequenciesHz.clone(), this.controlFrequencyHz, bitrateBitsPerSecond);
+    }
+
+    public double getFrequencyHz(CanSignal signal, CanSignalConsumer consumer) {
+        return frequenciesHz[signal.ordinal() * CONSUMERS.length + consumer.ordinal()];
+    }
+
+    /**
+     * @return the rate the signal must be sent at: the highest one asked by its consumers. 0 if unused.
+     */
+    public double getFrequencyHz(CanSignal signal) {
+        var result = 0.0;
+        for (var consumer: CONSUMERS) {
+            result = Math.max(result, getFrequencyHz(signal, consumer));
+        }
+        return result;
+    }
+
+    public boolean isUsed(CanSignal signal) {
+        return getFrequencyHz(signal) > 0;
+    }
+
+    /**
+     * Counts one frame per signal, as if no device packed several signals in one frame.
+     *
+     * @return the frames per second the drivetrain puts on the bus, status and control.
+     */
+    public double estimateFramesPerSecond(int moduleCount) {
+        var perModule = DEVICES_PER_MODULE * DEVICE_BASELINE_FREQUENCY_HZ + MOTORS_PER_MODULE * controlFrequencyHz;
+        for (var signal: SIGNALS) {
+            perModule += getFrequencyHz(signal);
+        }
+        return moduleCount * perModule;
+    }
+
+    /**
+     * @return the share of the bus used by the drivetrain. Over 1, frames are delayed or lost.
+     */
+    public double estimateBusUtilization(int moduleCount, double bitrateBitsPerSecond) {
+        return estimateFramesPerSecond(moduleCount) * BITS_PER_FRAME / bitrateBitsPerSecond;
+    }
+
+    public double estimateBusUtilization(int moduleCount) {
+        return estimateBusUtilization(moduleCount, bitrateBitsPerSecond);
+    }
+
+    public void ensureFitsBus(int moduleCount, double bitrateBitsPerSecond) {
+        var utilization = estimateBusUtilization(moduleCount, bitrateBitsPerSecond);
+        if (utilization > MAX_BUS_UTILIZATION) {
+            throw new IllegalArgumentException(String.format(
+                "The CAN signal budget would use %.0f%% of the bus, more than the %.0f%% allowed",
+                utilization * 100,
+                MAX_BUS_UTILIZATION * 100
+            ));
+        }
+    }
+
+    public void ensureFitsBus(int moduleCount) {
+        ensureFitsBus(moduleCount, bitrateBitsPerSecond);
+    }
+}
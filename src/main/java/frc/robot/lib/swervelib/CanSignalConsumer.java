@@ -0,0 +1,13 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Who needs a {@link CanSignal}. A signal is sent at the highest rate asked by its consumers.
+ */
+public enum CanSignalConsumer {
+    /** The main loop: set points and snapshot. */
+    CONTROL,
+    /** The pose estimator, or the odometry thread when there is one. */
+    ODOMETRY,
+    /** Dashboards and logs. */
+    TELEMETRY
+}
@@ -2,6 +2,7 @@ package frc.robot.lib.swervelib;
 
 /**
  * An angle in the ]-inf, +inf[ range.
+ * Allocates on each operation, see {@link AngleMath} for the control loop.
  */
 public class ContinuousAngle {
     private final double angleDegrees;
@@ -13,11 +14,11 @@ public class ContinuousAngle {
     }
 
     public static ContinuousAngle fromRadians(double angleRadians) {
-        return new ContinuousAngle(Math.toDegrees(angleRadians), angleRadians);
+        return new ContinuousAngle(AngleMath.toDegrees(angleRadians), angleRadians);
     }
 
     public static ContinuousAngle fromDegrees(double angleDegrees) {
-        return new ContinuousAngle(angleDegrees, Math.toRadians(angleDegrees));
+        return new ContinuousAngle(angleDegrees, AngleMath.fromDegrees(angleDegrees));
     }
     
     public static ContinuousAngle fromRotations(double angleRotations) {
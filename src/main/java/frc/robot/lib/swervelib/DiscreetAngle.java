@@ -4,9 +4,9 @@ import edu.wpi.first.math.geometry.Rotation2d;
 
 /**
  * An angle in the [0, 360[ range.
+ * Allocates on each operation, see {@link AngleMath} for the control loop.
  */
 public class DiscreetAngle {
-    private static final double TWO_PI = 2 * Math.PI;
     private final double angleDegrees;
     private final double angleRadians;
 
@@ -16,15 +16,14 @@ public class DiscreetAngle {
     }
 
     public static DiscreetAngle fromRadians(double angleRadians) {
-        var discreetRadians = angleRadians % TWO_PI;
-        discreetRadians = discreetRadians < 0 ? discreetRadians + TWO_PI : discreetRadians;
-        return new DiscreetAngle(Math.toDegrees(discreetRadians), discreetRadians);
+        var discreetRadians = AngleMath.wrap(angleRadians);
+        return new DiscreetAngle(AngleMath.toDegrees(discreetRadians), discreetRadians);
     }
 
     public static DiscreetAngle fromDegrees(double angleDegrees) {
         var discreetDegrees = angleDegrees % 360;
         discreetDegrees = discreetDegrees < 0 ? discreetDegrees + 360 : discreetDegrees;
-        return new DiscreetAngle(discreetDegrees, Math.toRadians(discreetDegrees));
+        return new DiscreetAngle(discreetDegrees, AngleMath.fromDegrees(discreetDegrees));
     }
     
     public static DiscreetAngle fromRotation(Rotation2d rotation) {
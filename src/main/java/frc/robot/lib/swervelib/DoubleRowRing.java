@@ -0,0 +1,89 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free queue of fixed size rows of doubles between one producer thread and one consumer thread.
+ * <p>
+ * Rows live in one preallocated array, so neither side allocates. When the consumer falls behind and the ring is
+ * full, new rows are dropped and counted rather than blocking the producer. {@link OdometrySampleRing} and
+ * {@link DrivetrainRecordRing} lay out their values on top of it.
+ */
+class DoubleRowRing {
+    private final int rowSize;
+    private final int capacity;
+    private final int mask;
+    private final double[] values;
+    // The producer only writes writeIndex, the consumer only writes readIndex.
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to the next power of two.
+     */
+    DoubleRowRing(int rowSize, int capacity) {
+        if (rowSize <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("A ring needs at least one value per row and one row");
+        }
+        this.rowSize = rowSize;
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        values = new double[this.capacity * rowSize];
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The rows, each starting at the offset given by {@link #claim()} or {@link #peek()}.
+     */
+    double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Called by the producer only, then {@link #publish()} once the row is written.
+     *
+     * @return the offset of the row to write, -1 if the ring was full and the row dropped.
+     */
+    int claim() {
+        long write = writeIndex.get();
+        if (write - readIndex.get() >= capacity) {
+            droppedCount.incrementAndGet();
+            return -1;
+        }
+        return ((int) write & mask) * rowSize;
+    }
+
+    void publish() {
+        writeIndex.lazySet(writeIndex.get() + 1); // Publishes the row to the consumer.
+    }
+
+    /**
+     * Called by the consumer only, then {@link #release()} once the row is read. Rows come out in the order they
+     * were published.
+     *
+     * @return the offset of the oldest row, -1 if there was none.
+     */
+    int peek() {
+        long read = readIndex.get();
+        if (read >= writeIndex.get()) {
+            return -1;
+        }
+        return ((int) read & mask) * rowSize;
+    }
+
+    void release() {
+        readIndex.lazySet(readIndex.get() + 1); // Gives the row back to the producer.
+    }
+
+    int size() {
+        return (int) (writeIndex.get() - readIndex.get());
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -2,4 +2,11 @@ package frc.robot.lib.swervelib;
 
 public interface DriveConfiguration {
     public DriveController createDriveController(int motorCanId, GearRatio gearRatio, double maxSpeedMS);
+
+    /**
+     * Same, on a named CAN bus. Devices which can only be on the roboRIO bus can keep this default.
+     */
+    public default DriveController createDriveController(int motorCanId, String canBusName, GearRatio gearRatio, double maxSpeedMS) {
+        return createDriveController(motorCanId, gearRatio, maxSpeedMS);
+    }
 }
@@ -11,11 +11,37 @@ public interface DriveController {
 
     double getSpeedMS();
 
+    /**
+     * @return NaN when the signal budget turned CanSignal.DRIVE_OUTPUT off: the device doesn't send it anymore.
+     */
     double getOutput();
 
     double getPositionM();
 
     double getPositionNativeUnits();
 
+    /**
+     * getPositionM() is moved forward by the speed times this age, to be the position at the time of the call.
+     *
+     * @return how old the sensor frame of the position was when read, in seconds. NaN if unknown.
+     */
+    default double getPositionAgeSeconds() {
+        return Double.NaN;
+    }
+
     double getReferenceSpeedMS();
+
+    /**
+     * Sets the status frame rates of the device to the ones the budget asks for, and turns the others off.
+     * Called once by SwerveDrive, after all the modules are created.
+     */
+    default void applySignalBudget(CanSignalBudget budget) {
+    }
+
+    /**
+     * @return the signals the getters are served from, refreshed by SwerveDrive at the start of each cycle. null if none.
+     */
+    default SensorSignals getSensorSignals() {
+        return null;
+    }
 }
@@ -0,0 +1,70 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * When the phases of the last drivetrain command happened, in seconds on the MathSharedStore clock (the FPGA clock
+ * on the robot). NaN until the phase happened once. Updated in place by {@link SwerveDrive}, on the main loop thread.
+ */
+public class DrivetrainPhaseTimestamps {
+    private double senseSeconds = Double.NaN;
+    private double computeSeconds = Double.NaN;
+    private double actuateSeconds = Double.NaN;
+    private double actuateEndSeconds = Double.NaN;
+
+    void recordSense(double timestampSeconds) {
+        senseSeconds = timestampSeconds;
+    }
+
+    void recordCompute(double timestampSeconds) {
+        computeSeconds = timestampSeconds;
+    }
+
+    void recordActuate(double timestampSeconds) {
+        actuateSeconds = timestampSeconds;
+    }
+
+    void recordActuateEnd(double timestampSeconds) {
+        actuateEndSeconds = timestampSeconds;
+    }
+
+    /**
+     * @return when the module sensors were read.
+     */
+    public double getSenseSeconds() {
+        return senseSeconds;
+    }
+
+    /**
+     * @return when the kinematics and the steer optimization started, from the sensors read at getSenseSeconds().
+     */
+    public double getComputeSeconds() {
+        return computeSeconds;
+    }
+
+    /**
+     * @return when the first control frame was sent.
+     */
+    public double getActuateSeconds() {
+        return actuateSeconds;
+    }
+
+    /**
+     * @return when the last control frame was sent.
+     */
+    public double getActuateEndSeconds() {
+        return actuateEndSeconds;
+    }
+
+    /**
+     * @return the age of the sensor readings the last commands were computed from, when they were sent.
+     */
+    public double getSenseToActuateSeconds() {
+        return actuateSeconds - senseSeconds;
+    }
+
+    /**
+     * @return the time between the first and the last module receiving its command.
+     */
+    public double getActuateSpreadSeconds() {
+        return actuateEndSeconds - actuateSeconds;
+    }
+}
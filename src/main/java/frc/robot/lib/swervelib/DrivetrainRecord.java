@@ -0,0 +1,23 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * One row of the {@link DrivetrainRecorder}: what the drivetrain measured and was asked at a given time.
+ * Reused from one record to the next.
+ */
+public class DrivetrainRecord {
+    public double timestampSeconds = Double.NaN;
+    public double gyroYawRadians = Double.NaN;
+    public final double[] drivePositionsM;
+    public final double[] driveSpeedsMS;
+    public final double[] referenceSpeedsMS;
+    public final double[] steerAnglesRadians;
+    public final double[] steerReferenceAnglesRadians;
+
+    public DrivetrainRecord(int moduleCount) {
+        drivePositionsM = new double[moduleCount];
+        driveSpeedsMS = new double[moduleCount];
+        referenceSpeedsMS = new double[moduleCount];
+        steerAnglesRadians = new double[moduleCount];
+        steerReferenceAnglesRadians = new double[moduleCount];
+    }
+}
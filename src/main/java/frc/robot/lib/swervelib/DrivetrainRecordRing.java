@@ -0,0 +1,99 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Lock-free queue of {@link DrivetrainRecord} between the main loop (the producer) and the log writer thread
+ * (the consumer).
+ * <p>
+ * Same ring as {@link OdometrySampleRing}: records are copied into preallocated primitive arrays, and
+ * dropped and counted when the writer falls behind, so the main loop never waits for the disk.
+ */
+public class DrivetrainRecordRing {
+    // Row layout: timestamp, gyro yaw, then one column per module for each array of the record.
+    private static final int TIMESTAMP = 0;
+    private static final int GYRO_YAW = 1;
+    private static final int DRIVE_POSITIONS = 2;
+
+    private final int moduleCount;
+    private final int driveSpeedsOffset;
+    private final int referenceSpeedsOffset;
+    private final int steerAnglesOffset;
+    private final int steerReferenceAnglesOffset;
+    private final DoubleRowRing rows;
+
+    /**
+     * @param capacity rounded up to the next power of two.
+     */
+    public DrivetrainRecordRing(int moduleCount, int capacity) {
+        if (moduleCount <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("A drivetrain record ring needs at least one module and one record");
+        }
+        this.moduleCount = moduleCount;
+        driveSpeedsOffset = DRIVE_POSITIONS + moduleCount;
+        referenceSpeedsOffset = driveSpeedsOffset + moduleCount;
+        steerAnglesOffset = referenceSpeedsOffset + moduleCount;
+        steerReferenceAnglesOffset = steerAnglesOffset + moduleCount;
+        rows = new DoubleRowRing(steerReferenceAnglesOffset + moduleCount, capacity);
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    public int getCapacity() {
+        return rows.getCapacity();
+    }
+
+    /**
+     * Called by the main loop only.
+     *
+     * @return false if the ring was full and the record dropped.
+     */
+    public boolean offer(DrivetrainRecord record) {
+        int offset = rows.claim();
+        if (offset < 0) {
+            return false;
+        }
+
+        var values = rows.getValues();
+        values[offset + TIMESTAMP] = record.timestampSeconds;
+        values[offset + GYRO_YAW] = record.gyroYawRadians;
+        System.arraycopy(record.drivePositionsM, 0, values, offset + DRIVE_POSITIONS, moduleCount);
+        System.arraycopy(record.driveSpeedsMS, 0, values, offset + driveSpeedsOffset, moduleCount);
+        System.arraycopy(record.referenceSpeedsMS, 0, values, offset + referenceSpeedsOffset, moduleCount);
+        System.arraycopy(record.steerAnglesRadians, 0, values, offset + steerAnglesOffset, moduleCount);
+        System.arraycopy(record.steerReferenceAnglesRadians, 0, values, offset + steerReferenceAnglesOffset, moduleCount);
+        rows.publish();
+        return true;
+    }
+
+    /**
+     * Called by the writer thread only. Records come out in the order they were offered.
+     *
+     * @return false if there was no record to read.
+     */
+    public boolean poll(DrivetrainRecord record) {
+        int offset = rows.peek();
+        if (offset < 0) {
+            return false;
+        }
+
+        var values = rows.getValues();
+        record.timestampSeconds = values[offset + TIMESTAMP];
+        record.gyroYawRadians = values[offset + GYRO_YAW];
+        System.arraycopy(values, offset + DRIVE_POSITIONS, record.drivePositionsM, 0, moduleCount);
+        System.arraycopy(values, offset + driveSpeedsOffset, record.driveSpeedsMS, 0, moduleCount);
+        System.arraycopy(values, offset + referenceSpeedsOffset, record.referenceSpeedsMS, 0, moduleCount);
+        System.arraycopy(values, offset + steerAnglesOffset, record.steerAnglesRadians, 0, moduleCount);
+        System.arraycopy(values, offset + steerReferenceAnglesOffset, record.steerReferenceAnglesRadians, 0, moduleCount);
+        rows.release();
+        return true;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public long getDroppedCount() {
+        return rows.getDroppedCount();
+    }
+}
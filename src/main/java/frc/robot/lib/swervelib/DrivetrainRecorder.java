@@ -0,0 +1,162 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StructArrayLogEntry;
+
+/**
+ * Writes every drivetrain record to a WPILib DataLog, for post-match analysis in AdvantageScope.
+ * <p>
+ * {@link SwerveDrive} offers one record per odometry update: once per cycle, or once per odometry thread
+ * sample when there is one. Records only go through a {@link DrivetrainRecordRing}: encoding and writing
+ * happen on a background thread, so a slow USB stick never stalls the main loop. When the writer falls
+ * behind, the ring fills up and records are dropped and counted.
+ */
+public class DrivetrainRecorder {
+    public static final String DEFAULT_PREFIX = "Drivetrain";
+    // 1 s of records at the 250 Hz Phoenix odometry rate, 5 s at the 50 Hz robot loop.
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final long IDLE_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final DrivetrainRecordRing records;
+    private final DataLog log;
+    private final DrivetrainRecord writtenRecord;
+    private final SwerveModuleState[] moduleStates;
+    private final SwerveModuleState[] referenceModuleStates;
+    private final SwerveModulePosition[] modulePositions;
+    private final StructArrayLogEntry<SwerveModuleState> moduleStatesEntry;
+    private final StructArrayLogEntry<SwerveModuleState> referenceModuleStatesEntry;
+    private final StructArrayLogEntry<SwerveModulePosition> modulePositionsEntry;
+    private final DoubleLogEntry gyroYawEntry;
+    private final AtomicLong writtenCount = new AtomicLong();
+    private volatile boolean running = false;
+    private Thread writer;
+
+    public DrivetrainRecorder(int moduleCount, DataLog log, String prefix, int capacity) {
+        this.records = new DrivetrainRecordRing(moduleCount, capacity);
+        this.log = log;
+        writtenRecord = new DrivetrainRecord(moduleCount);
+        moduleStates = new SwerveModuleState[moduleCount];
+        referenceModuleStates = new SwerveModuleState[moduleCount];
+        modulePositions = new SwerveModulePosition[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            moduleStates[i] = new SwerveModuleState();
+            referenceModuleStates[i] = new SwerveModuleState();
+            modulePositions[i] = new SwerveModulePosition();
+        }
+        moduleStatesEntry = StructArrayLogEntry.create(log, prefix + "/ModuleStates", SwerveModuleState.struct);
+        referenceModuleStatesEntry = StructArrayLogEntry.create(log, prefix + "/ReferenceModuleStates", SwerveModuleState.struct);
+        modulePositionsEntry = StructArrayLogEntry.create(log, prefix + "/ModulePositions", SwerveModulePosition.struct);
+        gyroYawEntry = new DoubleLogEntry(log, prefix + "/GyroYawRad");
+    }
+
+    public DrivetrainRecorder(int moduleCount, DataLog log) {
+        this(moduleCount, log, DEFAULT_PREFIX, DEFAULT_CAPACITY);
+    }
+
+    public int getModuleCount() {
+        return records.getModuleCount();
+    }
+
+    /**
+     * Called by the main loop. Never blocks: the record is copied.
+     *
+     * @return false if it was dropped because the writer is behind.
+     */
+    public boolean record(DrivetrainRecord record) {
+        return records.offer(record);
+    }
+
+    /**
+     * Starts the writer thread. The JVM of the roboRIO ignores Java thread priorities: what keeps it off the main
+     * loop is that it only wakes every 20 ms when there is nothing to write, and that the ring is bounded.
+     */
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "Drivetrain recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer thread, after it wrote the records still queued.
+     */
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    private void run() {
+        while (running) {
+            if (writePending() == 0) {
+                LockSupport.parkNanos(IDLE_PERIOD_NANOS);
+            }
+        }
+        writePending();
+        log.flush();
+    }
+
+    /**
+     * Writes the queued records. Called by the writer thread only.
+     *
+     * @return the number of records written.
+     */
+    int writePending() {
+        int written = 0;
+        while (records.poll(writtenRecord)) {
+            write(writtenRecord);
+            written++;
+        }
+        if (written > 0) {
+            writtenCount.addAndGet(written);
+        }
+        return written;
+    }
+
+    private void write(DrivetrainRecord record) {
+        long timestampMicros = (long) (record.timestampSeconds * 1e6);
+        for (int i = 0; i < moduleStates.length; i++) {
+            moduleStates[i].speedMetersPerSecond = record.driveSpeedsMS[i];
+            moduleStates[i].angle = AngleMath.rotationOf(moduleStates[i].angle, record.steerAnglesRadians[i]);
+            referenceModuleStates[i].speedMetersPerSecond = record.referenceSpeedsMS[i];
+            referenceModuleStates[i].angle = AngleMath.rotationOf(referenceModuleStates[i].angle, record.steerReferenceAnglesRadians[i]);
+            modulePositions[i].distanceMeters = record.drivePositionsM[i];
+            modulePositions[i].angle = AngleMath.rotationOf(modulePositions[i].angle, moduleStates[i].angle, record.steerAnglesRadians[i]);
+        }
+        moduleStatesEntry.append(moduleStates, timestampMicros);
+        referenceModuleStatesEntry.append(referenceModuleStates, timestampMicros);
+        modulePositionsEntry.append(modulePositions, timestampMicros);
+        if (Double.isFinite(record.gyroYawRadians)) {
+            gyroYawEntry.append(record.gyroYawRadians, timestampMicros);
+        }
+    }
+
+    /**
+     * @return the number of records dropped because the writer thread was behind.
+     */
+    public long getDroppedCount() {
+        return records.getDroppedCount();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+}
@@ -0,0 +1,111 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * The module sensor readings of one control loop cycle, captured once by {@link SwerveDrive#periodic()}.
+ * <p>
+ * Every SwerveDrive getter (odometry, chassis speed, telemetry) reads from here instead of going back to the
+ * controllers, so a cycle costs a fixed number of sensor reads whatever the number of callers.
+ * The instance is updated in place: values are only consistent until the next periodic().
+ */
+public class DrivetrainSnapshot {
+    private final double[] drivePositionsM;
+    private final double[] drivePositionsNativeUnits;
+    private final double[] driveSpeedsMS;
+    private final double[] steerAnglesRadians;
+    private final double[] steerAbsoluteAnglesRadians;
+    private final double[] drivePositionAgesSeconds;
+    private final double[] steerAngleAgesSeconds;
+    private double timestampSeconds = Double.NaN;
+    private long cycle = 0;
+
+    DrivetrainSnapshot(int moduleCount) {
+        drivePositionsM = new double[moduleCount];
+        drivePositionsNativeUnits = new double[moduleCount];
+        driveSpeedsMS = new double[moduleCount];
+        steerAnglesRadians = new double[moduleCount];
+        steerAbsoluteAnglesRadians = new double[moduleCount];
+        drivePositionAgesSeconds = new double[moduleCount];
+        steerAngleAgesSeconds = new double[moduleCount];
+    }
+
+    void capture(SwerveModule[] modules, double timestampSeconds) {
+        for (int i = 0; i < modules.length; i++) {
+            var module = modules[i];
+            drivePositionsM[i] = module.getDrivePositionM();
+            drivePositionsNativeUnits[i] = module.getDrivePositionNativeUnits();
+            driveSpeedsMS[i] = module.getDriveSpeedMS();
+            steerAnglesRadians[i] = module.getSteerAngleRadians();
+            steerAbsoluteAnglesRadians[i] = module.getSteerAbsoluteAngleRadians();
+            drivePositionAgesSeconds[i] = module.getDrivePositionAgeSeconds();
+            steerAngleAgesSeconds[i] = module.getSteerAngleAgeSeconds();
+        }
+        this.timestampSeconds = timestampSeconds;
+        cycle++;
+    }
+
+    public int getModuleCount() {
+        return drivePositionsM.length;
+    }
+
+    /**
+     * @return when the snapshot was captured, in the WPILib time base (seconds).
+     */
+    public double getTimestampSeconds() {
+        return timestampSeconds;
+    }
+
+    /**
+     * @return the number of captures so far, to tell whether a cached value belongs to the current cycle.
+     */
+    public long getCycle() {
+        return cycle;
+    }
+
+    public double getDrivePositionM(int moduleIndex) {
+        return drivePositionsM[moduleIndex];
+    }
+
+    public double getDrivePositionNativeUnits(int moduleIndex) {
+        return drivePositionsNativeUnits[moduleIndex];
+    }
+
+    public double getDriveSpeedMS(int moduleIndex) {
+        return driveSpeedsMS[moduleIndex];
+    }
+
+    public double getSteerAngleRadians(int moduleIndex) {
+        return steerAnglesRadians[moduleIndex];
+    }
+
+    /**
+     * @return the array itself, not a copy: not to be modified.
+     */
+    double[] getDriveSpeedsMS() {
+        return driveSpeedsMS;
+    }
+
+    /**
+     * @return the array itself, not a copy: not to be modified.
+     */
+    double[] getSteerAnglesRadians() {
+        return steerAnglesRadians;
+    }
+
+    public double getSteerAbsoluteAngleRadians(int moduleIndex) {
+        return steerAbsoluteAnglesRadians[moduleIndex];
+    }
+
+    /**
+     * @return how old the drive position frame was when captured, before latency compensation. NaN if unknown.
+     */
+    public double getDrivePositionAgeSeconds(int moduleIndex) {
+        return drivePositionAgesSeconds[moduleIndex];
+    }
+
+    /**
+     * @return how old the steer angle frame was when captured, before latency compensation. NaN if unknown.
+     */
+    public double getSteerAngleAgeSeconds(int moduleIndex) {
+        return steerAngleAgesSeconds[moduleIndex];
+    }
+}
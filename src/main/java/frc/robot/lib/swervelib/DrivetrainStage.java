@@ -0,0 +1,23 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * The parts of a drivetrain cycle timed by {@link DrivetrainTimings}.
+ */
+public enum DrivetrainStage {
+    /** Refreshing and reading the module sensors. */
+    SENSOR_READ("SensorRead"),
+    /** Feeding the pose estimator with the module positions and heading. */
+    ODOMETRY("Odometry"),
+    /** Fusing the queued vision measurements. */
+    VISION("Vision"),
+    /** Chassis speeds to module states, desaturation and steer optimization, from the snapshot. */
+    KINEMATICS("Kinematics"),
+    /** Sending its set points to one module: recorded once per module. */
+    ACTUATION("Actuation");
+
+    public final String displayName;
+
+    DrivetrainStage(String displayName) {
+        this.displayName = displayName;
+    }
+}
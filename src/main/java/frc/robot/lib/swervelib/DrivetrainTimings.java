@@ -0,0 +1,39 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * One {@link LatencyHistogram} per {@link DrivetrainStage}, fed with System.nanoTime() spans by
+ * {@link SwerveDrive}. Everything happens on the main loop thread.
+ */
+public class DrivetrainTimings {
+    private static final DrivetrainStage[] STAGES = DrivetrainStage.values();
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+
+    public DrivetrainTimings() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time elapsed since startNanos.
+     *
+     * @param startNanos as returned by System.nanoTime() when the stage started.
+     * @return the time now, so the next stage can start from it.
+     */
+    public long record(DrivetrainStage stage, long startNanos) {
+        var now = System.nanoTime();
+        histograms[stage.ordinal()].record(now - startNanos);
+        return now;
+    }
+
+    public LatencyHistogram get(DrivetrainStage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    /**
+     * See {@link LatencyHistogram#readAndReset}.
+     */
+    public void readAndReset(DrivetrainStage stage, LatencySummary summary) {
+        histograms[stage.ordinal()].readAndReset(summary);
+    }
+}
@@ -0,0 +1,40 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Heading of the robot, counterclockwise positive like WPILib, with the time it was measured.
+ * Implementations may be updated by another thread: use read() to get consistent values.
+ */
+public interface Gyro {
+    public double getYawRadians();
+
+    public double getYawRateRadiansPerSecond();
+
+    /**
+     * @return when the yaw was measured, in the WPILib time base. NaN if not known.
+     */
+    public double getTimestampSeconds();
+
+    /**
+     * Fills the sample with the yaw, yaw rate and timestamp of the same measurement.
+     */
+    public default void read(GyroSample sample) {
+        sample.yawRadians = getYawRadians();
+        sample.yawRateRadiansPerSecond = getYawRateRadiansPerSecond();
+        sample.timestampSeconds = getTimestampSeconds();
+    }
+
+    /**
+     * @return false while the heading is not valid yet, e.g. during the calibration at boot.
+     */
+    public default boolean isReady() {
+        return true;
+    }
+
+    /**
+     * @return the signals the getters are served from, refreshed by SwerveDrive at the start of each cycle when this is
+     * the gyro of its configuration. null if none.
+     */
+    public default SensorSignals getSensorSignals() {
+        return null;
+    }
+}
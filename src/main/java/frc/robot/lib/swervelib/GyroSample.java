@@ -0,0 +1,25 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * A gyro measurement, filled by {@link Gyro#read} so the same instance can be reused on each cycle.
+ */
+public class GyroSample {
+    // The gyro updates at 100-200 Hz and the main loop at 50 Hz: older samples are stale, not worth extrapolating.
+    static final double MAX_EXTRAPOLATION_S = 0.05;
+
+    public double yawRadians = 0;
+    public double yawRateRadiansPerSecond = Double.NaN;
+    public double timestampSeconds = Double.NaN;
+
+    /**
+     * @return the yaw extrapolated to the given time with the yaw rate, e.g. to match the module positions of an odometry update.
+     * The yaw as measured when the rate or timestamp is unknown, or too far from the given time.
+     */
+    public double getYawRadiansAt(double timestampSeconds) {
+        var ageSeconds = timestampSeconds - this.timestampSeconds;
+        if (!Double.isFinite(ageSeconds) || !Double.isFinite(yawRateRadiansPerSecond) || Math.abs(ageSeconds) > MAX_EXTRAPOLATION_S) {
+            return yawRadians;
+        }
+        return yawRadians + yawRateRadiansPerSecond * ageSeconds;
+    }
+}
@@ -0,0 +1,103 @@
+package frc.robot.lib.swervelib;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of durations in nanoseconds, with log-linear buckets: each power of two is split into
+ * 16 linear buckets, so percentiles are within 1/16 (about 6%) of the actual value, from 1 ns up to a minute.
+ * <p>
+ * Recording does not allocate. Not thread safe: record and read from the same thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Exponents 4 to 35: durations up to 2^36 ns, about 68 s. Longer ones go in the last bucket.
+    private static final int MAX_EXPONENT = 35;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count = 0;
+    private long maxNanos = 0;
+
+    public void record(long durationNanos) {
+        if (durationNanos < 0) {
+            durationNanos = 0;
+        }
+        counts[bucketOf(durationNanos)]++;
+        count++;
+        if (durationNanos > maxNanos) {
+            maxNanos = durationNanos;
+        }
+    }
+
+    static int bucketOf(long valueNanos) {
+        if (valueNanos < SUB_BUCKET_COUNT) {
+            return (int) valueNanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(valueNanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (valueNanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return the largest value falling in the bucket.
+     */
+    static long bucketUpperBoundNanos(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the duration under which this percentage of the recorded ones fall, rounded up to its bucket
+     *     bound. 0 when nothing was recorded.
+     */
+    public long getValueAtPercentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBoundNanos(bucket), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * Copies p50, p99 and max into the summary, then starts over: each read covers the durations recorded
+     * since the previous one.
+     */
+    public void readAndReset(LatencySummary summary) {
+        summary.count = count;
+        summary.p50Nanos = getValueAtPercentileNanos(50);
+        summary.p99Nanos = getValueAtPercentileNanos(99);
+        summary.maxNanos = maxNanos;
+        reset();
+    }
+}
@@ -0,0 +1,11 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * What {@link LatencyHistogram#readAndReset} reports. Reused from one read to the next.
+ */
+public class LatencySummary {
+    public long count = 0;
+    public long p50Nanos = 0;
+    public long p99Nanos = 0;
+    public long maxNanos = 0;
+}
@@ -1,5 +1,8 @@
 package frc.robot.lib.swervelib;
 
+/**
+ * Module indexes of a four module drivetrain, in the order given to the SwerveDrive constructor.
+ */
 public enum ModuleLocation {
     FrontLeft(0, "Front left"),
     FrontRight(1, "Front right"),
@@ -0,0 +1,15 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * The pose and chassis speed of the robot at a given time, filled by {@link PoseHistory#getStateAt} so
+ * callers can reuse the same instance.
+ */
+public class MutableDrivetrainState {
+    public double timestampSeconds = Double.NaN;
+    public double xM = 0;
+    public double yM = 0;
+    public double headingRadians = 0;
+    public double vxMS = 0;
+    public double vyMS = 0;
+    public double omegaRadiansPerS = 0;
+}
@@ -0,0 +1,10 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Mutable counterpart of {@link SteerSetPoint}, filled by {@link AngleMath#optimize} so the control loop
+ * can reuse the same instance on each cycle.
+ */
+public class MutableSteerSetPoint {
+    public double driveSign = 1.0;
+    public double targetAngleRadians = 0;
+}
@@ -0,0 +1,18 @@
+package frc.robot.lib.swervelib;
+
+@FunctionalInterface
+public interface OdometryConfiguration {
+    /**
+     * @param driveControllers the drive controllers, in module order.
+     * @param steerControllers the steer controllers, in module order.
+     * @param samples where the sampler should push its samples.
+     */
+    OdometrySampler createOdometrySampler(DriveController[] driveControllers, SteerController[] steerControllers, OdometrySampleRing samples);
+
+    /**
+     * @return how often the sampler reads the module positions, so the CAN signal budget can follow. NaN if unknown.
+     */
+    default double getFrequencyHz() {
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,17 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * One odometry measurement read from an {@link OdometrySampleRing}. Reused from one read to the next.
+ */
+public class OdometrySample {
+    public double timestampSeconds = Double.NaN;
+    /** NaN when the sampler has no gyro: the main loop heading is used instead. */
+    public double gyroYawRadians = Double.NaN;
+    public final double[] drivePositionsM;
+    public final double[] steerAnglesRadians;
+
+    public OdometrySample(int moduleCount) {
+        drivePositionsM = new double[moduleCount];
+        steerAnglesRadians = new double[moduleCount];
+    }
+}
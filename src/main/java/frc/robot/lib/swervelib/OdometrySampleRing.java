@@ -0,0 +1,87 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Lock-free queue of odometry samples between one sampling thread (the producer) and the main loop (the consumer).
+ * <p>
+ * Samples are copied into preallocated primitive arrays, so neither side allocates. When the main loop falls
+ * behind and the ring is full, new samples are dropped and counted rather than blocking the sampling thread.
+ */
+public class OdometrySampleRing {
+    // Row layout: timestamp, gyro yaw, drive positions, steer angles.
+    private static final int TIMESTAMP = 0;
+    private static final int GYRO_YAW = 1;
+    private static final int DRIVE_POSITIONS = 2;
+
+    private final int moduleCount;
+    private final int steerAnglesOffset;
+    private final DoubleRowRing rows;
+
+    /**
+     * @param capacity rounded up to the next power of two.
+     */
+    public OdometrySampleRing(int moduleCount, int capacity) {
+        if (moduleCount <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("An odometry sample ring needs at least one module and one sample");
+        }
+        this.moduleCount = moduleCount;
+        steerAnglesOffset = DRIVE_POSITIONS + moduleCount;
+        rows = new DoubleRowRing(steerAnglesOffset + moduleCount, capacity);
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    public int getCapacity() {
+        return rows.getCapacity();
+    }
+
+    /**
+     * Called by the sampling thread only.
+     *
+     * @param gyroYawRadians NaN if the sampler has no gyro.
+     * @return false if the ring was full and the sample dropped.
+     */
+    public boolean offer(double timestampSeconds, double gyroYawRadians, double[] drivePositionsM, double[] steerAnglesRadians) {
+        int offset = rows.claim();
+        if (offset < 0) {
+            return false;
+        }
+
+        var values = rows.getValues();
+        values[offset + TIMESTAMP] = timestampSeconds;
+        values[offset + GYRO_YAW] = gyroYawRadians;
+        System.arraycopy(drivePositionsM, 0, values, offset + DRIVE_POSITIONS, moduleCount);
+        System.arraycopy(steerAnglesRadians, 0, values, offset + steerAnglesOffset, moduleCount);
+        rows.publish();
+        return true;
+    }
+
+    /**
+     * Called by the main loop only. Samples come out in the order they were offered.
+     *
+     * @return false if there was no sample to read.
+     */
+    public boolean poll(OdometrySample sample) {
+        int offset = rows.peek();
+        if (offset < 0) {
+            return false;
+        }
+
+        var values = rows.getValues();
+        sample.timestampSeconds = values[offset + TIMESTAMP];
+        sample.gyroYawRadians = values[offset + GYRO_YAW];
+        System.arraycopy(values, offset + DRIVE_POSITIONS, sample.drivePositionsM, 0, moduleCount);
+        System.arraycopy(values, offset + steerAnglesOffset, sample.steerAnglesRadians, 0, moduleCount);
+        rows.release();
+        return true;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public long getDroppedCount() {
+        return rows.getDroppedCount();
+    }
+}
@@ -0,0 +1,10 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Samples the module positions faster than the main loop, from its own thread, into an {@link OdometrySampleRing}.
+ */
+public interface OdometrySampler {
+    void start();
+
+    void stop();
+}
@@ -0,0 +1,190 @@
+package frc.robot.lib.swervelib;
+
+import java.util.Optional;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * The last estimated poses and chassis speeds, to answer "where was the robot, and how fast was it going, at time t".
+ * <p>
+ * Kept in a fixed capacity ring of primitive arrays: recording and querying never allocate, and a query is a
+ * binary search followed by a linear interpolation. Once full, the oldest entries are overwritten.
+ */
+public class PoseHistory {
+    private final int capacity;
+    private final double[] timestampsSeconds;
+    private final double[] xsM;
+    private final double[] ysM;
+    private final double[] headingsRadians;
+    private final double[] vxsMS;
+    private final double[] vysMS;
+    private final double[] omegasRadiansPerS;
+    private int oldest = 0;
+    private int size = 0;
+
+    public PoseHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A pose history needs a capacity of at least 1");
+        }
+        this.capacity = capacity;
+        timestampsSeconds = new double[capacity];
+        xsM = new double[capacity];
+        ysM = new double[capacity];
+        headingsRadians = new double[capacity];
+        vxsMS = new double[capacity];
+        vysMS = new double[capacity];
+        omegasRadiansPerS = new double[capacity];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        oldest = 0;
+        size = 0;
+    }
+
+    /**
+     * Entries must be added in increasing time order: one not newer than the last entry, or without a valid
+     * timestamp, is ignored.
+     *
+     * @return false if the entry was ignored.
+     */
+    public boolean add(double timestampSeconds, double xM, double yM, double headingRadians, double vxMS, double vyMS, double omegaRadiansPerS) {
+        if (!Double.isFinite(timestampSeconds) || (size > 0 && timestampSeconds <= timestampsSeconds[slot(size - 1)])) {
+            return false;
+        }
+
+        int slot;
+        if (size < capacity) {
+            slot = slot(size);
+            size++;
+        } else {
+            slot = oldest;
+            oldest = (oldest + 1) % capacity;
+        }
+        timestampsSeconds[slot] = timestampSeconds;
+        xsM[slot] = xM;
+        ysM[slot] = yM;
+        headingsRadians[slot] = headingRadians;
+        vxsMS[slot] = vxMS;
+        vysMS[slot] = vyMS;
+        omegasRadiansPerS[slot] = omegaRadiansPerS;
+        return true;
+    }
+
+    public boolean add(double timestampSeconds, Pose2d poseM, ChassisSpeeds chassisSpeeds) {
+        return add(
+            timestampSeconds,
+            poseM.getX(),
+            poseM.getY(),
+            poseM.getRotation().getRadians(),
+            chassisSpeeds.vxMetersPerSecond,
+            chassisSpeeds.vyMetersPerSecond,
+            chassisSpeeds.omegaRadiansPerSecond
+        );
+    }
+
+    public double getOldestTimestampSeconds() {
+        return size == 0 ? Double.NaN : timestampsSeconds[oldest];
+    }
+
+    public double getNewestTimestampSeconds() {
+        return size == 0 ? Double.NaN : timestampsSeconds[slot(size - 1)];
+    }
+
+    /**
+     * Interpolates between the two entries around the given time. Before the oldest entry or after the newest,
+     * the closest entry is returned as is.
+     *
+     * @param result receives the state. Its timestamp is the one asked for.
+     * @return false if the history is empty.
+     */
+    public boolean getStateAt(double timestampSeconds, MutableDrivetrainState result) {
+        if (size == 0) {
+            return false;
+        }
+
+        int after = firstIndexNotBefore(timestampSeconds);
+        if (after == 0 || after == size) {
+            copy(slot(after == 0 ? 0 : size - 1), result);
+        } else {
+            int afterSlot = slot(after);
+            int beforeSlot = slot(after - 1);
+            var t = (timestampSeconds - timestampsSeconds[beforeSlot]) / (timestampsSeconds[afterSlot] - timestampsSeconds[beforeSlot]);
+            result.xM = interpolate(xsM, beforeSlot, afterSlot, t);
+            result.yM = interpolate(ysM, beforeSlot, afterSlot, t);
+            result.headingRadians = headingsRadians[beforeSlot]
+                + t * AngleMath.shortestDelta(headingsRadians[beforeSlot], headingsRadians[afterSlot]);
+            result.vxMS = interpolate(vxsMS, beforeSlot, afterSlot, t);
+            result.vyMS = interpolate(vysMS, beforeSlot, afterSlot, t);
+            result.omegaRadiansPerS = interpolate(omegasRadiansPerS, beforeSlot, afterSlot, t);
+        }
+        result.timestampSeconds = timestampSeconds;
+        return true;
+    }
+
+    /**
+     * Same as getStateAt(), for callers which need a Pose2d. Allocates.
+     */
+    public Optional<Pose2d> getPoseAt(double timestampSeconds) {
+        var state = new MutableDrivetrainState();
+        if (!getStateAt(timestampSeconds, state)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Pose2d(state.xM, state.yM, new Rotation2d(state.headingRadians)));
+    }
+
+    /**
+     * Same as getStateAt(), for callers which need ChassisSpeeds. Allocates.
+     */
+    public Optional<ChassisSpeeds> getChassisSpeedAt(double timestampSeconds) {
+        var state = new MutableDrivetrainState();
+        if (!getStateAt(timestampSeconds, state)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ChassisSpeeds(state.vxMS, state.vyMS, state.omegaRadiansPerS));
+    }
+
+    /**
+     * @return the index (0 = oldest) of the first entry at or after the given time, size if there is none.
+     */
+    private int firstIndexNotBefore(double timestampSeconds) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestampsSeconds[slot(middle)] < timestampSeconds) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int slot(int index) {
+        int slot = oldest + index;
+        return slot < capacity ? slot : slot - capacity;
+    }
+
+    private void copy(int slot, MutableDrivetrainState result) {
+        result.xM = xsM[slot];
+        result.yM = ysM[slot];
+        result.headingRadians = headingsRadians[slot];
+        result.vxMS = vxsMS[slot];
+        result.vyMS = vysMS[slot];
+        result.omegaRadiansPerS = omegasRadiansPerS[slot];
+    }
+
+    private static double interpolate(double[] values, int beforeSlot, int afterSlot, double t) {
+        return values[beforeSlot] + t * (values[afterSlot] - values[beforeSlot]);
+    }
+}
@@ -0,0 +1,67 @@
+package frc.robot.lib.swervelib;
+
+import java.util.ArrayList;
+
+/**
+ * The sensor signals a device serves from its cache. SwerveDrive refreshes those of its modules and gyro at the start
+ * of each cycle, batching the ones of the same vendor and bus in a single call.
+ */
+@FunctionalInterface
+public interface SensorSignals {
+    /**
+     * Reads the last received values. The device getters return them until the next refresh.
+     *
+     * @return false if some could not be read, e.g. a device unplugged: their getters keep the previous values.
+     */
+    boolean refresh();
+
+    /**
+     * @return these signals and the other ones, refreshed in a single call. null if they can't be, e.g. another vendor
+     * or another CAN bus.
+     */
+    default SensorSignals batchWith(SensorSignals other) {
+        return null;
+    }
+
+    /**
+     * @return both signals, batched when possible. Either one can be null.
+     */
+    static SensorSignals of(SensorSignals first, SensorSignals second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        var batch = first.batchWith(second);
+        if (batch != null) {
+            return batch;
+        }
+        // Not short-circuited: both are refreshed, even when the first fails.
+        return () -> first.refresh() & second.refresh();
+    }
+
+    /**
+     * @return the signals grouped in as few batches as possible, nulls left out.
+     */
+    static SensorSignals[] batch(SensorSignals... signals) {
+        var batches = new ArrayList<SensorSignals>();
+        for (var signal: signals) {
+            if (signal == null) {
+                continue;
+            }
+            var batched = false;
+            for (int i = 0; i < batches.size() && !batched; i++) {
+                var batch = batches.get(i).batchWith(signal);
+                if (batch != null) {
+                    batches.set(i, batch);
+                    batched = true;
+                }
+            }
+            if (!batched) {
+                batches.add(signal);
+            }
+        }
+        return batches.toArray(new SensorSignals[0]);
+    }
+}
@@ -0,0 +1,49 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * The acceleration feedforward of a velocity controller: the change between consecutive set points over the time
+ * between them. It is 0 for the first set point, after a pause in the commands, and when the set point changes sign:
+ * that is most often the drive being inverted by the steer optimization, not an acceleration.
+ * <p>
+ * One per motor, used from the main loop only.
+ */
+public class SetPointAcceleration {
+    // Set points sent in the same cycle: the first one gave the acceleration.
+    private static final long MIN_PERIOD_NANOS = 1_000_000;
+    // Older set points are from another command: the motor did not follow them.
+    private static final long MAX_PERIOD_NANOS = 100_000_000;
+
+    private double lastSetPoint = Double.NaN;
+    private long lastNanos = 0;
+    private double acceleration = 0;
+
+    /**
+     * @return the acceleration toward this set point, in set point units per second.
+     */
+    public double update(double setPoint) {
+        return update(setPoint, System.nanoTime());
+    }
+
+    double update(double setPoint, long nowNanos) {
+        var periodNanos = nowNanos - lastNanos;
+        if (periodNanos < MIN_PERIOD_NANOS && Double.isFinite(lastSetPoint)) {
+            return acceleration;
+        }
+        if (periodNanos > MAX_PERIOD_NANOS || !Double.isFinite(lastSetPoint) || setPoint * lastSetPoint < 0) {
+            acceleration = 0;
+        } else {
+            acceleration = (setPoint - lastSetPoint) / (periodNanos * 1e-9);
+        }
+        lastSetPoint = setPoint;
+        lastNanos = nowNanos;
+        return acceleration;
+    }
+
+    /**
+     * The next set point has no acceleration, e.g. after open loop commands.
+     */
+    public void reset() {
+        lastSetPoint = Double.NaN;
+        acceleration = 0;
+    }
+}
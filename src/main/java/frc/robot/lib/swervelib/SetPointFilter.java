@@ -0,0 +1,68 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Skips the call sending a set point to a motor controller when it is within tolerance of the last one sent, in the
+ * same control mode. It is still sent again once per keep alive period, so a lost frame does not last.
+ * <p>
+ * A skipped call only saves a CAN frame when the controller sends each set point once: a controller sending its last
+ * request periodically by itself keeps sending it.
+ * <p>
+ * One per motor, used from the main loop only.
+ */
+public class SetPointFilter {
+    private final double tolerance;
+    private final long keepAlivePeriodNanos;
+    private int lastMode = -1;
+    private double lastSetPoint = Double.NaN;
+    private long lastSentNanos = 0;
+    private long passedCallCount = 0;
+    private long skippedCallCount = 0;
+
+    public SetPointFilter(double tolerance, double keepAlivePeriodSeconds) {
+        this.tolerance = tolerance;
+        this.keepAlivePeriodNanos = (long) (keepAlivePeriodSeconds * 1e9);
+    }
+
+    /**
+     * @param mode identifies the control request, e.g. open or closed loop: changing mode always sends.
+     * @return true if the set point must be sent. It then becomes the reference for the next ones.
+     */
+    public boolean shouldSend(int mode, double setPoint) {
+        return shouldSend(mode, setPoint, System.nanoTime());
+    }
+
+    boolean shouldSend(int mode, double setPoint, long nowNanos) {
+        if (mode == lastMode
+                && Math.abs(setPoint - lastSetPoint) <= tolerance
+                && nowNanos - lastSentNanos < keepAlivePeriodNanos) {
+            skippedCallCount++;
+            return false;
+        }
+        lastMode = mode;
+        lastSetPoint = setPoint;
+        lastSentNanos = nowNanos;
+        passedCallCount++;
+        return true;
+    }
+
+    /**
+     * The next set point will be sent, whatever its value.
+     */
+    public void reset() {
+        lastMode = -1;
+    }
+
+    /**
+     * @return the number of set point calls passed on to the motor controller.
+     */
+    public long getPassedCallCount() {
+        return passedCallCount;
+    }
+
+    /**
+     * @return the number of set point calls skipped.
+     */
+    public long getSkippedCallCount() {
+        return skippedCallCount;
+    }
+}
@@ -0,0 +1,45 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * How a {@link SetPointFilter} decides a set point is worth sending again.
+ */
+public class SetPointFilterConfiguration {
+    // Only identical set points are skipped, like when holding zero with SwerveDrive.stop().
+    private static final double DEFAULT_TOLERANCE = 0;
+    private static final double DEFAULT_KEEP_ALIVE_PERIOD_S = 0.1;
+
+    /** In the unit of the filtered set point. */
+    public final double tolerance;
+    public final double keepAlivePeriodSeconds;
+
+    public SetPointFilterConfiguration(double tolerance, double keepAlivePeriodSeconds) {
+        if (!(tolerance >= 0) || !(keepAlivePeriodSeconds >= 0)) {
+            throw new IllegalArgumentException("A set point filter needs a positive tolerance and keep alive period");
+        }
+        this.tolerance = tolerance;
+        this.keepAlivePeriodSeconds = keepAlivePeriodSeconds;
+    }
+
+    public SetPointFilterConfiguration() {
+        this(DEFAULT_TOLERANCE, DEFAULT_KEEP_ALIVE_PERIOD_S);
+    }
+
+    /**
+     * A filter sending every set point.
+     */
+    public static SetPointFilterConfiguration disabled() {
+        return new SetPointFilterConfiguration(0, 0);
+    }
+
+    public SetPointFilterConfiguration withTolerance(double tolerance) {
+        return new SetPointFilterConfiguration(tolerance, this.keepAlivePeriodSeconds);
+    }
+
+    public SetPointFilterConfiguration withKeepAlivePeriod(double keepAlivePeriodSeconds) {
+        return new SetPointFilterConfiguration(this.tolerance, keepAlivePeriodSeconds);
+    }
+
+    public SetPointFilter createSetPointFilter() {
+        return new SetPointFilter(tolerance, keepAlivePeriodSeconds);
+    }
+}
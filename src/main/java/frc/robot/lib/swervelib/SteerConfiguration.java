@@ -2,4 +2,11 @@ package frc.robot.lib.swervelib;
 
 public interface SteerConfiguration {
     public SteerController createSteerController(int motorCanId, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder);
+
+    /**
+     * Same, on a named CAN bus. Devices which can only be on the roboRIO bus can keep this default.
+     */
+    public default SteerController createSteerController(int motorCanId, String canBusName, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
+        return createSteerController(motorCanId, gearRatio, absoluteEncoder);
+    }
 }
@@ -1,15 +1,69 @@
 package frc.robot.lib.swervelib;
 
 public interface SteerController {
-    ContinuousAngle getReferenceAngle();
+    /**
+     * The angle objects below are convenient for telemetry, but allocate on every call.
+     * The control loop uses these primitive accessors instead.
+     */
+    double getReferenceAngleRadians();
 
-    void setReferenceAngle(ContinuousAngle referenceAngle);
+    void setReferenceAngleRadians(double referenceAngleRadians);
 
-    ContinuousAngle getAngle();
+    /**
+     * @param velocityRadiansPerSecond how fast the reference angle is turning, as a feedforward. Ignored by default.
+     */
+    default void setReferenceAngleRadians(double referenceAngleRadians, double velocityRadiansPerSecond) {
+        setReferenceAngleRadians(referenceAngleRadians);
+    }
+
+    double getAngleRadians();
+
+    /**
+     * getAngleRadians() is moved forward by the steer velocity times this age, to be the angle at the time of the call.
+     *
+     * @return how old the sensor frame of the angle was when read, in seconds. NaN if unknown.
+     */
+    default double getAngleAgeSeconds() {
+        return Double.NaN;
+    }
+
+    default ContinuousAngle getReferenceAngle() {
+        return ContinuousAngle.fromRadians(getReferenceAngleRadians());
+    }
+
+    default void setReferenceAngle(ContinuousAngle referenceAngle) {
+        setReferenceAngleRadians(referenceAngle.radians());
+    }
+
+    default ContinuousAngle getAngle() {
+        return ContinuousAngle.fromRadians(getAngleRadians());
+    }
 
     DiscreetAngle getAbsoluteAngle();
 
+    default double getAbsoluteAngleRadians() {
+        return getAbsoluteAngle().radians();
+    }
+
+    /**
+     * @return NaN when the signal budget turned CanSignal.STEER_OUTPUT off: the device doesn't send it anymore.
+     */
     double getOutput();
 
+    /**
+     * Sets the status frame rates of the device (and of its absolute encoder) to the ones the budget asks for, and turns the others off.
+     * Called once by SwerveDrive, after all the modules are created.
+     */
+    default void applySignalBudget(CanSignalBudget budget) {
+    }
+
+    /**
+     * @return the signals of the device (and of its absolute encoder) the getters are served from,
+     * refreshed by SwerveDrive at the start of each cycle. null if none.
+     */
+    default SensorSignals getSensorSignals() {
+        return null;
+    }
+
     void periodic();
 }
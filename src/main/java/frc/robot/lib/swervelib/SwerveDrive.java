@@ -1,22 +1,96 @@
 package frc.robot.lib.swervelib;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.DriverStation;
 
-public class SwerveDrive {
+public class SwerveDrive implements AutoCloseable {
     private final SwerveModule[] modules;
 
     private static final ChassisSpeeds STOP_SPEEDS = new ChassisSpeeds(0, 0, 0);
     private final SwerveModuleState[] stopStates;
+    // Reused on each cycle, so reading the modules doesn't allocate.
+    private final SwerveModulePosition[] modulePositions;
+    private final SwerveModuleState[] moduleStates;
+    private final SwerveModuleState[] referenceModuleStates;
+    private final DrivetrainSnapshot snapshot;
+    private final SwerveKinematics kinematics;
+    // One entry per module. Targets of the last command: the angles are kept for the modules at rest.
+    private final double[] targetSpeedsMS;
+    private final double[] targetAnglesRadians;
+    // Set points sent to the modules: continuous steer angles, and drive speeds in m/s or pct.
+    private final double[] steerSetPointsRadians;
+    private final double[] driveSigns;
+    private final double[] driveSetPoints;
+    // Steer feedforwards of the second order kinematics, else 0.
+    private final double[] steerVelocitiesRadiansPerSecond;
+    private final ChassisSpeeds measuredChassisSpeeds = new ChassisSpeeds();
+    // Chassis speeds of the module targets, after discretization, set point generation and desaturation.
+    private final ChassisSpeeds targetChassisSpeeds = new ChassisSpeeds();
+    private final ChassisSpeeds discretizedChassisSpeeds = new ChassisSpeeds();
+    // Second order kinematics: the target chassis speeds the acceleration is measured from, and when they were sent.
+    private final ChassisSpeeds accelerationReferenceChassisSpeeds = new ChassisSpeeds();
+    private double accelerationReferenceSeconds = Double.NaN;
+    private double targetAxMSS = 0;
+    private double targetAyMSS = 0;
+    private double targetAlphaRadiansPerSecondSquared = 0;
+    // Commands closer than this are from the same cycle: the first one gave the acceleration.
+    private static final double MIN_COMMAND_PERIOD_SECONDS = 0.001;
+    // After a longer gap, e.g. from disabled to enabled, the previous target is stale.
+    private static final double MAX_COMMAND_PERIOD_SECONDS = 0.1;
+    // Only when configured.
+    private final SwerveSetPointGenerator setPointGenerator;
     private final SwerveDrivePoseEstimator odometry;
+    // 250 Hz sampling queues 5 samples per 20 ms cycle: leaves room for a few overrunning cycles.
+    private static final int ODOMETRY_SAMPLE_CAPACITY = 64;
+    // Only when an odometry thread is configured.
+    private final OdometrySampleRing odometrySamples;
+    private final OdometrySample odometrySample;
+    private final OdometrySampler odometrySampler;
+    // 2 s of history at the 50 Hz robot loop.
+    private static final int POSE_HISTORY_CAPACITY = 100;
+    // Camera pipelines report a few poses per cycle. Older measurements than the pose estimator
+    // history (1.5 s) can't be fused anymore.
+    private static final int VISION_QUEUE_CAPACITY = 32;
+    private static final double VISION_MAX_AGE_SECONDS = 1.0;
+    private final VisionMeasurementQueue visionMeasurements = new VisionMeasurementQueue(VISION_QUEUE_CAPACITY);
+    private final VisionMeasurementQueue.Consumer visionMeasurementFuser = this::fuseVisionMeasurement;
+    private final PoseHistory poseHistory = new PoseHistory(POSE_HISTORY_CAPACITY);
+    private final DrivetrainTimings timings = new DrivetrainTimings();
+    private final DrivetrainPhaseTimestamps phaseTimestamps = new DrivetrainPhaseTimestamps();
+    private double odometryTimestampSeconds = Double.NaN;
+    private boolean gyroSeeded;
+    private final GyroSample gyroSample = new GyroSample();
+    // The last heading given to the pose estimator, kept while the gyro doesn't move.
+    private Rotation2d lastGyroAngle = Rotation2d.fromDegrees(0);
+    // Only when recording.
+    private DrivetrainRecorder recorder;
+    private DrivetrainRecord record;
     private static final Pose2d INITIAL_POSE = new Pose2d(0, 0, Rotation2d.fromDegrees(0)); 
+    // For all the modules together: they are configured in parallel, so about the time of the slowest one.
+    static final long MODULE_INIT_TIMEOUT_MS = 5000;
 
     private final SwerveDriveConfiguration configuration;
+    // The signals of the modules and gyro, batched by vendor and bus.
+    private final SensorSignals[] sensorSignals;
+    private long failedSensorRefreshCount = 0;
+    private boolean sensorRefreshFailing = false;
 
     public SwerveDrive(
             SwerveModuleConfiguration frontLeft,
@@ -28,21 +102,172 @@ public class SwerveDrive {
             SteerConfiguration steerConfiguration,
             AbsoluteEncoderConfiguration absoluteEncoderConfiguration,
             SwerveDriveConfiguration swerveDriveConfiguration) {
+        this(
+            new SwerveModuleConfiguration[]{frontLeft, frontRight, backLeft, backRight},
+            gearRatio,
+            driveConfiguration,
+            steerConfiguration,
+            absoluteEncoderConfiguration,
+            swerveDriveConfiguration
+        );
+    }
+
+    /**
+     * Any number of modules, in the order of the kinematics module locations. The module indexes of the getters
+     * follow this order. With 4 modules in front left, front right, back left, back right order, {@link ModuleLocation} can be used.
+     */
+    public SwerveDrive(
+            SwerveModuleConfiguration[] moduleConfigurations,
+            GearRatio gearRatio,
+            DriveConfiguration driveConfiguration,
+            SteerConfiguration steerConfiguration,
+            AbsoluteEncoderConfiguration absoluteEncoderConfiguration,
+            SwerveDriveConfiguration swerveDriveConfiguration) {
+        var moduleCount = swerveDriveConfiguration.kinematics.getModules().length;
+        if (moduleConfigurations.length != moduleCount) {
+            throw new IllegalArgumentException(String.format(
+                "%d module configurations for %d module locations in the kinematics",
+                moduleConfigurations.length,
+                moduleCount
+            ));
+        }
         this.configuration = swerveDriveConfiguration;
 
         stopStates = swerveDriveConfiguration.kinematics.toSwerveModuleStates(STOP_SPEEDS);
-        modules = new SwerveModule[]{
-            createSwerveModule(frontLeft, gearRatio, driveConfiguration, steerConfiguration, absoluteEncoderConfiguration),
-            createSwerveModule(frontRight, gearRatio, driveConfiguration, steerConfiguration, absoluteEncoderConfiguration),
-            createSwerveModule(backLeft, gearRatio, driveConfiguration, steerConfiguration, absoluteEncoderConfiguration),
-            createSwerveModule(backRight, gearRatio, driveConfiguration, steerConfiguration, absoluteEncoderConfiguration)
-        };
+        kinematics = new SwerveKinematics(swerveDriveConfiguration.kinematics.getModules());
+        setPointGenerator = swerveDriveConfiguration.hasSetPointGenerator()
+            ? swerveDriveConfiguration.setPointGenerator.createSetPointGenerator(kinematics, swerveDriveConfiguration.maxSpeedMS)
+            : null;
+        modules = createSwerveModules(
+            moduleConfigurations,
+            gearRatio,
+            driveConfiguration,
+            steerConfiguration,
+            absoluteEncoderConfiguration
+        );
 
+        var signalBudget = swerveDriveConfiguration.getEffectiveSignalBudget();
+        signalBudget.ensureFitsBus(modules.length);
+        for (var module: modules) {
+            module.applySignalBudget(signalBudget);
+        }
+
+        var deviceSignals = new SensorSignals[modules.length + 1];
+        for (int i = 0; i < modules.length; i++) {
+            deviceSignals[i] = modules[i].getSensorSignals();
+        }
+        deviceSignals[modules.length] = swerveDriveConfiguration.hasGyro() ? swerveDriveConfiguration.gyro.getSensorSignals() : null;
+        sensorSignals = SensorSignals.batch(deviceSignals);
+
+        snapshot = new DrivetrainSnapshot(modules.length);
+        targetSpeedsMS = new double[modules.length];
+        targetAnglesRadians = new double[modules.length];
+        steerSetPointsRadians = new double[modules.length];
+        driveSigns = new double[modules.length];
+        driveSetPoints = new double[modules.length];
+        steerVelocitiesRadiansPerSecond = new double[modules.length];
+        modulePositions = new SwerveModulePosition[modules.length];
+        moduleStates = new SwerveModuleState[modules.length];
+        referenceModuleStates = new SwerveModuleState[modules.length];
+        for (int i = 0; i < modules.length; i++) {
+            modulePositions[i] = new SwerveModulePosition();
+            moduleStates[i] = new SwerveModuleState();
+            referenceModuleStates[i] = new SwerveModuleState();
+        }
+
+        captureSnapshot();
+        refreshModulePositions();
         odometry = new SwerveDrivePoseEstimator(
             swerveDriveConfiguration.kinematics, 
-            swerveDriveConfiguration.gyroAngleSupplier.get(), 
-            getModulePositions(), 
+            getGyroAngleAt(snapshot.getTimestampSeconds()), 
+            modulePositions, 
             INITIAL_POSE);
+        gyroSeeded = swerveDriveConfiguration.gyroReadySupplier.getAsBoolean();
+
+        if (swerveDriveConfiguration.hasOdometryThread()) {
+            var driveControllers = new DriveController[modules.length];
+            var steerControllers = new SteerController[modules.length];
+            for (int i = 0; i < modules.length; i++) {
+                driveControllers[i] = modules[i].getDriveController();
+                steerControllers[i] = modules[i].getSteerController();
+            }
+            odometrySamples = new OdometrySampleRing(modules.length, ODOMETRY_SAMPLE_CAPACITY);
+            odometrySample = new OdometrySample(modules.length);
+            odometrySampler = swerveDriveConfiguration.odometryConfiguration.createOdometrySampler(driveControllers, steerControllers, odometrySamples);
+            odometrySampler.start();
+        } else {
+            odometrySamples = null;
+            odometrySample = null;
+            odometrySampler = null;
+        }
+    }
+
+    /**
+     * Creates the modules in parallel, one task per module, since most of the boot time is spent waiting for the devices
+     * to acknowledge their configuration. Every module is waited for, up to a common deadline, so a single exception
+     * reports all the modules that failed or timed out.
+     */
+    private SwerveModule[] createSwerveModules(
+            SwerveModuleConfiguration[] moduleConfigurations,
+            GearRatio gearRatio,
+            DriveConfiguration driveConfiguration,
+            SteerConfiguration steerConfiguration,
+            AbsoluteEncoderConfiguration absoluteEncoderConfiguration) {
+        var result = new SwerveModule[moduleConfigurations.length];
+        @SuppressWarnings("unchecked")
+        Future<SwerveModule>[] futures = new Future[moduleConfigurations.length];
+        ExecutorService executor = Executors.newFixedThreadPool(moduleConfigurations.length, task -> {
+            var thread = new Thread(task, "Swerve module init");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var failures = new StringBuilder();
+        var causes = new ArrayList<Throwable>();
+        try {
+            for (int i = 0; i < moduleConfigurations.length; i++) {
+                var moduleConfiguration = moduleConfigurations[i];
+                futures[i] = executor.submit(() -> createSwerveModule(moduleConfiguration, gearRatio, driveConfiguration, steerConfiguration, absoluteEncoderConfiguration));
+            }
+
+            long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MODULE_INIT_TIMEOUT_MS);
+            for (int i = 0; i < moduleConfigurations.length; i++) {
+                try {
+                    result[i] = futures[i].get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    appendFailure(failures, i, moduleConfigurations[i], e.getCause().toString());
+                    causes.add(e.getCause());
+                } catch (TimeoutException e) {
+                    appendFailure(failures, i, moduleConfigurations[i], "not configured after " + MODULE_INIT_TIMEOUT_MS + " ms");
+                    futures[i].cancel(true);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while initializing the swerve modules", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failures.length() > 0) {
+            var report = new RuntimeException("Swerve module initialization failed:" + failures);
+            for (var cause: causes) {
+                report.addSuppressed(cause);
+            }
+            throw report;
+        }
+        return result;
+    }
+
+    private static void appendFailure(StringBuilder failures, int moduleIndex, SwerveModuleConfiguration moduleConfiguration, String reason) {
+        failures.append(String.format(
+            "%n - module %d (drive %d, steer %d, encoder %d on %s): %s",
+            moduleIndex,
+            moduleConfiguration.driveMotorCanId,
+            moduleConfiguration.steerMotorCanId,
+            moduleConfiguration.absoluteEncoderCanId,
+            moduleConfiguration.canBusName,
+            reason
+        ));
     }
 
     private SwerveModule createSwerveModule(
@@ -53,26 +278,60 @@ public class SwerveDrive {
             AbsoluteEncoderConfiguration absoluteEncoderConfiguration) {
         AbsoluteEncoder absoluteEncoder = absoluteEncoderConfiguration.createAbsoluteEncoder(
             moduleConfiguration.absoluteEncoderCanId,
+            moduleConfiguration.canBusName,
             moduleConfiguration.absoluteEncoderAngleOffset
         );
 
         SwerveModule result = new SwerveModule(
-            driveConfiguration.createDriveController(moduleConfiguration.driveMotorCanId, gearRatio, configuration.maxSpeedMS),
-            steerConfiguration.createSteerController(moduleConfiguration.steerMotorCanId, gearRatio, absoluteEncoder)
+            driveConfiguration.createDriveController(moduleConfiguration.driveMotorCanId, moduleConfiguration.canBusName, gearRatio, configuration.maxSpeedMS),
+            steerConfiguration.createSteerController(moduleConfiguration.steerMotorCanId, moduleConfiguration.canBusName, gearRatio, absoluteEncoder)
         );
         return result;
     }
 
-    private SwerveModulePosition[] getModulePositions() {
-        SwerveModulePosition[] result = new SwerveModulePosition[modules.length];
+    /**
+     * Reads all the module sensors, after refreshing the device signals in one batch per vendor and bus.
+     * Until the next call, the getters below are served from the snapshot, without touching the CAN bus.
+     */
+    void captureSnapshot() {
+        var refreshed = true;
+        for (var signals: sensorSignals) {
+            refreshed &= signals.refresh();
+        }
+        if (!refreshed) {
+            failedSensorRefreshCount++;
+            if (!sensorRefreshFailing) {
+                DriverStation.reportWarning("Drivetrain sensors could not be refreshed: their previous values are used", false);
+            }
+        }
+        sensorRefreshFailing = !refreshed;
+        configuration.sensorRefresher.run();
+        snapshot.capture(modules, MathSharedStore.getTimestamp());
+        phaseTimestamps.recordSense(snapshot.getTimestampSeconds());
+    }
 
-        for (int i = 0; i < result.length; i++) {
-            result[i] = new SwerveModulePosition(
-                    modules[i].getDrivePositionM(),
-                    Rotation2d.fromDegrees(modules[i].getSteerAngle().degrees()));
+    /**
+     * Updates modulePositions in place, from the snapshot. The pose estimator copies the positions it keeps, so they can be reused.
+     * Rotation2d being immutable, a new one is only created when the steer angle actually changed: the estimator keeps
+     * it in its history, so it is the one allocation per turning module and cycle.
+     */
+    void refreshModulePositions() {
+        for (int i = 0; i < modules.length; i++) {
+            var position = modulePositions[i];
+            position.distanceMeters = snapshot.getDrivePositionM(i);
+            position.angle = AngleMath.rotationOf(position.angle, snapshot.getSteerAngleRadians(i));
         }
+    }
 
-        return result;
+    /**
+     * Without an odometry thread, the module positions were refreshed from the same snapshot: their rotations are shared.
+     */
+    private void refreshModuleStates() {
+        for (int i = 0; i < modules.length; i++) {
+            var state = moduleStates[i];
+            state.speedMetersPerSecond = snapshot.getDriveSpeedMS(i);
+            state.angle = AngleMath.rotationOf(state.angle, modulePositions[i].angle, snapshot.getSteerAngleRadians(i));
+        }
     }
 
     public Pose2d getEstimatedPositionM() {
@@ -80,38 +339,228 @@ public class SwerveDrive {
     }
 
     public void resetEstimatedPosition(Pose2d actualPoseM) {
-        odometry.resetPosition(configuration.gyroAngleSupplier.get(), getModulePositions(), actualPoseM);
+        if (odometrySamples != null) {
+            // Samples taken before the reset would move the robot away from the new pose.
+            while (odometrySamples.poll(odometrySample)) {
+            }
+        }
+        captureSnapshot();
+        refreshModulePositions();
+        odometry.resetPosition(getGyroAngleAt(snapshot.getTimestampSeconds()), modulePositions, actualPoseM);
+        // The robot did not travel from the previous poses to this one.
+        poseHistory.clear();
+    }
+
+    /**
+     * The estimated poses and chassis speeds of the last cycles, e.g. to match a camera frame or compensate
+     * for the robot motion. Entries are as estimated at the time: later vision measurements don't change them.
+     */
+    public PoseHistory getPoseHistory() {
+        return poseHistory;
+    }
+
+    /**
+     * @param timestampSeconds in the WPILib time base, like Timer.getFPGATimestamp().
+     */
+    public Optional<Pose2d> getEstimatedPositionAt(double timestampSeconds) {
+        return poseHistory.getPoseAt(timestampSeconds);
+    }
+
+    /**
+     * Thread safe: the measurement is queued, then fused by the next periodic().
+     *
+     * @param timestampSeconds when the camera frame was captured, in the WPILib time base.
+     * @return false if it was dropped because too many measurements were already queued.
+     */
+    public boolean addVisionMeasurement(Pose2d poseM, double timestampSeconds) {
+        return addVisionMeasurement(poseM.getX(), poseM.getY(), poseM.getRotation().getRadians(), timestampSeconds, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Same as addVisionMeasurement(Pose2d, double), trusting this measurement with the given standard deviations.
+     */
+    public boolean addVisionMeasurement(Pose2d poseM, double timestampSeconds, double stdDevXM, double stdDevYM, double stdDevHeadingRadians) {
+        return addVisionMeasurement(poseM.getX(), poseM.getY(), poseM.getRotation().getRadians(), timestampSeconds, stdDevXM, stdDevYM, stdDevHeadingRadians);
+    }
+
+    /**
+     * Allocation free version, for vision threads. Pass NaN standard deviations to use the pose estimator defaults.
+     */
+    public boolean addVisionMeasurement(double xM, double yM, double headingRadians, double timestampSeconds, double stdDevXM, double stdDevYM, double stdDevHeadingRadians) {
+        return visionMeasurements.offer(xM, yM, headingRadians, timestampSeconds, stdDevXM, stdDevYM, stdDevHeadingRadians);
+    }
+
+    private void fuseVisionMeasurement(double xM, double yM, double headingRadians, double timestampSeconds, double stdDevXM, double stdDevYM, double stdDevHeadingRadians) {
+        var poseM = new Pose2d(xM, yM, new Rotation2d(headingRadians));
+        if (Double.isFinite(stdDevXM) && Double.isFinite(stdDevYM) && Double.isFinite(stdDevHeadingRadians)) {
+            odometry.addVisionMeasurement(poseM, timestampSeconds, VecBuilder.fill(stdDevXM, stdDevYM, stdDevHeadingRadians));
+        } else {
+            odometry.addVisionMeasurement(poseM, timestampSeconds);
+        }
+    }
+
+    /**
+     * @return the number of vision measurements dropped because the queue was full.
+     */
+    public long getDroppedVisionOverflowCount() {
+        return visionMeasurements.getOverflowCount();
+    }
+
+    /**
+     * @return the number of vision measurements dropped because they were too old when fused.
+     */
+    public long getDroppedVisionStaleCount() {
+        return visionMeasurements.getStaleCount();
+    }
+
+    /*
+     * Each command goes through three phases: sense, the snapshot read by periodic(); compute, the kinematics and
+     * the steer optimization from the snapshot angles, without touching the CAN bus; actuate, the set points of
+     * all the modules sent back-to-back, so they all get a command computed from the same readings at about the same time.
+     */
+
+    private long startComputePhase() {
+        phaseTimestamps.recordCompute(MathSharedStore.getTimestamp());
+        return System.nanoTime();
+    }
+
+    /**
+     * Steer optimization of the module targets, from the snapshot angles: branch free loops over the module arrays.
+     */
+    private void setModuleTargets(boolean closedLoop, long startNanos) {
+        AngleMath.optimize(targetAnglesRadians, snapshot.getSteerAnglesRadians(), steerSetPointsRadians, driveSigns);
+        var driveScale = closedLoop ? 1 : 1 / configuration.maxSpeedMS; // Open loop: convert to pct
+        for (int i = 0; i < driveSetPoints.length; i++) {
+            driveSetPoints[i] = targetSpeedsMS[i] * driveSigns[i] * driveScale;
+        }
+        startNanos = timings.record(DrivetrainStage.KINEMATICS, startNanos);
+
+        phaseTimestamps.recordActuate(MathSharedStore.getTimestamp());
+        for (int i = 0; i < modules.length; i++) {
+            modules[i].actuate(steerSetPointsRadians[i], steerVelocitiesRadiansPerSecond[i], driveSetPoints[i], closedLoop);
+            startNanos = timings.record(DrivetrainStage.ACTUATION, startNanos);
+        }
+        phaseTimestamps.recordActuateEnd(MathSharedStore.getTimestamp());
+    }
+
+    /**
+     * With second order kinematics, the chassis speeds are discretized first, and the steer feedforwards come from
+     * the change of the target chassis speeds since the last command.
+     */
+    private void setModuleSpeeds(ChassisSpeeds chassisSpeeds, boolean closedLoop, long startNanos) {
+        var vxMS = chassisSpeeds.vxMetersPerSecond;
+        var vyMS = chassisSpeeds.vyMetersPerSecond;
+        var omegaRadiansPerSecond = chassisSpeeds.omegaRadiansPerSecond;
+        if (configuration.hasSecondOrderKinematics()) {
+            SwerveKinematics.discretize(vxMS, vyMS, omegaRadiansPerSecond, configuration.secondOrderPeriodSeconds, discretizedChassisSpeeds);
+            vxMS = discretizedChassisSpeeds.vxMetersPerSecond;
+            vyMS = discretizedChassisSpeeds.vyMetersPerSecond;
+            omegaRadiansPerSecond = discretizedChassisSpeeds.omegaRadiansPerSecond;
+        }
+
+        if (setPointGenerator != null) {
+            setPointGenerator.generate(vxMS, vyMS, omegaRadiansPerSecond, targetSpeedsMS, targetAnglesRadians);
+        } else {
+            kinematics.toModuleStates(vxMS, vyMS, omegaRadiansPerSecond, targetSpeedsMS, targetAnglesRadians);
+            SwerveKinematics.desaturate(targetSpeedsMS, configuration.maxSpeedMS);
+        }
+
+        if (configuration.hasSecondOrderKinematics()) {
+            kinematics.toChassisSpeeds(targetSpeedsMS, targetAnglesRadians, targetChassisSpeeds);
+            updateTargetAcceleration(phaseTimestamps.getComputeSeconds());
+            kinematics.toSteerVelocities(
+                targetChassisSpeeds.vxMetersPerSecond,
+                targetChassisSpeeds.vyMetersPerSecond,
+                targetChassisSpeeds.omegaRadiansPerSecond,
+                targetAxMSS,
+                targetAyMSS,
+                targetAlphaRadiansPerSecondSquared,
+                steerVelocitiesRadiansPerSecond);
+        }
+        setModuleTargets(closedLoop, startNanos);
     }
 
-    public void addVisionMeasurement(Pose2d poseM, double timestampSeconds) {
-        odometry.addVisionMeasurement(poseM, timestampSeconds);
+    /**
+     * The change of the target chassis speeds over the measured time since the previous command, like
+     * SetPointAcceleration: 0 for the first command, or after a gap in the commands.
+     */
+    private void updateTargetAcceleration(double nowSeconds) {
+        var periodSeconds = nowSeconds - accelerationReferenceSeconds;
+        if (periodSeconds < MIN_COMMAND_PERIOD_SECONDS) {
+            return;
+        }
+        if (periodSeconds > MAX_COMMAND_PERIOD_SECONDS || !Double.isFinite(periodSeconds)) {
+            targetAxMSS = 0;
+            targetAyMSS = 0;
+            targetAlphaRadiansPerSecondSquared = 0;
+        } else {
+            targetAxMSS = (targetChassisSpeeds.vxMetersPerSecond - accelerationReferenceChassisSpeeds.vxMetersPerSecond) / periodSeconds;
+            targetAyMSS = (targetChassisSpeeds.vyMetersPerSecond - accelerationReferenceChassisSpeeds.vyMetersPerSecond) / periodSeconds;
+            targetAlphaRadiansPerSecondSquared = (targetChassisSpeeds.omegaRadiansPerSecond - accelerationReferenceChassisSpeeds.omegaRadiansPerSecond) / periodSeconds;
+        }
+        accelerationReferenceChassisSpeeds.vxMetersPerSecond = targetChassisSpeeds.vxMetersPerSecond;
+        accelerationReferenceChassisSpeeds.vyMetersPerSecond = targetChassisSpeeds.vyMetersPerSecond;
+        accelerationReferenceChassisSpeeds.omegaRadiansPerSecond = targetChassisSpeeds.omegaRadiansPerSecond;
+        accelerationReferenceSeconds = nowSeconds;
     }
 
-    private void setOpenLoopModuleStates(SwerveModuleState[] states) {
+    /**
+     * Not limited by the set point generator, if any: it continues from these states. No steer feedforward.
+     */
+    private void setModuleStates(SwerveModuleState[] states, boolean closedLoop, long startNanos) {
         for (int i = 0; i < modules.length; i++) {
-            modules[i].setOpenLoopSpeed(
-                    states[i].speedMetersPerSecond / configuration.maxSpeedMS, // Convert to pct
-                    DiscreetAngle.fromRotation(states[i].angle));
+            targetSpeedsMS[i] = states[i].speedMetersPerSecond;
+            targetAnglesRadians[i] = states[i].angle.getRadians();
         }
+        kinematics.toChassisSpeeds(targetSpeedsMS, targetAnglesRadians, targetChassisSpeeds);
+        if (setPointGenerator != null) {
+            setPointGenerator.reset(
+                targetChassisSpeeds.vxMetersPerSecond,
+                targetChassisSpeeds.vyMetersPerSecond,
+                targetChassisSpeeds.omegaRadiansPerSecond,
+                targetAnglesRadians);
+        }
+        Arrays.fill(steerVelocitiesRadiansPerSecond, 0);
+        // The next chassis speeds command starts without acceleration.
+        accelerationReferenceSeconds = Double.NaN;
+        setModuleTargets(closedLoop, startNanos);
+    }
+
+    /**
+     * @return the measured module states of the current cycle. The array is reused: copy it to keep it.
+     */
+    public SwerveModuleState[] getModuleStates() {
+        refreshModuleStates();
+        return moduleStates;
     }
 
+    /**
+     * @return the last speeds and angles asked to the modules. The array is reused: copy it to keep it.
+     * A Rotation2d is only created for the modules whose reference changed, and is not their measured angle.
+     */
+    public SwerveModuleState[] getReferenceModuleStates() {
+        for (int i = 0; i < modules.length; i++) {
+            var state = referenceModuleStates[i];
+            state.speedMetersPerSecond = modules[i].getReferenceSpeedMS();
+            state.angle = AngleMath.rotationOf(state.angle, modulePositions[i].angle, modules[i].getSteerReferenceAngleRadians());
+        }
+        return referenceModuleStates;
+    }
+
+    /**
+     * @return the chassis speeds measured in the current cycle. The object is reused: copy it to keep it.
+     */
     public ChassisSpeeds getChassisSpeed(){
-        return configuration.kinematics.toChassisSpeeds(
-            this.modules[0].getState(),
-            this.modules[1].getState(),
-            this.modules[2].getState(),
-            this.modules[3].getState()
-        );
+        kinematics.toChassisSpeeds(snapshot.getDriveSpeedsMS(), snapshot.getSteerAnglesRadians(), measuredChassisSpeeds);
+        return measuredChassisSpeeds;
     }
 
     public void stop() {
-        setOpenLoopModuleStates(stopStates);
+        setModuleStates(stopStates, false, startComputePhase());
     }
 
     public void setOpenLoopSpeed(ChassisSpeeds chassisSpeeds) {
-        var states = configuration.kinematics.toSwerveModuleStates(chassisSpeeds);
-        SwerveDriveKinematics.desaturateWheelSpeeds(states, configuration.maxSpeedMS);
-        setOpenLoopModuleStates(states);
+        setModuleSpeeds(chassisSpeeds, false, startComputePhase());
     }
 
     /**
@@ -119,65 +568,273 @@ public class SwerveDrive {
      * For your programmed auto routine, use setClosedLoopSpeed() instead.
      */
     public void setClosedLoopModuleStates(SwerveModuleState[] states) {
-        for (int i = 0; i < modules.length; i++) {
-            modules[i].setClosedLoopSpeed(
-                    states[i].speedMetersPerSecond,
-                    DiscreetAngle.fromRotation(states[i].angle));
+        if (states.length != modules.length) {
+            throw new IllegalArgumentException("Expected " + modules.length + " module states, got " + states.length);
         }
+        setModuleStates(states, true, startComputePhase());
     }
 
     public void setClosedLoopSpeed(ChassisSpeeds chassisSpeeds) {
-        var states = configuration.kinematics.toSwerveModuleStates(chassisSpeeds);
-        SwerveDriveKinematics.desaturateWheelSpeeds(states, configuration.maxSpeedMS);
-        setClosedLoopModuleStates(states);
+        setModuleSpeeds(chassisSpeeds, true, startComputePhase());
     }
 
     /* Useful for calibrating pivot PID. You can use this in a command which is orienting the module at some angle. */
     public void steerAllWheelsAtRestTo(Rotation2d angle) {
-        setOpenLoopModuleStates(new SwerveModuleState[]{
-            new SwerveModuleState(0, angle),
-            new SwerveModuleState(0, angle),
-            new SwerveModuleState(0, angle),
-            new SwerveModuleState(0, angle)
-        });
+        var startNanos = startComputePhase();
+        Arrays.fill(targetSpeedsMS, 0);
+        Arrays.fill(targetAnglesRadians, angle.getRadians());
+        Arrays.fill(steerVelocitiesRadiansPerSecond, 0);
+        targetChassisSpeeds.vxMetersPerSecond = 0;
+        targetChassisSpeeds.vyMetersPerSecond = 0;
+        targetChassisSpeeds.omegaRadiansPerSecond = 0;
+        accelerationReferenceSeconds = Double.NaN;
+        if (setPointGenerator != null) {
+            setPointGenerator.reset(0, 0, 0, targetAnglesRadians);
+        }
+        setModuleTargets(false, startNanos);
+    }
+
+    /**
+     * Feeds the pose estimator with every sample queued by the odometry thread since the last cycle.
+     *
+     * @return false if there was none, e.g. the thread missed its CAN frames.
+     */
+    private boolean replayOdometrySamples() {
+        var replayed = false;
+        Rotation2d mainLoopGyroAngle = null;
+
+        while (odometrySamples.poll(odometrySample)) {
+            for (int i = 0; i < modules.length; i++) {
+                var position = modulePositions[i];
+                position.distanceMeters = odometrySample.drivePositionsM[i];
+                position.angle = AngleMath.rotationOf(position.angle, odometrySample.steerAnglesRadians[i]);
+            }
+
+            Rotation2d gyroAngle;
+            if (Double.isFinite(odometrySample.gyroYawRadians)) {
+                lastGyroAngle = AngleMath.rotationOf(lastGyroAngle, odometrySample.gyroYawRadians);
+                gyroAngle = lastGyroAngle;
+            } else if (configuration.hasGyro()) {
+                // The sampler has no gyro: take the latest measurement, aligned on the sample time.
+                gyroAngle = getGyroAngleAt(odometrySample.timestampSeconds);
+            } else {
+                // The sampler has no gyro: the heading is only read at the main loop rate.
+                if (mainLoopGyroAngle == null) {
+                    mainLoopGyroAngle = configuration.gyroAngleSupplier.get();
+                }
+                gyroAngle = mainLoopGyroAngle;
+            }
+            odometry.updateWithTime(odometrySample.timestampSeconds, gyroAngle, modulePositions);
+            odometryTimestampSeconds = odometrySample.timestampSeconds;
+            recordOdometryUpdate(gyroAngle);
+            replayed = true;
+        }
+        return replayed;
+    }
+
+    /**
+     * @return the gyro heading at the given time, when the configuration has a timestamped gyro. Else the current heading.
+     * The previous Rotation2d is returned while the heading doesn't change.
+     */
+    private Rotation2d getGyroAngleAt(double timestampSeconds) {
+        if (!configuration.hasGyro()) {
+            return configuration.gyroAngleSupplier.get();
+        }
+        configuration.gyro.read(gyroSample);
+        lastGyroAngle = AngleMath.rotationOf(lastGyroAngle, gyroSample.getYawRadiansAt(timestampSeconds));
+        return lastGyroAngle;
+    }
+
+    /**
+     * The pose estimator keeps the offset between the gyro and the field heading from its last reset, and a gyro still
+     * calibrating reports a placeholder heading. The offset is taken again from the first valid heading, keeping the
+     * current pose. Done before this cycle's update: the positions are still the ones of the previous update, so no wheel
+     * travel is lost.
+     */
+    private void seedGyroWhenReady() {
+        if (configuration.gyroReadySupplier.getAsBoolean()) {
+            odometry.resetPosition(getGyroAngleAt(odometryTimestampSeconds), modulePositions, odometry.getEstimatedPosition());
+            gyroSeeded = true;
+        }
+    }
+
+    /**
+     * @return false until the gyro reported a valid heading, and the pose estimator was seeded with it.
+     */
+    public boolean isGyroSeeded() {
+        return gyroSeeded;
+    }
+
+    /**
+     * @return the number of cycles where some module or gyro signals could not be refreshed, e.g. a device unplugged.
+     * Their previous values were used. A warning is reported each time the refreshes start failing.
+     */
+    public long getFailedSensorRefreshCount() {
+        return failedSensorRefreshCount;
+    }
+
+    /**
+     * @return the number of odometry samples lost because the main loop did not drain them in time.
+     */
+    public long getDroppedOdometrySampleCount() {
+        return odometrySamples == null ? 0 : odometrySamples.getDroppedCount();
+    }
+
+    /**
+     * Starts offering one record per odometry update to the recorder: every odometry thread sample when
+     * there is one, else once per cycle. Speeds and set points are the ones of the cycle.
+     *
+     * @param recorder null to stop recording.
+     */
+    public void setRecorder(DrivetrainRecorder recorder) {
+        if (recorder != null && recorder.getModuleCount() != modules.length) {
+            throw new IllegalArgumentException("The recorder must have one column per module");
+        }
+        this.record = recorder == null ? null : new DrivetrainRecord(modules.length);
+        this.recorder = recorder;
+    }
+
+    private void prepareRecord() {
+        for (int i = 0; i < modules.length; i++) {
+            record.driveSpeedsMS[i] = snapshot.getDriveSpeedMS(i);
+            record.referenceSpeedsMS[i] = modules[i].getReferenceSpeedMS();
+            record.steerReferenceAnglesRadians[i] = modules[i].getSteerReferenceAngleRadians();
+        }
+    }
+
+    private void recordOdometryUpdate(Rotation2d gyroAngle) {
+        if (recorder == null) {
+            return;
+        }
+        record.timestampSeconds = odometryTimestampSeconds;
+        record.gyroYawRadians = gyroAngle.getRadians();
+        for (int i = 0; i < modules.length; i++) {
+            record.drivePositionsM[i] = modulePositions[i].distanceMeters;
+            record.steerAnglesRadians[i] = modulePositions[i].angle.getRadians();
+        }
+        recorder.record(record);
+    }
+
+    /**
+     * Time spent in each stage of the cycle. Read and reset them periodically, e.g. with SwerveDriveTelemetry.
+     */
+    public DrivetrainTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * When the sensors of the last command were read, and when it was computed and sent.
+     */
+    public DrivetrainPhaseTimestamps getPhaseTimestamps() {
+        return phaseTimestamps;
     }
 
     public void periodic() {
-        odometry.update(configuration.gyroAngleSupplier.get(), getModulePositions());
+        var startNanos = System.nanoTime();
+        captureSnapshot();
+        startNanos = timings.record(DrivetrainStage.SENSOR_READ, startNanos);
+        if (recorder != null) {
+            prepareRecord();
+        }
+        if (!gyroSeeded) {
+            seedGyroWhenReady();
+        }
+        if (odometrySampler == null || !replayOdometrySamples()) {
+            refreshModulePositions();
+            odometryTimestampSeconds = snapshot.getTimestampSeconds();
+            var gyroAngle = getGyroAngleAt(odometryTimestampSeconds);
+            odometry.updateWithTime(odometryTimestampSeconds, gyroAngle, modulePositions);
+            recordOdometryUpdate(gyroAngle);
+        }
+        startNanos = timings.record(DrivetrainStage.ODOMETRY, startNanos);
+        // After odometry, so measurements up to the latest sample can be fused.
+        visionMeasurements.drain(odometryTimestampSeconds - VISION_MAX_AGE_SECONDS, visionMeasurementFuser);
+        timings.record(DrivetrainStage.VISION, startNanos);
+        kinematics.toChassisSpeeds(snapshot.getDriveSpeedsMS(), snapshot.getSteerAnglesRadians(), measuredChassisSpeeds);
+        poseHistory.add(odometryTimestampSeconds, odometry.getEstimatedPosition(), measuredChassisSpeeds);
         for(var module: modules) {
             module.periodic();
         }
     }
 
+    /**
+     * Stops the odometry thread, if any. The devices are left open: they belong to the robot for its whole run.
+     */
+    @Override
+    public void close() {
+        if (odometrySampler != null) {
+            odometrySampler.stop();
+        }
+    }
+
+    /**
+     * @return the sensor readings of the current cycle, updated in place by periodic().
+     */
+    public DrivetrainSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getModuleCount() {
+        return modules.length;
+    }
+
+    public DiscreetAngle getSteerAbsoluteAngle(int moduleIndex) {
+        return DiscreetAngle.fromRadians(snapshot.getSteerAbsoluteAngleRadians(moduleIndex));
+    }
+
     public DiscreetAngle getSteerAbsoluteAngle(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getSteerAbsoluteAngle();
+        return getSteerAbsoluteAngle(moduleLocation.index);
     } 
 
-    public Double getDriveSpeedMS(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getDriveSpeedMS();
+    public double getDriveSpeedMS(int moduleIndex) {
+        return snapshot.getDriveSpeedMS(moduleIndex);
+    }
+
+    public double getDriveSpeedMS(ModuleLocation moduleLocation) {
+        return getDriveSpeedMS(moduleLocation.index);
     }
 
     /**
      * Get the distance travelled by the given module in the encoder's native units.
      * SparkMax: motor rotations. TalonFX: motor rotations.
      */
+    public double getDrivePositionNativeUnits(int moduleIndex) {
+        return snapshot.getDrivePositionNativeUnits(moduleIndex);
+    }
+
     public double getDrivePositionNativeUnits(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getDrivePositionNativeUnits();
+        return getDrivePositionNativeUnits(moduleLocation.index);
+    }
+
+    public double getDrivePositionM(int moduleIndex) {
+        return snapshot.getDrivePositionM(moduleIndex);
     }
 
     public double getDrivePositionM(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getDrivePositionM();
+        return getDrivePositionM(moduleLocation.index);
+    }
+
+    public ContinuousAngle getSteerAngle(int moduleIndex) {
+        return ContinuousAngle.fromRadians(snapshot.getSteerAngleRadians(moduleIndex));
     }
 
     public ContinuousAngle getSteerAngle(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getSteerAngle();
+        return getSteerAngle(moduleLocation.index);
     } 
 
+    public double getReferenceSpeedMS(int moduleIndex) {
+        return modules[moduleIndex].getReferenceSpeedMS();
+    }
+
     public double getReferenceSpeedMS(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getReferenceSpeedMS();
+        return getReferenceSpeedMS(moduleLocation.index);
+    }
+
+    public ContinuousAngle getSteerReferenceAngle(int moduleIndex) {
+        return modules[moduleIndex].getSteerReferenceAngle();
     }
 
     public ContinuousAngle getSteerReferenceAngle(ModuleLocation moduleLocation) {
-        return modules[moduleLocation.index].getSteerReferenceAngle();
+        return getSteerReferenceAngle(moduleLocation.index);
     }
 }
@@ -1,18 +1,230 @@
 package frc.robot.lib.swervelib;
 
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 
 public class SwerveDriveConfiguration {
+    private static final Runnable NO_SENSOR_REFRESH = () -> {};
+    private static final BooleanSupplier ALWAYS_READY = () -> true;
+
     public final double maxSpeedMS;
     public final SwerveDriveKinematics kinematics;
     public final Supplier<Rotation2d> gyroAngleSupplier;
+    /**
+     * Called once at the start of each cycle, after the device signals are refreshed and before the module sensors are read.
+     * For sensors the modules and gyro don't expose with getSensorSignals(), e.g. read by a custom gyroAngleSupplier.
+     */
+    public final Runnable sensorRefresher;
+    /**
+     * Optional. When set, odometry is sampled by a dedicated thread and replayed by each periodic().
+     */
+    public final OdometryConfiguration odometryConfiguration;
+    /**
+     * The module CAN signals the robot code needs. The odometry thread, if any, adds its own rate.
+     */
+    public final CanSignalBudget signalBudget;
+    /**
+     * Polled on each cycle until true. The pose estimator is then seeded again from the gyro heading,
+     * keeping the current pose, so a gyro still calibrating at boot doesn't have to be waited for.
+     */
+    public final BooleanSupplier gyroReadySupplier;
+    /**
+     * Optional. When set, the odometry uses the gyro yaw extrapolated to the time of the module positions,
+     * instead of gyroAngleSupplier read whenever the update runs.
+     */
+    public final Gyro gyro;
+    /**
+     * Optional. When set, the chassis speeds commands are limited to what the modules can follow in one period.
+     */
+    public final SwerveSetPointGeneratorConfiguration setPointGenerator;
+    /**
+     * Optional, NaN when not set. The loop period of the second order kinematics: the chassis speeds commands are
+     * discretized over it, and the steer controllers get the module angular velocities as feedforward.
+     */
+    public final double secondOrderPeriodSeconds;
 
-    public SwerveDriveConfiguration(double maxSpeedMs, SwerveDriveKinematics kinematics, Supplier<Rotation2d> gyroAngleSupplier) {
+    private SwerveDriveConfiguration(
+        double maxSpeedMs,
+        SwerveDriveKinematics kinematics,
+        Supplier<Rotation2d> gyroAngleSupplier,
+        Runnable sensorRefresher,
+        OdometryConfiguration odometryConfiguration,
+        CanSignalBudget signalBudget,
+        BooleanSupplier gyroReadySupplier,
+        Gyro gyro,
+        SwerveSetPointGeneratorConfiguration setPointGenerator,
+        double secondOrderPeriodSeconds) {
         this.maxSpeedMS = maxSpeedMs;
         this.kinematics = kinematics;
         this.gyroAngleSupplier = gyroAngleSupplier;
+        this.sensorRefresher = sensorRefresher;
+        this.odometryConfiguration = odometryConfiguration;
+        this.signalBudget = signalBudget;
+        this.gyroReadySupplier = gyroReadySupplier;
+        this.gyro = gyro;
+        this.setPointGenerator = setPointGenerator;
+        this.secondOrderPeriodSeconds = secondOrderPeriodSeconds;
+    }
+
+    /**
+     * The optional settings are added with the with*() methods.
+     */
+    public SwerveDriveConfiguration(double maxSpeedMs, SwerveDriveKinematics kinematics, Supplier<Rotation2d> gyroAngleSupplier) {
+        this(
+            maxSpeedMs,
+            kinematics,
+            gyroAngleSupplier,
+            NO_SENSOR_REFRESH,
+            null,
+            new CanSignalBudget(),
+            ALWAYS_READY,
+            null,
+            null,
+            Double.NaN
+        );
+    }
+
+    public SwerveDriveConfiguration(double maxSpeedMs, SwerveDriveKinematics kinematics, Gyro gyro) {
+        this(
+            maxSpeedMs,
+            kinematics,
+            () -> new Rotation2d(gyro.getYawRadians()),
+            NO_SENSOR_REFRESH,
+            null,
+            new CanSignalBudget(),
+            gyro::isReady,
+            gyro,
+            null,
+            Double.NaN
+        );
+    }
+
+    public SwerveDriveConfiguration withSensorRefresher(Runnable sensorRefresher) {
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            sensorRefresher,
+            this.odometryConfiguration,
+            this.signalBudget,
+            this.gyroReadySupplier,
+            this.gyro,
+            this.setPointGenerator,
+            this.secondOrderPeriodSeconds
+        );
+    }
+
+    public boolean hasGyro() {
+        return gyro != null;
+    }
+
+    public boolean hasOdometryThread() {
+        return odometryConfiguration != null;
+    }
+
+    public SwerveDriveConfiguration withOdometryThread(OdometryConfiguration odometryConfiguration) {
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            this.sensorRefresher,
+            odometryConfiguration,
+            this.signalBudget,
+            this.gyroReadySupplier,
+            this.gyro,
+            this.setPointGenerator,
+            this.secondOrderPeriodSeconds
+        );
+    }
+
+    public SwerveDriveConfiguration withSignalBudget(CanSignalBudget signalBudget) {
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            this.sensorRefresher,
+            this.odometryConfiguration,
+            signalBudget,
+            this.gyroReadySupplier,
+            this.gyro,
+            this.setPointGenerator,
+            this.secondOrderPeriodSeconds
+        );
+    }
+
+    public SwerveDriveConfiguration withGyroReadiness(BooleanSupplier gyroReadySupplier) {
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            this.sensorRefresher,
+            this.odometryConfiguration,
+            this.signalBudget,
+            gyroReadySupplier,
+            this.gyro,
+            this.setPointGenerator,
+            this.secondOrderPeriodSeconds
+        );
+    }
+
+    public boolean hasSetPointGenerator() {
+        return setPointGenerator != null;
+    }
+
+    public SwerveDriveConfiguration withSetPointGenerator(SwerveSetPointGeneratorConfiguration setPointGenerator) {
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            this.sensorRefresher,
+            this.odometryConfiguration,
+            this.signalBudget,
+            this.gyroReadySupplier,
+            this.gyro,
+            setPointGenerator,
+            this.secondOrderPeriodSeconds
+        );
+    }
+
+    public boolean hasSecondOrderKinematics() {
+        return Double.isFinite(secondOrderPeriodSeconds);
+    }
+
+    /**
+     * Compensates the drift when translating while rotating, and makes the steer follow the module angles
+     * as they turn instead of lagging behind. The period is the robot loop one, usually 0.02 s.
+     */
+    public SwerveDriveConfiguration withSecondOrderKinematics(double periodSeconds) {
+        if (!(periodSeconds > 0)) {
+            throw new IllegalArgumentException("The second order kinematics period must be positive, got " + periodSeconds);
+        }
+        return new SwerveDriveConfiguration(
+            this.maxSpeedMS,
+            this.kinematics,
+            this.gyroAngleSupplier,
+            this.sensorRefresher,
+            this.odometryConfiguration,
+            this.signalBudget,
+            this.gyroReadySupplier,
+            this.gyro,
+            this.setPointGenerator,
+            periodSeconds
+        );
+    }
+
+    /**
+     * @return the signal budget, with the module positions at the odometry thread rate when there is one.
+     */
+    public CanSignalBudget getEffectiveSignalBudget() {
+        if (!hasOdometryThread() || !Double.isFinite(odometryConfiguration.getFrequencyHz())) {
+            return signalBudget;
+        }
+        var odometryFrequencyHz = odometryConfiguration.getFrequencyHz();
+        return signalBudget
+            .withSignal(CanSignal.DRIVE_POSITION, CanSignalConsumer.ODOMETRY, odometryFrequencyHz)
+            .withSignal(CanSignal.STEER_POSITION, CanSignalConsumer.ODOMETRY, odometryFrequencyHz);
     }
 }
@@ -0,0 +1,103 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+
+/**
+ * Publishes the drivetrain state to NetworkTables as WPILib structs (readable by AdvantageScope and Elastic).
+ * <p>
+ * publish() should be called once per cycle, after SwerveDrive.periodic(). Everything comes from the cycle
+ * snapshot and the last set points: publishing never touches the CAN bus, and costs the same whatever the
+ * number of dashboards listening.
+ */
+public class SwerveDriveTelemetry {
+    private final SwerveDrive swerveDrive;
+    private final SwerveDriveTelemetryConfiguration configuration;
+    private final StructArrayPublisher<SwerveModuleState> moduleStatesPublisher;
+    private final StructArrayPublisher<SwerveModuleState> referenceModuleStatesPublisher;
+    private final DoubleArrayPublisher steerAbsoluteAnglesPublisher;
+    private final StructPublisher<Pose2d> posePublisher;
+    private final StructPublisher<ChassisSpeeds> chassisSpeedPublisher;
+    private final IntegerPublisher failedSensorRefreshesPublisher;
+    private final double[] steerAbsoluteAnglesDegrees;
+    private static final DrivetrainStage[] STAGES = DrivetrainStage.values();
+    private final DoubleArrayPublisher[] timingPublishers = new DoubleArrayPublisher[STAGES.length];
+    private final LatencySummary timingSummary = new LatencySummary();
+    private final double[] timingMicroseconds = new double[3];
+    private long cycle = 0;
+
+    public SwerveDriveTelemetry(SwerveDrive swerveDrive, SwerveDriveTelemetryConfiguration configuration, NetworkTableInstance networkTables) {
+        this.swerveDrive = swerveDrive;
+        this.configuration = configuration;
+        NetworkTable table = networkTables.getTable(configuration.tableName);
+        moduleStatesPublisher = table.getStructArrayTopic("ModuleStates", SwerveModuleState.struct).publish();
+        referenceModuleStatesPublisher = table.getStructArrayTopic("ReferenceModuleStates", SwerveModuleState.struct).publish();
+        steerAbsoluteAnglesPublisher = table.getDoubleArrayTopic("SteerAbsoluteAnglesDeg").publish();
+        posePublisher = table.getStructTopic("Pose", Pose2d.struct).publish();
+        chassisSpeedPublisher = table.getStructTopic("ChassisSpeeds", ChassisSpeeds.struct).publish();
+        failedSensorRefreshesPublisher = table.getIntegerTopic("FailedSensorRefreshes").publish();
+        steerAbsoluteAnglesDegrees = new double[swerveDrive.getSnapshot().getModuleCount()];
+        for (var stage: STAGES) {
+            timingPublishers[stage.ordinal()] = table.getDoubleArrayTopic("Timings/" + stage.displayName + "Us").publish();
+        }
+    }
+
+    public SwerveDriveTelemetry(SwerveDrive swerveDrive, SwerveDriveTelemetryConfiguration configuration) {
+        this(swerveDrive, configuration, NetworkTableInstance.getDefault());
+    }
+
+    public SwerveDriveTelemetry(SwerveDrive swerveDrive) {
+        this(swerveDrive, new SwerveDriveTelemetryConfiguration());
+    }
+
+    public void publish() {
+        if (isDue(configuration.moduleStatesDecimation)) {
+            moduleStatesPublisher.set(swerveDrive.getModuleStates());
+            var snapshot = swerveDrive.getSnapshot();
+            for (int i = 0; i < steerAbsoluteAnglesDegrees.length; i++) {
+                steerAbsoluteAnglesDegrees[i] = AngleMath.toDegrees(snapshot.getSteerAbsoluteAngleRadians(i));
+            }
+            steerAbsoluteAnglesPublisher.set(steerAbsoluteAnglesDegrees);
+        }
+        if (isDue(configuration.referenceModuleStatesDecimation)) {
+            referenceModuleStatesPublisher.set(swerveDrive.getReferenceModuleStates());
+        }
+        if (isDue(configuration.poseDecimation)) {
+            posePublisher.set(swerveDrive.getEstimatedPositionM());
+        }
+        if (isDue(configuration.chassisSpeedDecimation)) {
+            chassisSpeedPublisher.set(swerveDrive.getChassisSpeed());
+        }
+        // Not on the first cycle: the histograms would only cover the robot init.
+        if (cycle > 0 && isDue(configuration.timingsDecimation)) {
+            publishTimings();
+            failedSensorRefreshesPublisher.set(swerveDrive.getFailedSensorRefreshCount());
+        }
+        cycle++;
+    }
+
+    /**
+     * Publishes [p50, p99, max] in microseconds for each stage, then resets the histograms.
+     */
+    private void publishTimings() {
+        var timings = swerveDrive.getTimings();
+        for (var stage: STAGES) {
+            timings.readAndReset(stage, timingSummary);
+            timingMicroseconds[0] = timingSummary.p50Nanos / 1e3;
+            timingMicroseconds[1] = timingSummary.p99Nanos / 1e3;
+            timingMicroseconds[2] = timingSummary.maxNanos / 1e3;
+            timingPublishers[stage.ordinal()].set(timingMicroseconds);
+        }
+    }
+
+    private boolean isDue(int decimation) {
+        return cycle % decimation == 0;
+    }
+}
@@ -0,0 +1,119 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * What {@link SwerveDriveTelemetry} publishes, and how often. A decimation of N publishes a topic every N cycles.
+ */
+public class SwerveDriveTelemetryConfiguration {
+    public static final String DEFAULT_TABLE_NAME = "Drivetrain";
+    // Stage timings are percentiles over the cycles since the last publication: once per second at 50 Hz.
+    public static final int DEFAULT_TIMINGS_DECIMATION = 50;
+
+    public final String tableName;
+    public final int moduleStatesDecimation;
+    public final int referenceModuleStatesDecimation;
+    public final int poseDecimation;
+    public final int chassisSpeedDecimation;
+    public final int timingsDecimation;
+
+    public SwerveDriveTelemetryConfiguration(
+        String tableName,
+        int moduleStatesDecimation,
+        int referenceModuleStatesDecimation,
+        int poseDecimation,
+        int chassisSpeedDecimation,
+        int timingsDecimation) {
+        ensurePositive(moduleStatesDecimation);
+        ensurePositive(referenceModuleStatesDecimation);
+        ensurePositive(poseDecimation);
+        ensurePositive(chassisSpeedDecimation);
+        ensurePositive(timingsDecimation);
+        this.tableName = tableName;
+        this.moduleStatesDecimation = moduleStatesDecimation;
+        this.referenceModuleStatesDecimation = referenceModuleStatesDecimation;
+        this.poseDecimation = poseDecimation;
+        this.chassisSpeedDecimation = chassisSpeedDecimation;
+        this.timingsDecimation = timingsDecimation;
+    }
+
+    public SwerveDriveTelemetryConfiguration() {
+        this(DEFAULT_TABLE_NAME, 1, 1, 1, 1, DEFAULT_TIMINGS_DECIMATION);
+    }
+
+    private static void ensurePositive(int decimation) {
+        if (decimation < 1) {
+            throw new IllegalArgumentException("A telemetry decimation must be at least 1 (publish every cycle)");
+        }
+    }
+
+    public SwerveDriveTelemetryConfiguration withTableName(String tableName) {
+        return new SwerveDriveTelemetryConfiguration(
+            tableName,
+            this.moduleStatesDecimation,
+            this.referenceModuleStatesDecimation,
+            this.poseDecimation,
+            this.chassisSpeedDecimation,
+            this.timingsDecimation
+        );
+    }
+
+    /**
+     * Also applies to the absolute steer angles, published along the measured states.
+     */
+    public SwerveDriveTelemetryConfiguration withModuleStatesDecimation(int moduleStatesDecimation) {
+        return new SwerveDriveTelemetryConfiguration(
+            this.tableName,
+            moduleStatesDecimation,
+            this.referenceModuleStatesDecimation,
+            this.poseDecimation,
+            this.chassisSpeedDecimation,
+            this.timingsDecimation
+        );
+    }
+
+    public SwerveDriveTelemetryConfiguration withReferenceModuleStatesDecimation(int referenceModuleStatesDecimation) {
+        return new SwerveDriveTelemetryConfiguration(
+            this.tableName,
+            this.moduleStatesDecimation,
+            referenceModuleStatesDecimation,
+            this.poseDecimation,
+            this.chassisSpeedDecimation,
+            this.timingsDecimation
+        );
+    }
+
+    public SwerveDriveTelemetryConfiguration withPoseDecimation(int poseDecimation) {
+        return new SwerveDriveTelemetryConfiguration(
+            this.tableName,
+            this.moduleStatesDecimation,
+            this.referenceModuleStatesDecimation,
+            poseDecimation,
+            this.chassisSpeedDecimation,
+            this.timingsDecimation
+        );
+    }
+
+    public SwerveDriveTelemetryConfiguration withChassisSpeedDecimation(int chassisSpeedDecimation) {
+        return new SwerveDriveTelemetryConfiguration(
+            this.tableName,
+            this.moduleStatesDecimation,
+            this.referenceModuleStatesDecimation,
+            this.poseDecimation,
+            chassisSpeedDecimation,
+            this.timingsDecimation
+        );
+    }
+
+    /**
+     * Each publication reports p50, p99 and max of the stage timings since the previous one.
+     */
+    public SwerveDriveTelemetryConfiguration withTimingsDecimation(int timingsDecimation) {
+        return new SwerveDriveTelemetryConfiguration(
+            this.tableName,
+            this.moduleStatesDecimation,
+            this.referenceModuleStatesDecimation,
+            this.poseDecimation,
+            this.chassisSpeedDecimation,
+            timingsDecimation
+        );
+    }
+}
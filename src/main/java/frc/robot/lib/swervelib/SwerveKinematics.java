@@ -0,0 +1,212 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Same results as WPILib's SwerveDriveKinematics, ChassisSpeeds.discretize() and desaturateWheelSpeeds(), but on
+ * primitive arrays, updated in place: no SimpleMatrix, state or Rotation2d is allocated per call.
+ * <p>
+ * The inverse kinematics matrix (2 rows per module: [1, 0, -y], [0, 1, x]) and its pseudo-inverse, the forward
+ * kinematics matrix (3 rows of 2 columns per module), are computed once and kept row-major in flat arrays.
+ * The center of rotation is the robot center.
+ */
+public class SwerveKinematics {
+    // Below this speed, the module angle is noise: WPILib keeps the previous one.
+    static final double MIN_MODULE_SPEED_MS = 1e-6;
+    // Below this speed, a small acceleration across the module velocity is a large angular velocity: not fed forward.
+    static final double MIN_STEER_VELOCITY_SPEED_MS = 0.05;
+    private static final double MIN_DETERMINANT = 1e-12;
+    // Below this |cos(dtheta) - 1|, the twist uses the Taylor series, like Pose2d.log().
+    private static final double TWIST_EPSILON = 1e-9;
+
+    private final int moduleCount;
+    private final double[] inverse;
+    private final double[] forward;
+
+    public SwerveKinematics(Translation2d... moduleLocationsM) {
+        if (moduleLocationsM.length < 2) {
+            throw new IllegalArgumentException("A swerve drive needs at least 2 modules");
+        }
+        moduleCount = moduleLocationsM.length;
+        var columnCount = 2 * moduleCount;
+
+        inverse = new double[columnCount * 3];
+        double sumX = 0;
+        double sumY = 0;
+        double sumSquares = 0;
+        for (int i = 0; i < moduleCount; i++) {
+            var x = moduleLocationsM[i].getX();
+            var y = moduleLocationsM[i].getY();
+            var row = 6 * i;
+            inverse[row] = 1;
+            inverse[row + 2] = -y;
+            inverse[row + 4] = 1;
+            inverse[row + 5] = x;
+            sumX += x;
+            sumY += y;
+            sumSquares += x * x + y * y;
+        }
+
+        // Pseudo-inverse (AᵀA)⁻¹Aᵀ, AᵀA being [[n, 0, -Σy], [0, n, Σx], [-Σy, Σx, Σ(x² + y²)]].
+        double n = moduleCount;
+        var a00 = n * sumSquares - sumX * sumX;
+        var a01 = -sumX * sumY;
+        var a02 = n * sumY;
+        var a11 = n * sumSquares - sumY * sumY;
+        var a12 = -n * sumX;
+        var a22 = n * n;
+        var determinant = n * a00 - sumY * a02;
+        if (Math.abs(determinant) < MIN_DETERMINANT) {
+            throw new IllegalArgumentException("The modules must not all be at the same location");
+        }
+        double[] normalInverse = {
+            a00 / determinant, a01 / determinant, a02 / determinant,
+            a01 / determinant, a11 / determinant, a12 / determinant,
+            a02 / determinant, a12 / determinant, a22 / determinant
+        };
+
+        forward = new double[3 * columnCount];
+        for (int r = 0; r < 3; r++) {
+            for (int i = 0; i < moduleCount; i++) {
+                var column = 2 * i;
+                for (int k = 0; k < 3; k++) {
+                    forward[r * columnCount + column] += normalInverse[r * 3 + k] * inverse[6 * i + k];
+                    forward[r * columnCount + column + 1] += normalInverse[r * 3 + k] * inverse[6 * i + 3 + k];
+                }
+            }
+        }
+    }
+
+    public int getModuleCount() {
+        return moduleCount;
+    }
+
+    /**
+     * Inverse kinematics.
+     *
+     * @param speedsMS receives the module speeds, always positive.
+     * @param anglesRadians receives the module angles. Modules slower than 1e-6 m/s keep the angle already in the array.
+     */
+    public void toModuleStates(double vxMS, double vyMS, double omegaRadiansPerSecond, double[] speedsMS, double[] anglesRadians) {
+        for (int i = 0; i < moduleCount; i++) {
+            var row = 6 * i;
+            var x = inverse[row] * vxMS + inverse[row + 1] * vyMS + inverse[row + 2] * omegaRadiansPerSecond;
+            var y = inverse[row + 3] * vxMS + inverse[row + 4] * vyMS + inverse[row + 5] * omegaRadiansPerSecond;
+            var speed = Math.hypot(x, y);
+            speedsMS[i] = speed;
+            if (speed > MIN_MODULE_SPEED_MS) {
+                anglesRadians[i] = Math.atan2(y, x);
+            }
+        }
+    }
+
+    /**
+     * Inverse kinematics as velocity vectors, in the robot frame: linear in the chassis speeds, unlike speeds and angles.
+     */
+    public void toModuleVelocities(double vxMS, double vyMS, double omegaRadiansPerSecond, double[] vxsMS, double[] vysMS) {
+        for (int i = 0; i < moduleCount; i++) {
+            var row = 6 * i;
+            vxsMS[i] = inverse[row] * vxMS + inverse[row + 1] * vyMS + inverse[row + 2] * omegaRadiansPerSecond;
+            vysMS[i] = inverse[row + 3] * vxMS + inverse[row + 4] * vyMS + inverse[row + 5] * omegaRadiansPerSecond;
+        }
+    }
+
+    /**
+     * Second order inverse kinematics: how fast the module angles turn, from the chassis speeds and their derivatives
+     * in the robot frame. For the module velocity v and acceleration a, it is (v x a) / |v|². The same for a module
+     * with its drive inverted.
+     *
+     * @param steerVelocitiesRadiansPerSecond receives the module angular velocities, 0 for modules slower than 5 cm/s.
+     */
+    public void toSteerVelocities(
+            double vxMS,
+            double vyMS,
+            double omegaRadiansPerSecond,
+            double axMSS,
+            double ayMSS,
+            double alphaRadiansPerSecondSquared,
+            double[] steerVelocitiesRadiansPerSecond) {
+        for (int i = 0; i < moduleCount; i++) {
+            var row = 6 * i;
+            var vx = inverse[row] * vxMS + inverse[row + 1] * vyMS + inverse[row + 2] * omegaRadiansPerSecond;
+            var vy = inverse[row + 3] * vxMS + inverse[row + 4] * vyMS + inverse[row + 5] * omegaRadiansPerSecond;
+            var ax = inverse[row] * axMSS + inverse[row + 1] * ayMSS + inverse[row + 2] * alphaRadiansPerSecondSquared;
+            var ay = inverse[row + 3] * axMSS + inverse[row + 4] * ayMSS + inverse[row + 5] * alphaRadiansPerSecondSquared;
+            var squaredSpeed = vx * vx + vy * vy;
+            steerVelocitiesRadiansPerSecond[i] = squaredSpeed > MIN_STEER_VELOCITY_SPEED_MS * MIN_STEER_VELOCITY_SPEED_MS
+                ? (vx * ay - vy * ax) / squaredSpeed
+                : 0;
+        }
+    }
+
+    /**
+     * Forward kinematics: the least squares chassis speeds of the module speeds and angles.
+     *
+     * @param result updated in place.
+     */
+    public void toChassisSpeeds(double[] speedsMS, double[] anglesRadians, ChassisSpeeds result) {
+        var columnCount = 2 * moduleCount;
+        double vx = 0;
+        double vy = 0;
+        double omega = 0;
+        for (int i = 0; i < moduleCount; i++) {
+            var x = speedsMS[i] * Math.cos(anglesRadians[i]);
+            var y = speedsMS[i] * Math.sin(anglesRadians[i]);
+            var column = 2 * i;
+            vx += forward[column] * x + forward[column + 1] * y;
+            vy += forward[columnCount + column] * x + forward[columnCount + column + 1] * y;
+            omega += forward[2 * columnCount + column] * x + forward[2 * columnCount + column + 1] * y;
+        }
+        result.vxMetersPerSecond = vx;
+        result.vyMetersPerSecond = vy;
+        result.omegaRadiansPerSecond = omega;
+    }
+
+    /**
+     * Like ChassisSpeeds.discretize(): the speeds which, held for dtSeconds along an arc, end at the pose reached by
+     * applying the given speeds as a straight line and a rotation. Compensates the drift when translating while rotating.
+     *
+     * @param result updated in place. Can be the same object as the speeds.
+     */
+    public static void discretize(double vxMS, double vyMS, double omegaRadiansPerSecond, double dtSeconds, ChassisSpeeds result) {
+        var dx = vxMS * dtSeconds;
+        var dy = vyMS * dtSeconds;
+        var dtheta = omegaRadiansPerSecond * dtSeconds;
+        var sinTheta = Math.sin(dtheta);
+        var cosTheta = Math.cos(dtheta);
+        // Pose2d.log() from the origin: the rotation angle is normalized to [-pi, pi].
+        dtheta = Math.atan2(sinTheta, cosTheta);
+
+        var halfDtheta = dtheta / 2;
+        var cosMinusOne = cosTheta - 1;
+        double halfThetaByTanOfHalfDtheta;
+        if (Math.abs(cosMinusOne) < TWIST_EPSILON) {
+            halfThetaByTanOfHalfDtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+        } else {
+            halfThetaByTanOfHalfDtheta = -(halfDtheta * sinTheta) / cosMinusOne;
+        }
+        var norm = Math.hypot(halfThetaByTanOfHalfDtheta, halfDtheta);
+        var cos = halfThetaByTanOfHalfDtheta / norm;
+        var sin = -halfDtheta / norm;
+
+        result.vxMetersPerSecond = (dx * cos - dy * sin) * norm / dtSeconds;
+        result.vyMetersPerSecond = (dx * sin + dy * cos) * norm / dtSeconds;
+        result.omegaRadiansPerSecond = dtheta / dtSeconds;
+    }
+
+    /**
+     * Scales all the speeds down by the same factor, so none is above maxSpeedMS and the direction is kept.
+     */
+    public static void desaturate(double[] speedsMS, double maxSpeedMS) {
+        double realMaxSpeedMS = 0;
+        for (var speed: speedsMS) {
+            realMaxSpeedMS = Math.max(realMaxSpeedMS, Math.abs(speed));
+        }
+        if (realMaxSpeedMS > maxSpeedMS) {
+            for (int i = 0; i < speedsMS.length; i++) {
+                speedsMS[i] = speedsMS[i] / realMaxSpeedMS * maxSpeedMS;
+            }
+        }
+    }
+}
@@ -6,8 +6,7 @@ import edu.wpi.first.math.kinematics.SwerveModuleState;
 public class SwerveModule {
     private final DriveController driveController;
     private final SteerController steerController;
-    private static final double TWO_PI = 2 * Math.PI;
-    private static final double HALF_PI = Math.PI / 2.0;
+    private final MutableSteerSetPoint steerSetPoint = new MutableSteerSetPoint();
 
     public SwerveModule(DriveController driveController,
                                SteerController steerController) {
@@ -15,10 +14,18 @@ public class SwerveModule {
         this.steerController = steerController;
     }
 
+    DriveController getDriveController() {
+        return driveController;
+    }
+
+    SteerController getSteerController() {
+        return steerController;
+    }
+
     public SwerveModuleState getState() {
         return new SwerveModuleState(
             getDriveSpeedMS(),
-            Rotation2d.fromRadians(getSteerAngle().radians())
+            Rotation2d.fromRadians(getSteerAngleRadians())
         );
     }
 
@@ -26,10 +33,18 @@ public class SwerveModule {
         return steerController.getAbsoluteAngle();
     }
 
+    public double getSteerAbsoluteAngleRadians() {
+        return steerController.getAbsoluteAngleRadians();
+    }
+
     public ContinuousAngle getSteerAngle() {
         return steerController.getAngle();
     }
 
+    public double getSteerAngleRadians() {
+        return steerController.getAngleRadians();
+    }
+
     public double getDrivePositionM() {
         return driveController.getPositionM();
     }
@@ -38,7 +53,15 @@ public class SwerveModule {
         return driveController.getPositionNativeUnits();
     }
 
-    public Double getDriveSpeedMS() {
+    public double getDrivePositionAgeSeconds() {
+        return driveController.getPositionAgeSeconds();
+    }
+
+    public double getSteerAngleAgeSeconds() {
+        return steerController.getAngleAgeSeconds();
+    }
+
+    public double getDriveSpeedMS() {
         return driveController.getSpeedMS();
     }
 
@@ -46,6 +69,10 @@ public class SwerveModule {
         return driveController.getReferenceSpeedMS();
     }
 
+    public double getSteerReferenceAngleRadians() {
+        return steerController.getReferenceAngleRadians();
+    }
+
     public ContinuousAngle getSteerReferenceAngle() {
         return steerController.getReferenceAngle();
     }
@@ -59,42 +86,54 @@ public class SwerveModule {
     }
 
     public void setOpenLoopSpeed(double drivePct, DiscreetAngle steerAngle) {
-        var steerSetPoint = getSteerAngleAndDriveSign(steerAngle, getSteerAngle());
-        steerController.setReferenceAngle(steerSetPoint.targetAngle);
-        driveController.setOpenLoopSpeed(drivePct * steerSetPoint.driveSign);
+        setOpenLoopSpeed(drivePct, steerAngle.radians());
+    }
+
+    public void setOpenLoopSpeed(double drivePct, double steerAngleRadians) {
+        AngleMath.optimize(steerAngleRadians, steerController.getAngleRadians(), steerSetPoint);
+        actuate(steerSetPoint.targetAngleRadians, 0, drivePct * steerSetPoint.driveSign, false);
     }
 
     public void setClosedLoopSpeed(double driveMS, DiscreetAngle steerAngle) {
-        var steerSetPoint = getSteerAngleAndDriveSign(steerAngle, getSteerAngle());
-        steerController.setReferenceAngle(steerSetPoint.targetAngle);
-        driveController.setClosedLoopSpeed(driveMS * steerSetPoint.driveSign);
-    }    
+        setClosedLoopSpeed(driveMS, steerAngle.radians());
+    }
 
-    static SteerSetPoint getSteerAngleAndDriveSign(DiscreetAngle targetAngle, ContinuousAngle currentAngle) {
-        var driveSign = 1.0;
-        double differenceRadians = targetAngle.radians() - currentAngle.asDiscreet().radians();
-
-        // Change the target angle so the difference is in the range [-180, 180) deg instead of [-360, 360) deg
-        if (differenceRadians >= Math.PI) {
-            differenceRadians -= TWO_PI;
-        } else if (differenceRadians < -Math.PI) {
-            differenceRadians += TWO_PI;
-        }
+    public void setClosedLoopSpeed(double driveMS, double steerAngleRadians) {
+        AngleMath.optimize(steerAngleRadians, steerController.getAngleRadians(), steerSetPoint);
+        actuate(steerSetPoint.targetAngleRadians, 0, driveMS * steerSetPoint.driveSign, true);
+    }
 
-        // If the difference is greater than 90 deg or less than -90 deg the drive can be inverted so the total
-        // movement of the module is less than 90 deg
-        if (differenceRadians > HALF_PI) {
-            differenceRadians -= Math.PI;
-            driveSign = -1.0;
-        } else if (differenceRadians < -HALF_PI) {
-            differenceRadians += Math.PI;
-            driveSign = -1.0;
+    /**
+     * Sends set points already optimized: steer, then drive.
+     *
+     * @param steerVelocityRadiansPerSecond feedforward of the steer, 0 with first order kinematics.
+     * @param driveSetPoint in m/s when closedLoop, else in pct.
+     */
+    void actuate(double steerAngleRadians, double steerVelocityRadiansPerSecond, double driveSetPoint, boolean closedLoop) {
+        steerController.setReferenceAngleRadians(steerAngleRadians, steerVelocityRadiansPerSecond);
+        if (closedLoop) {
+            driveController.setClosedLoopSpeed(driveSetPoint);
+        } else {
+            driveController.setOpenLoopSpeed(driveSetPoint);
         }
+    }
 
-        return new SteerSetPoint(
-            driveSign, 
-            currentAngle.plus(ContinuousAngle.fromRadians(differenceRadians))
-        );
+    static SteerSetPoint getSteerAngleAndDriveSign(DiscreetAngle targetAngle, ContinuousAngle currentAngle) {
+        var result = new MutableSteerSetPoint();
+        AngleMath.optimize(targetAngle.radians(), currentAngle.radians(), result);
+        return new SteerSetPoint(result.driveSign, ContinuousAngle.fromRadians(result.targetAngleRadians));
+    }
+
+    public void applySignalBudget(CanSignalBudget budget) {
+        driveController.applySignalBudget(budget);
+        steerController.applySignalBudget(budget);
+    }
+
+    /**
+     * @return the signals of the drive and steer controllers, batched when possible. null if none.
+     */
+    public SensorSignals getSensorSignals() {
+        return SensorSignals.of(driveController.getSensorSignals(), steerController.getSensorSignals());
     }
 
     public void periodic() {
@@ -1,15 +1,35 @@
 package frc.robot.lib.swervelib;
 
 public class SwerveModuleConfiguration {
+    /** The roboRIO native CAN bus, in Phoenix 6 naming. */
+    public static final String DEFAULT_CAN_BUS = "rio";
+
     public final int steerMotorCanId;
     public final int driveMotorCanId;
     public final int absoluteEncoderCanId;
     public final DiscreetAngle absoluteEncoderAngleOffset;
-    
-    public SwerveModuleConfiguration(int driveMotorCanId, int steerMotorCanId, int absoluteEncoderCanId, DiscreetAngle absoluteEncoderAngleOffset) {
+    /** The bus of the module devices: "rio", or a CANivore name. Ignored by the REV devices. */
+    public final String canBusName;
+
+    public SwerveModuleConfiguration(int driveMotorCanId, int steerMotorCanId, int absoluteEncoderCanId, DiscreetAngle absoluteEncoderAngleOffset, String canBusName) {
         this.steerMotorCanId = steerMotorCanId;
         this.driveMotorCanId = driveMotorCanId;
         this.absoluteEncoderCanId = absoluteEncoderCanId;
         this.absoluteEncoderAngleOffset = absoluteEncoderAngleOffset;
+        this.canBusName = canBusName;
+    }
+
+    public SwerveModuleConfiguration(int driveMotorCanId, int steerMotorCanId, int absoluteEncoderCanId, DiscreetAngle absoluteEncoderAngleOffset) {
+        this(driveMotorCanId, steerMotorCanId, absoluteEncoderCanId, absoluteEncoderAngleOffset, DEFAULT_CAN_BUS);
+    }
+
+    public SwerveModuleConfiguration withCanBus(String canBusName) {
+        return new SwerveModuleConfiguration(
+            this.driveMotorCanId,
+            this.steerMotorCanId,
+            this.absoluteEncoderCanId,
+            this.absoluteEncoderAngleOffset,
+            canBusName
+        );
     }
 }
@@ -0,0 +1,142 @@
+package frc.robot.lib.swervelib;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Moves the set points from the previous ones toward the wanted chassis speeds, as far as the modules can follow in
+ * one period: the next chassis speeds are prev + s * (wanted - prev), with the largest s in [0, 1] keeping every
+ * module within its drive acceleration and steer velocity limits.
+ * <p>
+ * The module velocity vectors are linear in s: the acceleration limit gives s directly. The module angle is
+ * monotonic in s along that line, so the steer limit is found by bisection, below the steps where the drive inverts.
+ * A module slow enough to stop within one period can steer to any angle: otherwise a module slowing down near zero
+ * speed would need ever smaller steps to turn.
+ * Nothing is allocated, all the state is in primitive arrays.
+ */
+public class SwerveSetPointGenerator {
+    // Enough for a steer limit within 0.4 % of the period.
+    private static final int BISECTION_ITERATIONS = 8;
+
+    private final SwerveKinematics kinematics;
+    private final double maxSpeedMS;
+    private final double maxVelocityChangeMS;
+    private final double maxSteerChangeRadians;
+    private final double restSpeedMS;
+    private final double[] wantedSpeedsMS;
+    private final double[] wantedAnglesRadians;
+    private final ChassisSpeeds wanted = new ChassisSpeeds();
+    private final double[] previousVxsMS;
+    private final double[] previousVysMS;
+    private final double[] deltaVxsMS;
+    private final double[] deltaVysMS;
+    private final double[] previousAnglesRadians;
+    private double previousVxMS = 0;
+    private double previousVyMS = 0;
+    private double previousOmegaRadiansPerSecond = 0;
+
+    public SwerveSetPointGenerator(SwerveKinematics kinematics, double maxSpeedMS, SwerveSetPointGeneratorConfiguration configuration) {
+        this.kinematics = kinematics;
+        this.maxSpeedMS = maxSpeedMS;
+        // NaN when there is no limit: the comparisons below are then false.
+        maxVelocityChangeMS = configuration.maxDriveAccelerationMSS * configuration.periodSeconds;
+        maxSteerChangeRadians = configuration.maxSteerVelocityRadiansPerSecond * configuration.periodSeconds;
+        restSpeedMS = configuration.hasDriveAccelerationLimit() ? maxVelocityChangeMS : SwerveKinematics.MIN_MODULE_SPEED_MS;
+        var moduleCount = kinematics.getModuleCount();
+        wantedSpeedsMS = new double[moduleCount];
+        wantedAnglesRadians = new double[moduleCount];
+        previousVxsMS = new double[moduleCount];
+        previousVysMS = new double[moduleCount];
+        deltaVxsMS = new double[moduleCount];
+        deltaVysMS = new double[moduleCount];
+        previousAnglesRadians = new double[moduleCount];
+    }
+
+    /**
+     * Starts from other set points, e.g. after module states were sent without the generator.
+     */
+    public void reset(double vxMS, double vyMS, double omegaRadiansPerSecond, double[] anglesRadians) {
+        previousVxMS = vxMS;
+        previousVyMS = vyMS;
+        previousOmegaRadiansPerSecond = omegaRadiansPerSecond;
+        System.arraycopy(anglesRadians, 0, previousAnglesRadians, 0, previousAnglesRadians.length);
+    }
+
+    /**
+     * @param speedsMS receives the module speeds of the next set point.
+     * @param anglesRadians receives the module angles of the next set point. Modules at rest keep their angle.
+     */
+    public void generate(double vxMS, double vyMS, double omegaRadiansPerSecond, double[] speedsMS, double[] anglesRadians) {
+        System.arraycopy(previousAnglesRadians, 0, wantedAnglesRadians, 0, wantedAnglesRadians.length);
+        kinematics.toModuleStates(vxMS, vyMS, omegaRadiansPerSecond, wantedSpeedsMS, wantedAnglesRadians);
+        SwerveKinematics.desaturate(wantedSpeedsMS, maxSpeedMS);
+        kinematics.toChassisSpeeds(wantedSpeedsMS, wantedAnglesRadians, wanted);
+
+        var deltaVxMS = wanted.vxMetersPerSecond - previousVxMS;
+        var deltaVyMS = wanted.vyMetersPerSecond - previousVyMS;
+        var deltaOmegaRadiansPerSecond = wanted.omegaRadiansPerSecond - previousOmegaRadiansPerSecond;
+        kinematics.toModuleVelocities(previousVxMS, previousVyMS, previousOmegaRadiansPerSecond, previousVxsMS, previousVysMS);
+        kinematics.toModuleVelocities(deltaVxMS, deltaVyMS, deltaOmegaRadiansPerSecond, deltaVxsMS, deltaVysMS);
+
+        var s = 1.0;
+        for (int i = 0; i < previousVxsMS.length; i++) {
+            var velocityChangeMS = Math.hypot(deltaVxsMS[i], deltaVysMS[i]);
+            if (velocityChangeMS * s > maxVelocityChangeMS) {
+                s = maxVelocityChangeMS / velocityChangeMS;
+            }
+        }
+        // A module within its limit by inverting its drive can fall outside of it when another module lowers s:
+        // check them all again until none does. A module limited once stays within its limit for any smaller s,
+        // so this ends after at most one pass per module.
+        var limited = true;
+        while (limited) {
+            limited = false;
+            for (int i = 0; i < previousVxsMS.length; i++) {
+                if (Math.hypot(previousVxsMS[i], previousVysMS[i]) > restSpeedMS
+                        && steerChangeRadians(i, s) > maxSteerChangeRadians) {
+                    s = steerLimitedStep(i, s);
+                    limited = true;
+                }
+            }
+        }
+
+        previousVxMS += s * deltaVxMS;
+        previousVyMS += s * deltaVyMS;
+        previousOmegaRadiansPerSecond += s * deltaOmegaRadiansPerSecond;
+        System.arraycopy(previousAnglesRadians, 0, anglesRadians, 0, anglesRadians.length);
+        kinematics.toModuleStates(previousVxMS, previousVyMS, previousOmegaRadiansPerSecond, speedsMS, anglesRadians);
+        System.arraycopy(anglesRadians, 0, previousAnglesRadians, 0, previousAnglesRadians.length);
+    }
+
+    /**
+     * @return the largest step, up to maxStep, keeping module i within its steer limit. maxStep being outside of it,
+     * it is between the steps turning the module less than the limit and those inverting its drive: the steps below
+     * the result are all within the limit.
+     */
+    private double steerLimitedStep(int i, double maxStep) {
+        double feasible = 0;
+        double infeasible = maxStep;
+        for (int iteration = 0; iteration < BISECTION_ITERATIONS; iteration++) {
+            var step = (feasible + infeasible) / 2;
+            if (steerChangeRadians(i, step) > maxSteerChangeRadians) {
+                infeasible = step;
+            } else {
+                feasible = step;
+            }
+        }
+        return feasible;
+    }
+
+    /**
+     * @return how much module i turns for the step s. The drive can be inverted, so at most 90 deg.
+     */
+    private double steerChangeRadians(int i, double s) {
+        var vxMS = previousVxsMS[i] + s * deltaVxsMS[i];
+        var vyMS = previousVysMS[i] + s * deltaVysMS[i];
+        if (Math.hypot(vxMS, vyMS) <= SwerveKinematics.MIN_MODULE_SPEED_MS) {
+            return 0;
+        }
+        // From the direction of the previous set point: the module angle may be the opposite one.
+        var changeRadians = Math.abs(AngleMath.shortestDelta(Math.atan2(previousVysMS[i], previousVxsMS[i]), Math.atan2(vyMS, vxMS)));
+        return changeRadians > AngleMath.HALF_PI ? Math.PI - changeRadians : changeRadians;
+    }
+}
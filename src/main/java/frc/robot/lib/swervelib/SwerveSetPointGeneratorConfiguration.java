@@ -0,0 +1,43 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * Limits of the modules, for a {@link SwerveSetPointGenerator}. NaN leaves a limit out.
+ */
+public class SwerveSetPointGeneratorConfiguration {
+    private static final double DEFAULT_PERIOD_S = 0.02;
+
+    /** Change of the module velocity vector, in m/s². Bounds the wheel slip, including in turns. */
+    public final double maxDriveAccelerationMSS;
+    public final double maxSteerVelocityRadiansPerSecond;
+    /** Time between two set points: the robot loop period. */
+    public final double periodSeconds;
+
+    public SwerveSetPointGeneratorConfiguration(double maxDriveAccelerationMSS, double maxSteerVelocityRadiansPerSecond, double periodSeconds) {
+        if (maxDriveAccelerationMSS <= 0 || maxSteerVelocityRadiansPerSecond <= 0 || !(periodSeconds > 0)) {
+            throw new IllegalArgumentException("A set point generator needs positive limits and period");
+        }
+        this.maxDriveAccelerationMSS = maxDriveAccelerationMSS;
+        this.maxSteerVelocityRadiansPerSecond = maxSteerVelocityRadiansPerSecond;
+        this.periodSeconds = periodSeconds;
+    }
+
+    public SwerveSetPointGeneratorConfiguration(double maxDriveAccelerationMSS, double maxSteerVelocityRadiansPerSecond) {
+        this(maxDriveAccelerationMSS, maxSteerVelocityRadiansPerSecond, DEFAULT_PERIOD_S);
+    }
+
+    public boolean hasDriveAccelerationLimit() {
+        return Double.isFinite(maxDriveAccelerationMSS);
+    }
+
+    public boolean hasSteerVelocityLimit() {
+        return Double.isFinite(maxSteerVelocityRadiansPerSecond);
+    }
+
+    public SwerveSetPointGeneratorConfiguration withPeriod(double periodSeconds) {
+        return new SwerveSetPointGeneratorConfiguration(this.maxDriveAccelerationMSS, this.maxSteerVelocityRadiansPerSecond, periodSeconds);
+    }
+
+    public SwerveSetPointGenerator createSetPointGenerator(SwerveKinematics kinematics, double maxSpeedMS) {
+        return new SwerveSetPointGenerator(kinematics, maxSpeedMS, this);
+    }
+}
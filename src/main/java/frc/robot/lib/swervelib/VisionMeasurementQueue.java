@@ -0,0 +1,182 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded queue of vision measurements between any number of producer threads (e.g. NetworkTables listeners)
+ * and the main loop, which drains them in timestamp order.
+ * <p>
+ * Measurements are copied into preallocated primitive arrays and producers never block: when the queue is full,
+ * the new measurement is dropped and counted. Each slot carries a sequence number telling whether it is free for
+ * producers or published for the consumer.
+ */
+public class VisionMeasurementQueue {
+    @FunctionalInterface
+    public interface Consumer {
+        /**
+         * @param stdDevXM NaN (like the other std devs) when the pose estimator defaults should be used.
+         */
+        void accept(double xM, double yM, double headingRadians, double timestampSeconds, double stdDevXM, double stdDevYM, double stdDevHeadingRadians);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // Only touched by the consumer.
+
+    private final double[] xsM;
+    private final double[] ysM;
+    private final double[] headingsRadians;
+    private final double[] timestampsSeconds;
+    private final double[] stdDevsXM;
+    private final double[] stdDevsYM;
+    private final double[] stdDevsHeadingRadians;
+
+    // Consumer side: the drained measurements, sorted by timestamp before being handed over.
+    private final int[] drainedSlots;
+    private final double[] drainedTimestamps;
+
+    private final AtomicLong overflowCount = new AtomicLong();
+    private long staleCount = 0;
+
+    /**
+     * @param capacity rounded up to the next power of two.
+     */
+    public VisionMeasurementQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A vision measurement queue needs a capacity of at least 1");
+        }
+        this.capacity = nextPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+        xsM = new double[this.capacity];
+        ysM = new double[this.capacity];
+        headingsRadians = new double[this.capacity];
+        timestampsSeconds = new double[this.capacity];
+        stdDevsXM = new double[this.capacity];
+        stdDevsYM = new double[this.capacity];
+        stdDevsHeadingRadians = new double[this.capacity];
+        drainedSlots = new int[this.capacity];
+        drainedTimestamps = new double[this.capacity];
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Thread safe.
+     *
+     * @return false if the queue was full and the measurement dropped.
+     */
+    public boolean offer(double xM, double yM, double headingRadians, double timestampSeconds, double stdDevXM, double stdDevYM, double stdDevHeadingRadians) {
+        long position = tail.get();
+        int slot;
+        while (true) {
+            slot = (int) position & mask;
+            long sequence = sequences.get(slot);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer did not free this slot yet: full.
+                overflowCount.incrementAndGet();
+                return false;
+            } else {
+                // Another producer took this position.
+                position = tail.get();
+            }
+        }
+
+        xsM[slot] = xM;
+        ysM[slot] = yM;
+        headingsRadians[slot] = headingRadians;
+        timestampsSeconds[slot] = timestampSeconds;
+        stdDevsXM[slot] = stdDevXM;
+        stdDevsYM[slot] = stdDevYM;
+        stdDevsHeadingRadians[slot] = stdDevHeadingRadians;
+        sequences.set(slot, position + 1); // Publishes the slot to the consumer.
+        return true;
+    }
+
+    /**
+     * Main loop only. Hands over every queued measurement, oldest first. Those older than oldestTimestampSeconds
+     * (or without a valid timestamp) are dropped and counted as stale.
+     *
+     * @return the number of measurements handed over.
+     */
+    public int drain(double oldestTimestampSeconds, Consumer consumer) {
+        int drainedCount = 0;
+        // At most one lap: producers may refill the stale slots released below.
+        for (int n = 0; n < capacity; n++) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            var timestampSeconds = timestampsSeconds[slot];
+            if (timestampSeconds >= oldestTimestampSeconds && Double.isFinite(timestampSeconds)) {
+                insertByTimestamp(slot, timestampSeconds, drainedCount);
+                drainedCount++;
+            } else {
+                staleCount++;
+                release(slot);
+            }
+            head++;
+        }
+
+        for (int i = 0; i < drainedCount; i++) {
+            int slot = drainedSlots[i];
+            consumer.accept(xsM[slot], ysM[slot], headingsRadians[slot], timestampsSeconds[slot], stdDevsXM[slot], stdDevsYM[slot], stdDevsHeadingRadians[slot]);
+        }
+        // Slots are only given back once read, so producers can't overwrite them in between.
+        for (int i = 0; i < drainedCount; i++) {
+            release(drainedSlots[i]);
+        }
+        return drainedCount;
+    }
+
+    /**
+     * Insertion sort: there are only a few measurements per cycle, usually already in order.
+     */
+    private void insertByTimestamp(int slot, double timestampSeconds, int count) {
+        int i = count;
+        while (i > 0 && drainedTimestamps[i - 1] > timestampSeconds) {
+            drainedSlots[i] = drainedSlots[i - 1];
+            drainedTimestamps[i] = drainedTimestamps[i - 1];
+            i--;
+        }
+        drainedSlots[i] = slot;
+        drainedTimestamps[i] = timestampSeconds;
+    }
+
+    private void release(int slot) {
+        // The slot is free again for the producer which will be at position (current sequence - 1 + capacity).
+        sequences.set(slot, sequences.get(slot) - 1 + capacity);
+    }
+
+    /**
+     * @return the number of measurements dropped because the queue was full.
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * @return the number of measurements dropped because they were too old to be fused.
+     */
+    public long getStaleCount() {
+        return staleCount;
+    }
+}
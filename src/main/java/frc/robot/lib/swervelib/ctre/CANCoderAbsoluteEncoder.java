@@ -1,32 +1,61 @@
 package frc.robot.lib.swervelib.ctre;
 
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.CANcoder;
 import com.ctre.phoenix6.signals.SensorDirectionValue;
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
 
+import edu.wpi.first.units.measure.Angle;
 import frc.robot.lib.TalonFXUtils;
 import frc.robot.lib.swervelib.AbsoluteEncoder;
+import frc.robot.lib.swervelib.AngleMath;
+import frc.robot.lib.swervelib.CanSignal;
+import frc.robot.lib.swervelib.CanSignalBudget;
 import frc.robot.lib.swervelib.DiscreetAngle;
+import frc.robot.lib.swervelib.SensorSignals;
 
 public class CANCoderAbsoluteEncoder implements AbsoluteEncoder {
-    private static final int TIMEOUT_MS = 250;
     private static final SensorDirectionValue COUNTER_CLOCKWISE = SensorDirectionValue.CounterClockwise_Positive;
+    private static final double CAN_TIMEOUT_S = 0.250;
     private final CANcoder encoder;
+    private final StatusSignal<Angle> absolutePosition;
+    private final PhoenixSensorSignals sensorSignals;
 
-    public CANCoderAbsoluteEncoder(int CANId, DiscreetAngle alignAngle, CANCoderAbsoluteEncoderConfiguration configuration) {
+    public CANCoderAbsoluteEncoder(int CANId, String canBusName, DiscreetAngle alignAngle, CANCoderAbsoluteEncoderConfiguration configuration) {
         CANcoderConfiguration config = new CANcoderConfiguration();
         config.MagnetSensor.AbsoluteSensorDiscontinuityPoint = 1;
         config.MagnetSensor.MagnetOffset = -alignAngle.degrees() / 360.0;
         config.MagnetSensor.SensorDirection = COUNTER_CLOCKWISE;
 
-        encoder = new CANcoder(CANId);
+        encoder = new CANcoder(CANId, new CANBus(canBusName));
         TalonFXUtils.throwIfError(encoder.getConfigurator().apply(config));
-        // encoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, configuration.readingUpdatePeriodMs, TIMEOUT_MS);
-        TalonFXUtils.throwIfError(encoder.getPosition().setUpdateFrequency(TIMEOUT_MS)); //TODO
+
+        // The steer controllers seed their position from it before the first cycle: a frame received before the
+        // new MagnetOffset was applied would seed them off by the previous offset.
+        absolutePosition = encoder.getAbsolutePosition(false);
+        TalonFXUtils.throwIfError(absolutePosition.waitForUpdate(CAN_TIMEOUT_S).getStatus());
+        sensorSignals = new PhoenixSensorSignals(canBusName, absolutePosition);
+    }
+
+    @Override
+    public void applySignalBudget(CanSignalBudget budget) {
+        TalonFXUtils.throwIfError(absolutePosition.setUpdateFrequency(budget.getFrequencyHz(CanSignal.ABSOLUTE_POSITION)));
+        TalonFXUtils.throwIfError(encoder.optimizeBusUtilization());
+    }
+
+    @Override
+    public SensorSignals getSensorSignals() {
+        return sensorSignals;
     }
 
     @Override
     public DiscreetAngle getAbsoluteAngle() {
-        return DiscreetAngle.fromRotations(encoder.getAbsolutePosition().getValueAsDouble());
+        return DiscreetAngle.fromRotations(absolutePosition.getValueAsDouble());
+    }
+
+    @Override
+    public double getAbsoluteAngleRadians() {
+        return AngleMath.wrap(AngleMath.fromRotations(absolutePosition.getValueAsDouble()));
     }
 }
@@ -3,6 +3,7 @@ package frc.robot.lib.swervelib.ctre;
 import frc.robot.lib.swervelib.AbsoluteEncoder;
 import frc.robot.lib.swervelib.AbsoluteEncoderConfiguration;
 import frc.robot.lib.swervelib.DiscreetAngle;
+import frc.robot.lib.swervelib.SwerveModuleConfiguration;
 
 public class CANCoderAbsoluteEncoderConfiguration implements AbsoluteEncoderConfiguration{
     public static final int DEFAULT_READING_UPDATE_PERIOD_MS = 100;
@@ -17,6 +18,11 @@ public class CANCoderAbsoluteEncoderConfiguration implements AbsoluteEncoderConf
     }
     
     public AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, DiscreetAngle alignAngle) {
-        return new CANCoderAbsoluteEncoder(encoderCanId, alignAngle, this);
+        return createAbsoluteEncoder(encoderCanId, SwerveModuleConfiguration.DEFAULT_CAN_BUS, alignAngle);
+    }
+
+    @Override
+    public AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, String canBusName, DiscreetAngle alignAngle) {
+        return new CANCoderAbsoluteEncoder(encoderCanId, canBusName, alignAngle, this);
     }
 }
@@ -0,0 +1,27 @@
+package frc.robot.lib.swervelib.ctre;
+
+import com.ctre.phoenix6.CANBus;
+
+import frc.robot.lib.swervelib.CanSignalBudget;
+
+/**
+ * What the drivetrain needs to know about a Phoenix 6 CAN bus.
+ */
+public final class PhoenixCanBus {
+    /**
+     * @param canBusName "rio" or a CANivore name. Phoenix simulation accepts any name.
+     */
+    public static boolean isCanFd(String canBusName) {
+        return new CANBus(canBusName).isNetworkFD();
+    }
+
+    /**
+     * @return CanSignalBudget.forCanFd() on a CAN FD CANivore, the 1 Mbit defaults otherwise.
+     */
+    public static CanSignalBudget defaultSignalBudget(String canBusName) {
+        return isCanFd(canBusName) ? CanSignalBudget.forCanFd() : new CanSignalBudget();
+    }
+
+    private PhoenixCanBus() {
+    }
+}
@@ -0,0 +1,46 @@
+package frc.robot.lib.swervelib.ctre;
+
+import frc.robot.lib.swervelib.SetPointFilter;
+import frc.robot.lib.swervelib.SetPointFilterConfiguration;
+
+/**
+ * How the TalonFX control requests reach the bus.
+ */
+public enum PhoenixControlDispatch {
+    /**
+     * Phoenix default: the last request is sent again at 100 Hz by the Phoenix thread, so the frames go out
+     * whenever that thread runs, not when SwerveDrive actuates.
+     */
+    PERIODIC,
+    /**
+     * Each set point is sent once, when the controller is called: the frames of all the modules go out
+     * back-to-back in the actuate phase. Unchanged set points still go out at the set point filter keep-alive.
+     */
+    ONE_SHOT,
+    /**
+     * One shot, and applied by all the devices on the same time sync boundary instead of as they arrive.
+     * Needs Phoenix Pro and a CANivore.
+     */
+    ONE_SHOT_TIMESYNC;
+
+    private static final double PERIODIC_FREQUENCY_HZ = 100;
+
+    /**
+     * @return the UpdateFreqHz of the control requests. 0 means one shot.
+     */
+    public double getUpdateFrequencyHz() {
+        return this == PERIODIC ? PERIODIC_FREQUENCY_HZ : 0;
+    }
+
+    public boolean useTimesync() {
+        return this == ONE_SHOT_TIMESYNC;
+    }
+
+    /**
+     * @return the filter of the setControl calls. Periodic requests go out at 100 Hz whatever the calls: skipping
+     * calls would not save a frame, so every set point is passed on.
+     */
+    public SetPointFilter createSetPointFilter(SetPointFilterConfiguration configuration) {
+        return this == PERIODIC ? SetPointFilterConfiguration.disabled().createSetPointFilter() : configuration.createSetPointFilter();
+    }
+}
@@ -0,0 +1,89 @@
+package frc.robot.lib.swervelib.ctre;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+
+import edu.wpi.first.units.measure.Angle;
+
+import frc.robot.lib.swervelib.DriveController;
+import frc.robot.lib.swervelib.OdometryConfiguration;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+import frc.robot.lib.swervelib.OdometrySampler;
+import frc.robot.lib.swervelib.SteerController;
+
+/**
+ * Odometry thread for drivetrains made of TalonFX drive and steer controllers.
+ */
+public class PhoenixOdometryConfiguration implements OdometryConfiguration {
+    public static final double DEFAULT_FREQUENCY_HZ = 250;
+
+    public final double frequencyHz;
+    public final StatusSignal<Angle> gyroYawDegrees;
+
+    public PhoenixOdometryConfiguration(double frequencyHz, StatusSignal<Angle> gyroYawDegrees) {
+        this.frequencyHz = frequencyHz;
+        this.gyroYawDegrees = gyroYawDegrees;
+    }
+
+    public PhoenixOdometryConfiguration() {
+        this(DEFAULT_FREQUENCY_HZ, null);
+    }
+
+    public PhoenixOdometryConfiguration withFrequency(double frequencyHz) {
+        return new PhoenixOdometryConfiguration(frequencyHz, this.gyroYawDegrees);
+    }
+
+    public boolean hasGyroYaw() {
+        return gyroYawDegrees != null;
+    }
+
+    /**
+     * Samples the heading with the modules, when the gyro is a Phoenix device.
+     * Otherwise the heading is read by the main loop, at its own rate.
+     */
+    public PhoenixOdometryConfiguration withGyroYaw(StatusSignal<Angle> gyroYawDegrees) {
+        return new PhoenixOdometryConfiguration(this.frequencyHz, gyroYawDegrees);
+    }
+
+    /**
+     * Samples the Pigeon 2 yaw with the module positions, waiting for all of them in the same batch.
+     */
+    public PhoenixOdometryConfiguration withGyro(Pigeon2Gyro gyro) {
+        return withGyroYaw(gyro.newYawSignal());
+    }
+
+    @Override
+    public double getFrequencyHz() {
+        return frequencyHz;
+    }
+
+    @Override
+    public OdometrySampler createOdometrySampler(DriveController[] driveControllers, SteerController[] steerControllers, OdometrySampleRing samples) {
+        var moduleCount = driveControllers.length;
+        var drivePositions = new BaseStatusSignal[moduleCount];
+        var driveMetersPerRotation = new double[moduleCount];
+        var steerPositions = new BaseStatusSignal[moduleCount];
+        var steerRadiansPerRotation = new double[moduleCount];
+
+        for (int i = 0; i < moduleCount; i++) {
+            if (!(driveControllers[i] instanceof TalonFXDriveController driveController)
+                    || !(steerControllers[i] instanceof TalonFXSteerController steerController)) {
+                throw new IllegalArgumentException("PhoenixOdometryConfiguration needs TalonFX drive and steer controllers");
+            }
+            drivePositions[i] = driveController.newPositionSignal();
+            driveMetersPerRotation[i] = driveController.getMetersPerRotation();
+            steerPositions[i] = steerController.newPositionSignal();
+            steerRadiansPerRotation[i] = steerController.getRadiansPerMotorRotation();
+        }
+
+        return new PhoenixOdometryThread(
+            drivePositions,
+            driveMetersPerRotation,
+            steerPositions,
+            steerRadiansPerRotation,
+            gyroYawDegrees == null ? null : gyroYawDegrees.clone(),
+            frequencyHz,
+            samples
+        );
+    }
+}
@@ -0,0 +1,124 @@
+package frc.robot.lib.swervelib.ctre;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Threads;
+import frc.robot.lib.SystemUtils;
+import frc.robot.lib.TalonFXUtils;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+import frc.robot.lib.swervelib.OdometrySampler;
+
+/**
+ * Waits on the drive and steer positions (and optionally the gyro yaw) of all modules at a high rate,
+ * and pushes them into an {@link OdometrySampleRing} with the time they were measured on the CAN bus.
+ */
+public final class PhoenixOdometryThread implements OdometrySampler {
+    private static final int REAL_TIME_PRIORITY = 1;
+
+    private final BaseStatusSignal[] drivePositions;
+    private final double[] driveMetersPerRotation;
+    private final BaseStatusSignal[] steerPositions;
+    private final double[] steerRadiansPerRotation;
+    private final BaseStatusSignal gyroYawDegrees;
+    private final BaseStatusSignal[] allSignals;
+    private final double periodSeconds;
+    private final OdometrySampleRing samples;
+    private final double[] drivePositionsM;
+    private final double[] steerAnglesRadians;
+    private final Thread thread;
+    private volatile boolean running = false;
+    private volatile long failedWaitCount = 0;
+
+    /**
+     * @param drivePositions the drive motor positions, in rotations, in module order.
+     * @param steerPositions the steer motor positions, in rotations, in module order.
+     * @param gyroYawDegrees null if the gyro is not a Phoenix device.
+     */
+    public PhoenixOdometryThread(
+            BaseStatusSignal[] drivePositions,
+            double[] driveMetersPerRotation,
+            BaseStatusSignal[] steerPositions,
+            double[] steerRadiansPerRotation,
+            BaseStatusSignal gyroYawDegrees,
+            double frequencyHz,
+            OdometrySampleRing samples) {
+        var moduleCount = samples.getModuleCount();
+        if (drivePositions.length != moduleCount || steerPositions.length != moduleCount) {
+            throw new IllegalArgumentException("The odometry thread needs one drive and one steer signal per module");
+        }
+        this.drivePositions = drivePositions;
+        this.driveMetersPerRotation = driveMetersPerRotation;
+        this.steerPositions = steerPositions;
+        this.steerRadiansPerRotation = steerRadiansPerRotation;
+        this.gyroYawDegrees = gyroYawDegrees;
+        this.periodSeconds = 1.0 / frequencyHz;
+        this.samples = samples;
+        drivePositionsM = new double[moduleCount];
+        steerAnglesRadians = new double[moduleCount];
+
+        allSignals = new BaseStatusSignal[2 * moduleCount + (gyroYawDegrees == null ? 0 : 1)];
+        System.arraycopy(drivePositions, 0, allSignals, 0, moduleCount);
+        System.arraycopy(steerPositions, 0, allSignals, moduleCount, moduleCount);
+        if (gyroYawDegrees != null) {
+            allSignals[2 * moduleCount] = gyroYawDegrees;
+        }
+        TalonFXUtils.throwIfError(BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, allSignals));
+
+        thread = new Thread(this::run, "Phoenix odometry");
+        thread.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return how many times the signals did not all arrive in time (unplugged device, overloaded bus).
+     */
+    public long getFailedWaitCount() {
+        return failedWaitCount;
+    }
+
+    private void run() {
+        Threads.setCurrentThreadPriority(true, REAL_TIME_PRIORITY);
+
+        while (running) {
+            // Two periods, so one late frame doesn't count as a failure.
+            var status = BaseStatusSignal.waitForAll(2 * periodSeconds, allSignals);
+            if (!status.isOK()) {
+                failedWaitCount++;
+                // Some errors are returned immediately, e.g. signals on different buses: don't spin.
+                SystemUtils.waitFor((long) (periodSeconds * 1000));
+                continue;
+            }
+            sample();
+        }
+    }
+
+    private void sample() {
+        var latencySumSeconds = 0.0;
+        for (int i = 0; i < drivePositions.length; i++) {
+            drivePositionsM[i] = drivePositions[i].getValueAsDouble() * driveMetersPerRotation[i];
+            steerAnglesRadians[i] = steerPositions[i].getValueAsDouble() * steerRadiansPerRotation[i];
+            latencySumSeconds += drivePositions[i].getTimestamp().getLatency() + steerPositions[i].getTimestamp().getLatency();
+        }
+        var gyroYawRadians = gyroYawDegrees == null ? Double.NaN : Math.toRadians(gyroYawDegrees.getValueAsDouble());
+
+        // The CAN timestamps use the Phoenix time base: go through their age to get back to the FPGA time base.
+        var timestampSeconds = RobotController.getFPGATime() / 1e6 - latencySumSeconds / (2 * drivePositions.length);
+        samples.offer(timestampSeconds, gyroYawRadians, drivePositionsM, steerAnglesRadians);
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.lib.swervelib.ctre;
+
+import java.util.Arrays;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+
+import frc.robot.lib.swervelib.SensorSignals;
+import frc.robot.lib.swervelib.SwerveModuleConfiguration;
+
+/**
+ * Phoenix 6 status signals of one or more devices on the same CAN bus, refreshed together by a single refreshAll().
+ * Phoenix rejects a refreshAll() mixing buses: the signals of other buses are not batched with these ones.
+ * <p>
+ * The controllers only read the cached value of their signals (getValueAsDouble() without refresh()),
+ * so one refreshAll() per cycle replaces one blocking refresh per getter call.
+ */
+public final class PhoenixSensorSignals implements SensorSignals {
+    // Latency compensation limit of the cached values: older frames are stale, e.g. the device was unplugged,
+    // and not worth extrapolating.
+    static final double MAX_LATENCY_S = 0.1;
+
+    private final String canBusName;
+    private final BaseStatusSignal[] signals;
+    private StatusCode lastStatus = StatusCode.OK;
+
+    /**
+     * @param canBusName the bus of the devices, as given to their constructor.
+     */
+    public PhoenixSensorSignals(String canBusName, BaseStatusSignal... signals) {
+        // Phoenix takes "" for the roboRIO bus too.
+        this.canBusName = canBusName.isEmpty() ? SwerveModuleConfiguration.DEFAULT_CAN_BUS : canBusName;
+        this.signals = signals.clone();
+    }
+
+    /**
+     * An error (e.g. a device unplugged) is kept in getLastStatus() rather than thrown, the other signals being still usable.
+     */
+    @Override
+    public boolean refresh() {
+        lastStatus = BaseStatusSignal.refreshAll(signals);
+        return lastStatus.isOK();
+    }
+
+    @Override
+    public SensorSignals batchWith(SensorSignals other) {
+        if (!(other instanceof PhoenixSensorSignals phoenixSignals) || !canBusName.equals(phoenixSignals.canBusName)) {
+            return null;
+        }
+        var batch = Arrays.copyOf(signals, signals.length + phoenixSignals.signals.length);
+        System.arraycopy(phoenixSignals.signals, 0, batch, signals.length, phoenixSignals.signals.length);
+        return new PhoenixSensorSignals(canBusName, batch);
+    }
+
+    public String getCanBusName() {
+        return canBusName;
+    }
+
+    public StatusCode getLastStatus() {
+        return lastStatus;
+    }
+
+    public int getSignalCount() {
+        return signals.length;
+    }
+}
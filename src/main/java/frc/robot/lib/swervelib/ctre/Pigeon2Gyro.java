@@ -0,0 +1,80 @@
+package frc.robot.lib.swervelib.ctre;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.Pigeon2;
+
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
+import edu.wpi.first.wpilibj.RobotController;
+
+import frc.robot.lib.TalonFXUtils;
+import frc.robot.lib.swervelib.AngleMath;
+import frc.robot.lib.swervelib.Gyro;
+import frc.robot.lib.swervelib.SwerveModuleConfiguration;
+
+/**
+ * Pigeon 2 on the same bus as the modules. As the gyro of the SwerveDriveConfiguration, its yaw and yaw rate are
+ * refreshed in the same batch as the drive and steer signals, and the odometry thread can wait on the yaw with the
+ * module positions (see {@link PhoenixOdometryConfiguration#withGyro}). Used alone, refresh getSensorSignals() first.
+ * Its other status signals are turned off.
+ */
+public class Pigeon2Gyro implements Gyro {
+    public static final double DEFAULT_FREQUENCY_HZ = 100;
+
+    private final Pigeon2 pigeon;
+    private final StatusSignal<Angle> yawDegrees;
+    private final StatusSignal<AngularVelocity> yawRateDegreesPerSecond;
+    private final PhoenixSensorSignals sensorSignals;
+
+    public Pigeon2Gyro(int canId) {
+        this(canId, SwerveModuleConfiguration.DEFAULT_CAN_BUS);
+    }
+
+    public Pigeon2Gyro(int canId, String canBusName) {
+        pigeon = new Pigeon2(canId, new CANBus(canBusName));
+        yawDegrees = pigeon.getYaw(false);
+        yawRateDegreesPerSecond = pigeon.getAngularVelocityZWorld(false);
+        TalonFXUtils.throwIfError(BaseStatusSignal.setUpdateFrequencyForAll(DEFAULT_FREQUENCY_HZ, yawDegrees, yawRateDegreesPerSecond));
+        TalonFXUtils.throwIfError(pigeon.optimizeBusUtilization());
+        sensorSignals = new PhoenixSensorSignals(canBusName, yawDegrees, yawRateDegreesPerSecond);
+    }
+
+    public Pigeon2 getPigeon() {
+        return pigeon;
+    }
+
+    @Override
+    public PhoenixSensorSignals getSensorSignals() {
+        return sensorSignals;
+    }
+
+    /**
+     * @return a copy of the yaw signal, which another thread can wait on without sharing the cached one.
+     */
+    StatusSignal<Angle> newYawSignal() {
+        return yawDegrees.clone();
+    }
+
+    /**
+     * @return the yaw at the time of the call: the last received one, moved forward by the yaw rate times its age.
+     */
+    @Override
+    public double getYawRadians() {
+        return AngleMath.fromDegrees(BaseStatusSignal.getLatencyCompensatedValueAsDouble(yawDegrees, yawRateDegreesPerSecond, PhoenixSensorSignals.MAX_LATENCY_S));
+    }
+
+    @Override
+    public double getYawRateRadiansPerSecond() {
+        return AngleMath.fromDegrees(yawRateDegreesPerSecond.getValueAsDouble());
+    }
+
+    /**
+     * @return the time of the call, the yaw being latency compensated.
+     */
+    @Override
+    public double getTimestampSeconds() {
+        return RobotController.getFPGATime() / 1e6;
+    }
+}
@@ -3,6 +3,8 @@ package frc.robot.lib.swervelib.ctre;
 import frc.robot.lib.swervelib.DriveConfiguration;
 import frc.robot.lib.swervelib.DriveController;
 import frc.robot.lib.swervelib.GearRatio;
+import frc.robot.lib.swervelib.SetPointFilterConfiguration;
+import frc.robot.lib.swervelib.SwerveModuleConfiguration;
 
 public class TalonFXDriveConfiguration implements DriveConfiguration {
     private static final double DEFAULT_NOMINAL_VOLTAGE = 12;
@@ -14,10 +16,20 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
     public final double proportionalConstant;
     public final double integralConstant;
     public final double derivativeConstant;
-    public final double velocityConstant;;
+    /**
+     * Closed loop feedforward, in the Slot0 units: volts per motor rotation per second, volts per motor rotation per
+     * second squared, and volts.
+     */
+    public final double velocityConstant;
     public final double accelerationConstant;
     public final double staticConstant;
     public final double rotationsPerMeter;
+    public final SetPointFilterConfiguration setPointFilter;
+    public final PhoenixControlDispatch controlDispatch;
+    /**
+     * Optional, NaN when not set. The closed loop then uses Motion Magic, ramping the velocity at this acceleration.
+     */
+    public final double motionMagicAccelerationMSS;
 
     public TalonFXDriveConfiguration(
         double nominalVoltage,
@@ -29,7 +41,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
         double velocityConstant,
         double accelerationConstant,
         double staticConstant,
-        double rotationsPerMeter) {
+        double rotationsPerMeter,
+        SetPointFilterConfiguration setPointFilter,
+        PhoenixControlDispatch controlDispatch,
+        double motionMagicAccelerationMSS) {
         this.nominalVoltage = nominalVoltage;
         this.currentLimit = currentLimit;
         this.feedForwardConstant = feedForwardConstant;
@@ -40,6 +55,9 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
         this.accelerationConstant = accelerationConstant;
         this.staticConstant = staticConstant;
         this.rotationsPerMeter = rotationsPerMeter;
+        this.setPointFilter = setPointFilter;
+        this.controlDispatch = controlDispatch;
+        this.motionMagicAccelerationMSS = motionMagicAccelerationMSS;
     }
 
     public TalonFXDriveConfiguration() {
@@ -53,12 +71,20 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
             Double.NaN,
             Double.NaN,
             Double.NaN,
+            Double.NaN,
+            new SetPointFilterConfiguration(),
+            PhoenixControlDispatch.PERIODIC,
             Double.NaN
         );
     }
 
     public DriveController createDriveController(int motorCanId, GearRatio gearRatio, double maxSpeedMS) {
-        return new TalonFXDriveController(motorCanId, this, gearRatio, maxSpeedMS);
+        return createDriveController(motorCanId, SwerveModuleConfiguration.DEFAULT_CAN_BUS, gearRatio, maxSpeedMS);
+    }
+
+    @Override
+    public DriveController createDriveController(int motorCanId, String canBusName, GearRatio gearRatio, double maxSpeedMS) {
+        return new TalonFXDriveController(motorCanId, canBusName, this, gearRatio, maxSpeedMS);
     }
 
     public boolean hasVoltageCompensation() {
@@ -76,7 +102,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 this.velocityConstant,
                 this.accelerationConstant,
                 this.staticConstant,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
@@ -95,7 +124,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 this.velocityConstant,
                 this.accelerationConstant,
                 this.staticConstant,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
@@ -110,7 +142,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 this.velocityConstant,
                 this.accelerationConstant,
                 this.staticConstant,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
@@ -125,7 +160,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 this.velocityConstant,
                 this.accelerationConstant,
                 this.staticConstant,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
@@ -140,7 +178,10 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 this.velocityConstant,
                 this.accelerationConstant,
                 this.staticConstant,
-                rotationsPerMeter
+                rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
@@ -148,7 +189,15 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
         return Double.isFinite(proportionalConstant) && Double.isFinite(integralConstant) && Double.isFinite(derivativeConstant);
     }
 
-    public TalonFXDriveConfiguration withMotionMagic(double velocityConstant, double accelerationConstant, double staticConstant) {
+    public boolean hasFeedForward() {
+        return Double.isFinite(staticConstant) && Double.isFinite(velocityConstant) && Double.isFinite(accelerationConstant);
+    }
+
+    /**
+     * kS, kV and kA of Slot0, replacing the kV of withPIDConstants(). The acceleration feedforward comes from the
+     * change between consecutive closed loop set points, or from the Motion Magic profile.
+     */
+    public TalonFXDriveConfiguration withFeedForward(double staticConstant, double velocityConstant, double accelerationConstant) {
         return new TalonFXDriveConfiguration(
                 this.nominalVoltage,
                 this.currentLimit,
@@ -159,11 +208,96 @@ public class TalonFXDriveConfiguration implements DriveConfiguration {
                 velocityConstant,
                 accelerationConstant,
                 staticConstant,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
         );
     }
 
+    /**
+     * @deprecated Turns on the feedforward, not Motion Magic: use {@link #hasFeedForward()}.
+     */
+    @Deprecated
     public boolean hasMotionMagic() {
-        return Double.isFinite(velocityConstant) && Double.isFinite(accelerationConstant) && Double.isFinite(staticConstant);
+        return hasFeedForward();
+    }
+
+    /**
+     * @deprecated Turns on the feedforward, not Motion Magic: use {@link #withFeedForward(double, double, double)},
+     * whose arguments are in the kS, kV, kA order.
+     */
+    @Deprecated
+    public TalonFXDriveConfiguration withMotionMagic(double velocityConstant, double accelerationConstant, double staticConstant) {
+        return withFeedForward(staticConstant, velocityConstant, accelerationConstant);
+    }
+
+    /**
+     * Tolerance in m/s for closed loop set points, and in fraction of the nominal voltage for open loop ones.
+     * Only used with a one shot control dispatch: see {@link PhoenixControlDispatch#createSetPointFilter}.
+     */
+    public TalonFXDriveConfiguration withSetPointFilter(SetPointFilterConfiguration setPointFilter) {
+        return new TalonFXDriveConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.feedForwardConstant,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.velocityConstant,
+                this.accelerationConstant,
+                this.staticConstant,
+                this.rotationsPerMeter,
+                setPointFilter,
+                this.controlDispatch,
+                this.motionMagicAccelerationMSS
+        );
+    }
+
+    /**
+     * PhoenixControlDispatch.ONE_SHOT sends the set points of all the modules back-to-back, when SwerveDrive actuates.
+     */
+    public TalonFXDriveConfiguration withControlDispatch(PhoenixControlDispatch controlDispatch) {
+        return new TalonFXDriveConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.feedForwardConstant,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.velocityConstant,
+                this.accelerationConstant,
+                this.staticConstant,
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                controlDispatch,
+                this.motionMagicAccelerationMSS
+        );
+    }
+
+    public boolean hasMotionMagicAcceleration() {
+        return Double.isFinite(motionMagicAccelerationMSS);
+    }
+
+    /**
+     * Closed loop set points are reached with MotionMagicVelocityVoltage, at this acceleration: kA then comes from the
+     * Motion Magic profile. Needs the constants of withFeedForward().
+     */
+    public TalonFXDriveConfiguration withMotionMagicAcceleration(double motionMagicAccelerationMSS) {
+        return new TalonFXDriveConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.feedForwardConstant,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.velocityConstant,
+                this.accelerationConstant,
+                this.staticConstant,
+                this.rotationsPerMeter,
+                this.setPointFilter,
+                this.controlDispatch,
+                motionMagicAccelerationMSS
+        );
     }
 }
@@ -1,23 +1,50 @@
 package frc.robot.lib.swervelib.ctre;
 
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.MotionMagicVelocityVoltage;
 import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
+
 import com.ctre.phoenix6.signals.FeedbackSensorSourceValue;
 import com.ctre.phoenix6.signals.InvertedValue;
 
 import frc.robot.lib.TalonFXUtils;
+import frc.robot.lib.swervelib.CanSignal;
+import frc.robot.lib.swervelib.CanSignalBudget;
 import frc.robot.lib.swervelib.DriveController;
 import frc.robot.lib.swervelib.GearRatio;
+import frc.robot.lib.swervelib.SensorSignals;
+import frc.robot.lib.swervelib.SetPointAcceleration;
+import frc.robot.lib.swervelib.SetPointFilter;
 
 public final class TalonFXDriveController implements DriveController {
     private final TalonFX motor;
+    private boolean outputUsed = true;
+    private final StatusSignal<Angle> position;
+    private final StatusSignal<AngularVelocity> velocity;
+    private final PhoenixSensorSignals sensorSignals;
     private final double metersPerRotation;
+    private final VoltageOut voltageOut = new VoltageOut(0);
+    private final VelocityVoltage velocityVoltage = new VelocityVoltage(0);
+    private final MotionMagicVelocityVoltage motionMagicVelocityVoltage = new MotionMagicVelocityVoltage(0);
+    private static final int OPEN_LOOP_MODE = 0;
+    private static final int CLOSED_LOOP_MODE = 1;
+    private final SetPointFilter setPointFilter;
+    private final boolean useMotionMagic;
+    // Only with kA and without Motion Magic, which has its own acceleration.
+    private final SetPointAcceleration setPointAcceleration;
+    private double sentAccelerationRPS2 = 0;
     private double referenceSpeedMS = 0;
 
-    public TalonFXDriveController(int motorCanId, TalonFXDriveConfiguration configuration, GearRatio gearRatio, double maxSpeedMS) {
+    public TalonFXDriveController(int motorCanId, String canBusName, TalonFXDriveConfiguration configuration, GearRatio gearRatio, double maxSpeedMS) {
         TalonFXConfiguration motorConfiguration = new TalonFXConfiguration();
         if(!Double.isNaN(configuration.rotationsPerMeter)){
             metersPerRotation = 1 / configuration.rotationsPerMeter;
@@ -36,51 +63,132 @@ public final class TalonFXDriveController implements DriveController {
             motorConfiguration.Slot0.kI = configuration.integralConstant;
             motorConfiguration.Slot0.kD = configuration.derivativeConstant;
         }
+        if (configuration.hasFeedForward()) {
+            motorConfiguration.Slot0.kV = configuration.velocityConstant;
+            motorConfiguration.Slot0.kA = configuration.accelerationConstant;
+            motorConfiguration.Slot0.kS = configuration.staticConstant;
+        }
+        useMotionMagic = configuration.hasMotionMagicAcceleration();
+        if (useMotionMagic) {
+            if (!configuration.hasFeedForward()) {
+                throw new IllegalArgumentException("You must define the feedforward constants of a TalonFXDriveConfiguration using .withFeedForward() to use Motion Magic");
+            }
+            motorConfiguration.MotionMagic.MotionMagicAcceleration = configuration.motionMagicAccelerationMSS / metersPerRotation;
+        }
+        setPointAcceleration = configuration.hasFeedForward() && !useMotionMagic ? new SetPointAcceleration() : null;
  
         if (configuration.hasCurrentLimit()){
                 motorConfiguration.CurrentLimits.SupplyCurrentLimit = configuration.currentLimit;
                 motorConfiguration.CurrentLimits.SupplyCurrentLimitEnable = true;
         }
           
-        motor = new TalonFX(motorCanId);
+        motor = new TalonFX(motorCanId, new CANBus(canBusName));
 
         motorConfiguration.MotorOutput.Inverted = gearRatio.driveInverted ? InvertedValue.Clockwise_Positive : InvertedValue.CounterClockwise_Positive;
         motorConfiguration.MotorOutput.NeutralMode = NeutralModeValue.Brake;
         motorConfiguration.Feedback.withFeedbackSensorSource(FeedbackSensorSourceValue.RotorSensor);
 
         TalonFXUtils.throwIfError(motor.getConfigurator().apply(motorConfiguration));
+        var dispatch = configuration.controlDispatch;
+        setPointFilter = dispatch.createSetPointFilter(configuration.setPointFilter);
+        voltageOut.withUpdateFreqHz(dispatch.getUpdateFrequencyHz()).withUseTimesync(dispatch.useTimesync());
+        velocityVoltage.withUpdateFreqHz(dispatch.getUpdateFrequencyHz()).withUseTimesync(dispatch.useTimesync());
+        motionMagicVelocityVoltage.withUpdateFreqHz(dispatch.getUpdateFrequencyHz()).withUseTimesync(dispatch.useTimesync());
+
+        position = motor.getPosition(false);
+        velocity = motor.getVelocity(false);
+        sensorSignals = new PhoenixSensorSignals(canBusName, position, velocity);
+    }
+
+    /**
+     * @return a copy of the position signal, which another thread can wait on without sharing the cached one.
+     */
+    StatusSignal<Angle> newPositionSignal() {
+        return position.clone();
+    }
+
+    double getMetersPerRotation() {
+        return metersPerRotation;
     }
 
     @Override
-    public void setOpenLoopSpeed(double pct) {
-        motor.setVoltage(pct * 12);
+    public void applySignalBudget(CanSignalBudget budget) {
+        outputUsed = budget.isUsed(CanSignal.DRIVE_OUTPUT);
+        TalonFXUtils.throwIfError(position.setUpdateFrequency(budget.getFrequencyHz(CanSignal.DRIVE_POSITION)));
+        TalonFXUtils.throwIfError(velocity.setUpdateFrequency(budget.getFrequencyHz(CanSignal.DRIVE_VELOCITY)));
+        TalonFXUtils.throwIfError(motor.getClosedLoopOutput(false).setUpdateFrequency(budget.getFrequencyHz(CanSignal.DRIVE_OUTPUT)));
+        TalonFXUtils.throwIfError(motor.optimizeBusUtilization());
+    }
+
+    @Override
+    public SensorSignals getSensorSignals() {
+        return sensorSignals;
+    }
 
+    @Override
+    public void setOpenLoopSpeed(double pct) {
+        if (setPointAcceleration != null) {
+            setPointAcceleration.reset();
+        }
+        if (setPointFilter.shouldSend(OPEN_LOOP_MODE, pct)) {
+            // motor.setVoltage() would allocate a new VoltageOut request on each call.
+            motor.setControl(voltageOut.withOutput(pct * 12));
+        }
     }
 
     @Override
     public void setClosedLoopSpeed(double speedMS) {
-        motor.setControl(new VelocityVoltage(speedMS / metersPerRotation));
+        if (useMotionMagic) {
+            if (setPointFilter.shouldSend(CLOSED_LOOP_MODE, speedMS)) {
+                motor.setControl(motionMagicVelocityVoltage.withVelocity(speedMS / metersPerRotation));
+            }
+        } else {
+            var accelerationRPS2 = setPointAcceleration != null ? setPointAcceleration.update(speedMS) / metersPerRotation : 0;
+            if (accelerationRPS2 != sentAccelerationRPS2) {
+                // Else reaching a steady speed would keep the last acceleration feedforward.
+                setPointFilter.reset();
+            }
+            if (setPointFilter.shouldSend(CLOSED_LOOP_MODE, speedMS)) {
+                motor.setControl(velocityVoltage.withVelocity(speedMS / metersPerRotation).withAcceleration(accelerationRPS2));
+                sentAccelerationRPS2 = accelerationRPS2;
+            }
+        }
         referenceSpeedMS = speedMS;
     }
 
+    /**
+     * Counts the setControl calls made, and the ones skipped because the set point did not change.
+     */
+    public SetPointFilter getSetPointFilter() {
+        return setPointFilter;
+    }
+
     @Override
     public double getSpeedMS() {
-        return motor.getVelocity().getValueAsDouble() * metersPerRotation;
+        return velocity.getValueAsDouble() * metersPerRotation;
     }
 
+    /**
+     * @return the position at the time of the call: the last received one, moved forward by the velocity times its age.
+     */
     @Override
     public double getPositionM() {
-        return motor.getPosition().getValueAsDouble() * metersPerRotation;
+        return BaseStatusSignal.getLatencyCompensatedValueAsDouble(position, velocity, PhoenixSensorSignals.MAX_LATENCY_S) * metersPerRotation;
+    }
+
+    @Override
+    public double getPositionAgeSeconds() {
+        return position.getTimestamp().getLatency();
     }
 
     @Override
     public double getPositionNativeUnits() {
-        return motor.getPosition().getValueAsDouble();
+        return position.getValueAsDouble();
     }
     
     @Override
     public double getOutput() {
-        return motor.getClosedLoopOutput().getValueAsDouble();
+        return outputUsed ? motor.getClosedLoopOutput().getValueAsDouble() : Double.NaN;
     }
 
     @Override
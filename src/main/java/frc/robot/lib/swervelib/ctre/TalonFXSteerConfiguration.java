@@ -2,8 +2,10 @@ package frc.robot.lib.swervelib.ctre;
 
 import frc.robot.lib.swervelib.AbsoluteEncoder;
 import frc.robot.lib.swervelib.GearRatio;
+import frc.robot.lib.swervelib.SetPointFilterConfiguration;
 import frc.robot.lib.swervelib.SteerConfiguration;
 import frc.robot.lib.swervelib.SteerController;
+import frc.robot.lib.swervelib.SwerveModuleConfiguration;
 
 public class TalonFXSteerConfiguration implements SteerConfiguration {
     private static final double DEFAULT_NOMINAL_VOLTAGE = 12;
@@ -14,18 +16,31 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
     public final double proportionalConstant;
     public final double integralConstant;
     public final double derivativeConstant;
+    public final SetPointFilterConfiguration setPointFilter;
+    public final PhoenixControlDispatch controlDispatch;
+    /**
+     * Volts per motor rotation per second. Turns the steer velocity feedforward of the second order kinematics
+     * into voltage. NaN when not set: the feedforward is then ignored.
+     */
+    public final double velocityConstant;
 
     public TalonFXSteerConfiguration(
         double nominalVoltage,
         double currentLimit,
         double proportionalConstant,
         double integralConstant,
-        double derivativeConstant) {
+        double derivativeConstant,
+        SetPointFilterConfiguration setPointFilter,
+        PhoenixControlDispatch controlDispatch,
+        double velocityConstant) {
         this.nominalVoltage = nominalVoltage;
         this.currentLimit = currentLimit;
         this.proportionalConstant = proportionalConstant;
         this.integralConstant = integralConstant;
         this.derivativeConstant = derivativeConstant;
+        this.setPointFilter = setPointFilter;
+        this.controlDispatch = controlDispatch;
+        this.velocityConstant = velocityConstant;
     }
 
     public TalonFXSteerConfiguration() {
@@ -34,12 +49,20 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
             DEFAULT_CURRENT_LIMIT,
             Double.NaN,
             Double.NaN,
+            Double.NaN,
+            new SetPointFilterConfiguration(),
+            PhoenixControlDispatch.PERIODIC,
             Double.NaN
         );
     }
 
     public SteerController createSteerController(int motorCanId, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
-        return new TalonFXSteerController(motorCanId, this, gearRatio, absoluteEncoder);
+        return createSteerController(motorCanId, SwerveModuleConfiguration.DEFAULT_CAN_BUS, gearRatio, absoluteEncoder);
+    }
+
+    @Override
+    public SteerController createSteerController(int motorCanId, String canBusName, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
+        return new TalonFXSteerController(motorCanId, canBusName, this, gearRatio, absoluteEncoder);
     }
 
     public boolean hasVoltageCompensation() {
@@ -52,7 +75,10 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
                 this.currentLimit,
                 this.proportionalConstant,
                 this.integralConstant,
-                this.derivativeConstant
+                this.derivativeConstant,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.velocityConstant
         );
     }
 
@@ -66,7 +92,10 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
                 currentLimit,
                 this.proportionalConstant,
                 this.integralConstant,
-                this.derivativeConstant
+                this.derivativeConstant,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.velocityConstant
         );
     }
 
@@ -76,7 +105,10 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
                 this.currentLimit,
                 proportional,
                 integral,
-                derivative
+                derivative,
+                this.setPointFilter,
+                this.controlDispatch,
+                this.velocityConstant
         );
     }
 
@@ -85,4 +117,56 @@ public class TalonFXSteerConfiguration implements SteerConfiguration {
             throw new IllegalArgumentException("You must define PID parameter for a TalonFXSteerConfiguration using .withPidConstants()");
         }
     }
+
+    /**
+     * Tolerance in radians. Only used with a one shot control dispatch: see {@link PhoenixControlDispatch#createSetPointFilter}.
+     */
+    public TalonFXSteerConfiguration withSetPointFilter(SetPointFilterConfiguration setPointFilter) {
+        return new TalonFXSteerConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                setPointFilter,
+                this.controlDispatch,
+                this.velocityConstant
+        );
+    }
+
+    /**
+     * PhoenixControlDispatch.ONE_SHOT sends the set points of all the modules back-to-back, when SwerveDrive actuates.
+     */
+    public TalonFXSteerConfiguration withControlDispatch(PhoenixControlDispatch controlDispatch) {
+        return new TalonFXSteerConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.setPointFilter,
+                controlDispatch,
+                this.velocityConstant
+        );
+    }
+
+    public boolean hasVelocityConstant() {
+        return Double.isFinite(velocityConstant);
+    }
+
+    /**
+     * Needed for the steer to follow the module angular velocities of SwerveDriveConfiguration.withSecondOrderKinematics().
+     */
+    public TalonFXSteerConfiguration withVelocityConstant(double velocityConstant) {
+        return new TalonFXSteerConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.setPointFilter,
+                this.controlDispatch,
+                velocityConstant
+        );
+    }
 }
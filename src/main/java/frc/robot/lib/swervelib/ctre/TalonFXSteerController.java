@@ -1,5 +1,8 @@
 package frc.robot.lib.swervelib.ctre;
 
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.PositionVoltage;
 import com.ctre.phoenix6.hardware.TalonFX;
@@ -7,37 +10,51 @@ import com.ctre.phoenix6.signals.FeedbackSensorSourceValue;
 import com.ctre.phoenix6.signals.InvertedValue;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 
-import frc.robot.lib.MathUtils;
-import frc.robot.lib.SystemUtils;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
+
 import frc.robot.lib.TalonFXUtils;
 import frc.robot.lib.swervelib.*;
 
 public final class TalonFXSteerController implements SteerController {
     private static final double CAN_TIMEOUT_S = 0.250;
-    private static final long SETTINGS_APPLIED_WAIT_TIMEOUT_MS = 500;
+    private static final double SETTINGS_APPLIED_TIMEOUT_S = 0.5;
 
     private final TalonFX motor;
+    private boolean outputUsed = true;
+    private final StatusSignal<Angle> position;
+    private final StatusSignal<AngularVelocity> velocity;
+    private final SensorSignals sensorSignals;
     private final double steerMotorToMechanismReduction;
     private final AbsoluteEncoder absoluteEncoder;
     private final PositionVoltage positionVoltage = new PositionVoltage(0);
+    private static final int POSITION_MODE = 0;
+    private final SetPointFilter setPointFilter;
 
-    private ContinuousAngle referenceAngle = ContinuousAngle.fromDegrees(0.0);
+    private double referenceAngleRadians = 0;
 
-    public TalonFXSteerController(int motorCanId, TalonFXSteerConfiguration steerConfiguration, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
+    public TalonFXSteerController(int motorCanId, String canBusName, TalonFXSteerConfiguration steerConfiguration, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
         steerConfiguration.ensureHasPidConstants();
         steerMotorToMechanismReduction = gearRatio.steerMotorToMechanismReduction;
+        setPointFilter = steerConfiguration.controlDispatch.createSetPointFilter(steerConfiguration.setPointFilter);
+        positionVoltage
+            .withUpdateFreqHz(steerConfiguration.controlDispatch.getUpdateFrequencyHz())
+            .withUseTimesync(steerConfiguration.controlDispatch.useTimesync());
         this.absoluteEncoder = absoluteEncoder;
 
         final TalonFXConfiguration motorConfiguration = new TalonFXConfiguration();
         motorConfiguration.Slot0.kP = steerConfiguration.proportionalConstant;
         motorConfiguration.Slot0.kI = steerConfiguration.integralConstant;
         motorConfiguration.Slot0.kD = steerConfiguration.derivativeConstant;
+        if (steerConfiguration.hasVelocityConstant()) {
+            motorConfiguration.Slot0.kV = steerConfiguration.velocityConstant;
+        }
         if (steerConfiguration.hasCurrentLimit()) {
             motorConfiguration.CurrentLimits.SupplyCurrentLimit = steerConfiguration.currentLimit;
             motorConfiguration.CurrentLimits.SupplyCurrentLimitEnable = true;
         }
 
-        motor = new TalonFX(motorCanId);
+        motor = new TalonFX(motorCanId, new CANBus(canBusName));
 
         motorConfiguration.Feedback.withFeedbackSensorSource(FeedbackSensorSourceValue.RotorSensor);
         motorConfiguration.MotorOutput.Inverted = gearRatio.steerInverted ? InvertedValue.CounterClockwise_Positive : InvertedValue.Clockwise_Positive;
@@ -46,29 +63,94 @@ public final class TalonFXSteerController implements SteerController {
         TalonFXUtils.throwIfError(motor.getConfigurator().apply(motorConfiguration));
 
         final double appliedMotAngleRot = absoluteEncoder.getAbsoluteAngle().rotations() / steerMotorToMechanismReduction; // rotations du mecanisme
-        TalonFXUtils.throwIfError(motor.getPosition().setUpdateFrequency(20, CAN_TIMEOUT_S)); // rotations du moteur
         TalonFXUtils.throwIfError(motor.setPosition(appliedMotAngleRot, CAN_TIMEOUT_S)); // rotations du moteur
-        SystemUtils.waitUntil(
+        position = motor.getPosition(false);
+        TalonFXUtils.waitForValue(
             "setPosition for steer encoder " + motorCanId,
-            SETTINGS_APPLIED_WAIT_TIMEOUT_MS, 
-            () -> MathUtils.areApproxEqual(appliedMotAngleRot, motor.getPosition().getValueAsDouble()) // rotations du moteur
+            position,
+            appliedMotAngleRot, // rotations du moteur
+            SETTINGS_APPLIED_TIMEOUT_S
         );
+
+        velocity = motor.getVelocity(false);
+        sensorSignals = SensorSignals.of(new PhoenixSensorSignals(canBusName, position, velocity), absoluteEncoder.getSensorSignals());
+    }
+
+    /**
+     * @return a copy of the position signal, which another thread can wait on without sharing the cached one.
+     */
+    StatusSignal<Angle> newPositionSignal() {
+        return position.clone();
+    }
+
+    double getRadiansPerMotorRotation() {
+        return AngleMath.TWO_PI * steerMotorToMechanismReduction;
+    }
+
+    @Override
+    public void applySignalBudget(CanSignalBudget budget) {
+        outputUsed = budget.isUsed(CanSignal.STEER_OUTPUT);
+        TalonFXUtils.throwIfError(position.setUpdateFrequency(budget.getFrequencyHz(CanSignal.STEER_POSITION)));
+        TalonFXUtils.throwIfError(velocity.setUpdateFrequency(budget.getFrequencyHz(CanSignal.STEER_VELOCITY)));
+        TalonFXUtils.throwIfError(motor.getClosedLoopOutput(false).setUpdateFrequency(budget.getFrequencyHz(CanSignal.STEER_OUTPUT)));
+        TalonFXUtils.throwIfError(motor.optimizeBusUtilization());
+        absoluteEncoder.applySignalBudget(budget);
+    }
+
+    @Override
+    public SensorSignals getSensorSignals() {
+        return sensorSignals;
     }
 
     @Override
-    public ContinuousAngle getReferenceAngle() {
-        return referenceAngle;
+    public double getReferenceAngleRadians() {
+        return referenceAngleRadians;
     }
 
     @Override
-    public void setReferenceAngle(ContinuousAngle referenceAngle){
-        TalonFXUtils.throwIfError(motor.setControl(positionVoltage.withPosition(referenceAngle.rotations() / steerMotorToMechanismReduction)));
-        this.referenceAngle = referenceAngle;
+    public void setReferenceAngleRadians(double referenceAngleRadians) {
+        setReferenceAngleRadians(referenceAngleRadians, 0);
     }
 
+    /**
+     * The velocity goes with the position in the same control request: Slot0.kV turns it into volts.
+     */
     @Override
-    public ContinuousAngle getAngle() {
-        return ContinuousAngle.fromRotations(motor.getPosition().getValueAsDouble() * steerMotorToMechanismReduction);
+    public void setReferenceAngleRadians(double referenceAngleRadians, double velocityRadiansPerSecond) {
+        var send = true;
+        if (velocityRadiansPerSecond == 0) {
+            send = setPointFilter.shouldSend(POSITION_MODE, referenceAngleRadians);
+        } else {
+            // A changing feedforward is always sent. The next position only set point must then be sent too.
+            setPointFilter.reset();
+        }
+        if (send) {
+            TalonFXUtils.throwIfError(motor.setControl(positionVoltage
+                .withPosition(AngleMath.toRotations(referenceAngleRadians) / steerMotorToMechanismReduction)
+                .withVelocity(AngleMath.toRotations(velocityRadiansPerSecond) / steerMotorToMechanismReduction)));
+        }
+        this.referenceAngleRadians = referenceAngleRadians;
+    }
+
+    /**
+     * Counts the setControl calls made, and the ones skipped because the set point did not change.
+     */
+    public SetPointFilter getSetPointFilter() {
+        return setPointFilter;
+    }
+
+    /**
+     * @return the angle at the time of the call: the last received one, moved forward by the velocity times its age.
+     */
+    @Override
+    public double getAngleRadians() {
+        var motorRotations = BaseStatusSignal.getLatencyCompensatedValueAsDouble(position, velocity, PhoenixSensorSignals.MAX_LATENCY_S);
+        return AngleMath.fromRotations(motorRotations * steerMotorToMechanismReduction);
+    }
+
+    @Override
+    public double getAngleAgeSeconds() {
+        return position.getTimestamp().getLatency();
     }
 
     @Override
@@ -76,9 +158,14 @@ public final class TalonFXSteerController implements SteerController {
         return absoluteEncoder.getAbsoluteAngle();
     }
 
+    @Override
+    public double getAbsoluteAngleRadians() {
+        return absoluteEncoder.getAbsoluteAngleRadians();
+    }
+
     @Override
     public double getOutput() {
-        return motor.getClosedLoopOutput().getValueAsDouble();
+        return outputUsed ? motor.getClosedLoopOutput().getValueAsDouble() : Double.NaN;
     }
 
     @Override
@@ -0,0 +1,138 @@
+package frc.robot.lib.swervelib.navx;
+
+import com.studica.frc.AHRS;
+import com.studica.frc.AHRSProtocol.AHRSUpdateBase;
+import com.studica.frc.ITimestampedDataSubscriber;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
+
+import frc.robot.lib.swervelib.AngleMath;
+import frc.robot.lib.swervelib.Gyro;
+import frc.robot.lib.swervelib.GyroSample;
+
+/**
+ * NavX connected over MXP SPI. Samples are captured from the update callback at the NavX rate, using the gyro
+ * integrated yaw: the fused heading is corrected by the magnetometer, slower and disturbed by the motors.
+ */
+public class NavXGyro implements Gyro, ITimestampedDataSubscriber {
+    public enum Readiness {
+        CALIBRATING,
+        READY,
+        /** Never reported a valid heading: the odometry uses it anyway. */
+        TIMED_OUT
+    }
+
+    public static final int UPDATE_RATE_HZ = 200;
+    public static final double DEFAULT_READY_TIMEOUT_S = 10.0;
+    private static final double EPSILON = 0.0001;
+    private static final double MS_TO_S = 0.001;
+
+    private final AHRS ahrs;
+    private final double readyTimeoutSeconds;
+    private final double creationTimestampSeconds;
+    private volatile Readiness readiness;
+
+    // Written by the NavX I/O thread, read by the robot threads.
+    private double yawRadians = 0;
+    private double yawRateRadiansPerSecond = Double.NaN;
+    private double timestampSeconds = Double.NaN;
+    // Only used by the NavX I/O thread.
+    private double previousYawRadians = Double.NaN;
+    private long previousSensorTimestampMs = 0;
+
+    public NavXGyro() {
+        this(DEFAULT_READY_TIMEOUT_S);
+    }
+
+    public NavXGyro(double readyTimeoutSeconds) {
+        this(new AHRS(AHRS.NavXComType.kMXP_SPI, UPDATE_RATE_HZ), readyTimeoutSeconds, RobotBase.isReal());
+    }
+
+    NavXGyro(AHRS ahrs, double readyTimeoutSeconds, boolean waitForCalibration) {
+        this.ahrs = ahrs;
+        this.readyTimeoutSeconds = readyTimeoutSeconds;
+        this.creationTimestampSeconds = Timer.getFPGATimestamp();
+        this.readiness = waitForCalibration ? Readiness.CALIBRATING : Readiness.READY;
+        ahrs.registerCallback(this, null);
+    }
+
+    public AHRS getAhrs() {
+        return ahrs;
+    }
+
+    @Override
+    public void timestampedDataReceived(long systemTimestampMs, long sensorTimestampMs, AHRSUpdateBase sensorData, Object context) {
+        // The NavX is clockwise positive.
+        double sampleYawRadians = -AngleMath.fromDegrees(sensorData.yaw);
+        double rateRadiansPerSecond = Double.NaN;
+        if (Double.isFinite(previousYawRadians) && sensorTimestampMs > previousSensorTimestampMs) {
+            // The NavX yaw wraps at +-180 degrees.
+            var deltaRadians = AngleMath.shortestDelta(previousYawRadians, sampleYawRadians);
+            rateRadiansPerSecond = deltaRadians / ((sensorTimestampMs - previousSensorTimestampMs) * MS_TO_S);
+        }
+        previousYawRadians = sampleYawRadians;
+        previousSensorTimestampMs = sensorTimestampMs;
+
+        synchronized (this) {
+            yawRadians = sampleYawRadians;
+            if (Double.isFinite(rateRadiansPerSecond)) {
+                yawRateRadiansPerSecond = rateRadiansPerSecond;
+            }
+            timestampSeconds = systemTimestampMs * MS_TO_S;
+        }
+    }
+
+    @Override
+    public synchronized double getYawRadians() {
+        return yawRadians;
+    }
+
+    @Override
+    public synchronized double getYawRateRadiansPerSecond() {
+        return yawRateRadiansPerSecond;
+    }
+
+    @Override
+    public synchronized double getTimestampSeconds() {
+        return timestampSeconds;
+    }
+
+    @Override
+    public synchronized void read(GyroSample sample) {
+        sample.yawRadians = yawRadians;
+        sample.yawRateRadiansPerSecond = yawRateRadiansPerSecond;
+        sample.timestampSeconds = timestampSeconds;
+    }
+
+    /*
+     * Lorsque nouvellement initialisé, le navx donne un angle de 0 pendant plusieurs cycles de mesures au lieu de la vraie valeur.
+     * Or, il faut la vraie valeur pour initialiser l'odométrie. Je n'ai pas trouvé de méthode m'indiquant que l'initialisation est
+     * terminée, donc j'attends jusqu'à ce qu'une valeur différente de 0 apparaisse.
+     *
+     * Non bloquant : vérifie l'angle à chaque appel, par exemple à chaque cycle, au lieu d'attendre dans robotInit.
+     */
+    public Readiness getReadiness() {
+        if (readiness == Readiness.CALIBRATING) {
+            if (ahrs.isConnected() && Math.abs(getYawRadians()) >= EPSILON) {
+                readiness = Readiness.READY;
+            } else if (Timer.getFPGATimestamp() - creationTimestampSeconds > readyTimeoutSeconds) {
+                readiness = Readiness.TIMED_OUT;
+                DriverStation.reportWarning(String.format(
+                    "NavX has not reported a heading after %.1f s, using it as is",
+                    readyTimeoutSeconds
+                ), false);
+            }
+        }
+        return readiness;
+    }
+
+    /**
+     * @return true once the heading can seed the odometry: it is valid, or the timeout expired.
+     */
+    @Override
+    public boolean isReady() {
+        return getReadiness() != Readiness.CALIBRATING;
+    }
+}
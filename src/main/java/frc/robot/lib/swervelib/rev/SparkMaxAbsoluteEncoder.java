@@ -5,22 +5,25 @@ import com.revrobotics.spark.SparkBase.ResetMode;
 import com.revrobotics.spark.config.SparkMaxConfig;
 
 import frc.robot.lib.SparkMaxUtils;
-import frc.robot.lib.SystemUtils;
+import com.revrobotics.spark.SparkMax;
+
 import frc.robot.lib.swervelib.AbsoluteEncoder;
+import frc.robot.lib.swervelib.CanSignal;
+import frc.robot.lib.swervelib.CanSignalBudget;
 import frc.robot.lib.swervelib.DiscreetAngle;
 
 public class SparkMaxAbsoluteEncoder implements AbsoluteEncoder {
-    private static final long SETTING_TIMEOUT_MS = 500;
     private static final double ROT_TO_DEGREES = 360.0;
     private static final double CONVERSION_RATE = 1.0;
     private static final double DEGREES_TO_ROT = 1 / ROT_TO_DEGREES;
+    private final SparkMax controller;
     private final com.revrobotics.AbsoluteEncoder encoder;
     private final double inversionMultiplier;
     private final SparkMaxConfig config = new SparkMaxConfig();
 
     public SparkMaxAbsoluteEncoder(int motorCanId, DiscreetAngle alignAngle, SparkMaxAbsoluteEncoderConfiguration configuration) {
         inversionMultiplier = configuration.inverted ? -1 : 1;
-        final var controller = SparkMaxUtils.getController(motorCanId);
+        controller = SparkMaxUtils.getController(motorCanId);
         encoder = controller.getAbsoluteEncoder();
         // encoder.setInverted() is not having any effect. Invert it ourselves.
         // SparkMaxUtils.throwIfError(encoder.setInverted(configuration.inverted));
@@ -29,24 +32,30 @@ public class SparkMaxAbsoluteEncoder implements AbsoluteEncoder {
         final var alignAngleRots = configuration.inverted ? 1.0 - alignAngle.rotations() : alignAngle.rotations();
         config.absoluteEncoder.zeroOffset(alignAngleRots);
 
-        controller.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
-        
-        SystemUtils.waitEqual(
-            "setZeroOffset for abs encoder " + motorCanId,
-            SETTING_TIMEOUT_MS,
-            () -> controller.configAccessor.absoluteEncoder.getZeroOffset(),
+        SparkMaxUtils.throwIfError(controller.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters));
+        SparkMaxUtils.ensureApplied(
+            "setZeroOffset for abs encoder",
+            motorCanId,
+            controller.configAccessor.absoluteEncoder.getZeroOffset(),
             alignAngleRots,
             1.0 * DEGREES_TO_ROT
         );
-        SystemUtils.waitEqual(
-            "setPositionConversionFactor for abs encoder " + motorCanId,
-            SETTING_TIMEOUT_MS,
-            () -> controller.configAccessor.absoluteEncoder.getPositionConversionFactor(),
-            CONVERSION_RATE, 
+        SparkMaxUtils.ensureApplied(
+            "setPositionConversionFactor for abs encoder",
+            motorCanId,
+            controller.configAccessor.absoluteEncoder.getPositionConversionFactor(),
+            CONVERSION_RATE,
             0.01
         );
     }
 
+    @Override
+    public void applySignalBudget(CanSignalBudget budget) {
+        var signalsConfig = new SparkMaxConfig();
+        signalsConfig.signals.absoluteEncoderPositionPeriodMs(SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.ABSOLUTE_POSITION)));
+        SparkMaxSignals.apply(controller, signalsConfig);
+    }
+
     @Override
     public DiscreetAngle getAbsoluteAngle() {
         return DiscreetAngle.fromRotations(encoder.getPosition() * inversionMultiplier);
@@ -15,6 +15,12 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
     public final double integralConstant;
     public final double derivativeConstant;
     public final double rotationsPerMeter;
+    /**
+     * Optional, NaN when not set. Arbitrary feedforward added to the velocity one of the closed loop: volts in the
+     * direction of the set point, and volts per m/s² of change between consecutive set points.
+     */
+    public final double staticConstant;
+    public final double accelerationConstant;
 
     public SparkMaxDriveConfiguration(
         double nominalVoltage,
@@ -23,7 +29,9 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
         double proportionalConstant,
         double integralConstant,
         double derivativeConstant,
-        double rotationsPerMeter) {
+        double rotationsPerMeter,
+        double staticConstant,
+        double accelerationConstant) {
         this.nominalVoltage = nominalVoltage;
         this.currentLimit = currentLimit;
         this.feedForwardConstant = feedForwardConstant;
@@ -31,6 +39,8 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
         this.integralConstant = integralConstant;
         this.derivativeConstant = derivativeConstant;
         this.rotationsPerMeter = rotationsPerMeter;
+        this.staticConstant = staticConstant;
+        this.accelerationConstant = accelerationConstant;
     }
 
     public SparkMaxDriveConfiguration() {
@@ -41,6 +51,8 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
             Double.NaN,
             Double.NaN,
             Double.NaN,
+            Double.NaN,
+            Double.NaN,
             Double.NaN
         );
     }
@@ -61,7 +73,9 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
             this.proportionalConstant,
             this.integralConstant,
             this.derivativeConstant,
-            this.rotationsPerMeter
+            this.rotationsPerMeter,
+            this.staticConstant,
+            this.accelerationConstant
         );
     }
 
@@ -77,7 +91,9 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
             this.proportionalConstant,
             this.integralConstant,
             this.derivativeConstant,
-            this.rotationsPerMeter
+            this.rotationsPerMeter,
+            this.staticConstant,
+            this.accelerationConstant
         );
     }
 
@@ -89,7 +105,9 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
                 proportional,
                 integral,
                 derivative,
-                this.rotationsPerMeter
+                this.rotationsPerMeter,
+                this.staticConstant,
+                this.accelerationConstant
         );
     }
     
@@ -105,7 +123,30 @@ public class SparkMaxDriveConfiguration implements DriveConfiguration {
                 this.proportionalConstant,
                 this.integralConstant,
                 this.derivativeConstant,
-                rotationsPerMeter
+                rotationsPerMeter,
+                this.staticConstant,
+                this.accelerationConstant
+        );
+    }
+
+    public boolean hasArbitraryFeedForward() {
+        return Double.isFinite(staticConstant) && Double.isFinite(accelerationConstant);
+    }
+
+    /**
+     * kS and kA, which the SPARK MAX closed loop does not have: sent with each set point instead.
+     */
+    public SparkMaxDriveConfiguration withArbitraryFeedForward(double staticConstant, double accelerationConstant) {
+        return new SparkMaxDriveConfiguration(
+                this.nominalVoltage,
+                this.currentLimit,
+                this.feedForwardConstant,
+                this.proportionalConstant,
+                this.integralConstant,
+                this.derivativeConstant,
+                this.rotationsPerMeter,
+                staticConstant,
+                accelerationConstant
         );
     }
 
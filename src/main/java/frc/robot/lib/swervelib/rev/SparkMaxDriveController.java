@@ -1,8 +1,10 @@
 package frc.robot.lib.swervelib.rev;
 
 import com.revrobotics.RelativeEncoder;
+import com.revrobotics.spark.ClosedLoopSlot;
 import com.revrobotics.spark.SparkBase;
 import com.revrobotics.spark.SparkClosedLoopController;
+import com.revrobotics.spark.SparkClosedLoopController.ArbFFUnits;
 import com.revrobotics.spark.SparkMax;
 import com.revrobotics.spark.SparkBase.PersistMode;
 import com.revrobotics.spark.SparkBase.ResetMode;
@@ -10,16 +12,25 @@ import com.revrobotics.spark.config.SparkMaxConfig;
 import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
 
 import frc.robot.lib.SparkMaxUtils;
+import frc.robot.lib.swervelib.CanSignal;
+import frc.robot.lib.swervelib.CanSignalBudget;
 import frc.robot.lib.swervelib.DriveController;
 import frc.robot.lib.swervelib.GearRatio;
+import frc.robot.lib.swervelib.SetPointAcceleration;
 
 public final class SparkMaxDriveController implements DriveController {
     private final SparkMax motor;
+    private boolean outputUsed = true;
     private final SparkClosedLoopController pidController;
     private final SparkMaxConfig config = new SparkMaxConfig();
     private final RelativeEncoder encoder;
     private double referenceSpeedMS = 0;
+    private final double staticConstant;
+    private final double accelerationConstant;
+    // Only with the arbitrary feedforward.
+    private final SetPointAcceleration setPointAcceleration;
     private double metersPerMotorRotation;
+    private double positionAgeSeconds = SparkMaxSignals.averageAgeSeconds(SparkMaxSignals.DEFAULT_POSITION_PERIOD_MS);
 
     public SparkMaxDriveController(int motorCanId, SparkMaxDriveConfiguration configuration, GearRatio gearRatio, double maxSpeedMS) {
         motor = SparkMaxUtils.getController(motorCanId); // Already reset to factory defaults
@@ -34,7 +45,6 @@ public final class SparkMaxDriveController implements DriveController {
         if (configuration.hasCurrentLimit()) {
             config.smartCurrentLimit((int)configuration.currentLimit);
         }
-        config.signals.primaryEncoderPositionPeriodMs(20);
         // Set neutral mode to brake
         config.idleMode(IdleMode.kBrake);
 
@@ -45,8 +55,8 @@ public final class SparkMaxDriveController implements DriveController {
         } else {
             metersPerMotorRotation = gearRatio.wheelCircumferenceM * gearRatio.driveReduction;
         }
-        config.absoluteEncoder.positionConversionFactor(metersPerMotorRotation); // Unit by default: motor rotations.
-        config.absoluteEncoder.velocityConversionFactor(metersPerMotorRotation / 60.0); // Unit by default: motor rotations per minute.
+        config.encoder.positionConversionFactor(metersPerMotorRotation); // Unit by default: motor rotations.
+        config.encoder.velocityConversionFactor(metersPerMotorRotation / 60.0); // Unit by default: motor rotations per minute.
 
         pidController = motor.getClosedLoopController();
 
@@ -66,19 +76,44 @@ public final class SparkMaxDriveController implements DriveController {
                 configuration.derivativeConstant
             );
         }
+        staticConstant = configuration.staticConstant;
+        accelerationConstant = configuration.accelerationConstant;
+        setPointAcceleration = configuration.hasArbitraryFeedForward() ? new SetPointAcceleration() : null;
+
         SparkMaxUtils.throwIfError(motor.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters));
         SparkMaxUtils.throwIfError(motor.clearFaults());
     }
 
+    @Override
+    public void applySignalBudget(CanSignalBudget budget) {
+        outputUsed = budget.isUsed(CanSignal.DRIVE_OUTPUT);
+        var signalsConfig = new SparkMaxConfig();
+        var positionPeriodMs = SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.DRIVE_POSITION));
+        signalsConfig.signals
+            .primaryEncoderPositionPeriodMs(positionPeriodMs)
+            .primaryEncoderVelocityPeriodMs(SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.DRIVE_VELOCITY)))
+            .appliedOutputPeriodMs(SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.DRIVE_OUTPUT)));
+        SparkMaxSignals.apply(motor, signalsConfig);
+        positionAgeSeconds = SparkMaxSignals.averageAgeSeconds(positionPeriodMs);
+    }
+
     @Override
     public void setOpenLoopSpeed(double pct) {
+        if (setPointAcceleration != null) {
+            setPointAcceleration.reset();
+        }
         motor.set(pct);
     }
 
     @Override
     public void setClosedLoopSpeed(double speedMS) {
         referenceSpeedMS = speedMS;
-        SparkMaxUtils.throwIfError(pidController.setReference(speedMS, SparkBase.ControlType.kVelocity));
+        if (setPointAcceleration == null) {
+            SparkMaxUtils.throwIfError(pidController.setReference(speedMS, SparkBase.ControlType.kVelocity));
+        } else {
+            var feedForwardVolts = staticConstant * Math.signum(speedMS) + accelerationConstant * setPointAcceleration.update(speedMS);
+            SparkMaxUtils.throwIfError(pidController.setReference(speedMS, SparkBase.ControlType.kVelocity, ClosedLoopSlot.kSlot0, feedForwardVolts, ArbFFUnits.kVoltage));
+        }
     }
 
     @Override
@@ -86,9 +121,20 @@ public final class SparkMaxDriveController implements DriveController {
         return encoder.getVelocity();
     }
 
+    /**
+     * @return the position at the time of the call: the last received one, moved forward by the speed times its average age.
+     */
     @Override
     public double getPositionM() {
-        return encoder.getPosition();
+        return encoder.getPosition() + encoder.getVelocity() * positionAgeSeconds;
+    }
+
+    /**
+     * @return an estimate: the average age of the position frame, at its status period.
+     */
+    @Override
+    public double getPositionAgeSeconds() {
+        return positionAgeSeconds;
     }
 
     @Override
@@ -98,7 +144,7 @@ public final class SparkMaxDriveController implements DriveController {
 
     @Override
     public double getOutput() {
-        return motor.getAppliedOutput();
+        return outputUsed ? motor.getAppliedOutput() : Double.NaN;
     }
 
     @Override
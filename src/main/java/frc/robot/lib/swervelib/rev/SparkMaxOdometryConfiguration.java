@@ -0,0 +1,67 @@
+package frc.robot.lib.swervelib.rev;
+
+import java.util.function.DoubleSupplier;
+
+import frc.robot.lib.swervelib.DriveController;
+import frc.robot.lib.swervelib.OdometryConfiguration;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+import frc.robot.lib.swervelib.OdometrySampler;
+import frc.robot.lib.swervelib.SteerController;
+
+/**
+ * Odometry thread for drivetrains made of SparkMax drive and steer controllers.
+ * SwerveDrive shortens the encoder position frames to the sampling period (see getFrequencyHz()), so each
+ * poll sees a new value.
+ */
+public class SparkMaxOdometryConfiguration implements OdometryConfiguration {
+    public static final double DEFAULT_FREQUENCY_HZ = 100;
+    private static final double MAX_FREQUENCY_HZ = 200;
+
+    public final double frequencyHz;
+    public final DoubleSupplier gyroYawRadians;
+
+    public SparkMaxOdometryConfiguration(double frequencyHz, DoubleSupplier gyroYawRadians) {
+        if (!(frequencyHz > 0 && frequencyHz <= MAX_FREQUENCY_HZ)) {
+            throw new IllegalArgumentException(String.format("SparkMax odometry frequency must be within ]0, %.0f] Hz", MAX_FREQUENCY_HZ));
+        }
+        this.frequencyHz = frequencyHz;
+        this.gyroYawRadians = gyroYawRadians;
+    }
+
+    public SparkMaxOdometryConfiguration() {
+        this(DEFAULT_FREQUENCY_HZ, null);
+    }
+
+    public SparkMaxOdometryConfiguration withFrequency(double frequencyHz) {
+        return new SparkMaxOdometryConfiguration(frequencyHz, this.gyroYawRadians);
+    }
+
+    public boolean hasGyroYaw() {
+        return gyroYawRadians != null;
+    }
+
+    /**
+     * Samples the heading with the modules. It is called from the odometry thread, so it must be thread safe
+     * (the NavX getters are).
+     */
+    public SparkMaxOdometryConfiguration withGyroYaw(DoubleSupplier gyroYawRadians) {
+        return new SparkMaxOdometryConfiguration(this.frequencyHz, gyroYawRadians);
+    }
+
+    @Override
+    public double getFrequencyHz() {
+        return frequencyHz;
+    }
+
+    @Override
+    public OdometrySampler createOdometrySampler(DriveController[] driveControllers, SteerController[] steerControllers, OdometrySampleRing samples) {
+        for (int i = 0; i < driveControllers.length; i++) {
+            if (!(driveControllers[i] instanceof SparkMaxDriveController)
+                    || !(steerControllers[i] instanceof SparkMaxSteerController)) {
+                throw new IllegalArgumentException("SparkMaxOdometryConfiguration needs SparkMax drive and steer controllers");
+            }
+        }
+
+        return new SparkMaxOdometryThread(driveControllers, steerControllers, gyroYawRadians, frequencyHz, samples);
+    }
+}
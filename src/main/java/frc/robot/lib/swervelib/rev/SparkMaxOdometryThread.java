@@ -0,0 +1,76 @@
+package frc.robot.lib.swervelib.rev;
+
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.robot.lib.swervelib.DriveController;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+import frc.robot.lib.swervelib.OdometrySampler;
+import frc.robot.lib.swervelib.SteerController;
+
+/**
+ * Polls the module positions cached by the SparkMax library on a timed thread, and pushes them into an
+ * {@link OdometrySampleRing}.
+ * <p>
+ * The SparkMax does not timestamp its status frames: samples are timestamped when polled. The controllers
+ * move the positions forward by the average age of their frames, half a status period.
+ */
+public final class SparkMaxOdometryThread implements OdometrySampler {
+    private final DriveController[] driveControllers;
+    private final SteerController[] steerControllers;
+    private final DoubleSupplier gyroYawRadians;
+    private final double periodSeconds;
+    private final OdometrySampleRing samples;
+    private final double[] drivePositionsM;
+    private final double[] steerAnglesRadians;
+    private Notifier notifier;
+
+    /**
+     * @param gyroYawRadians null to let the main loop read the heading.
+     */
+    public SparkMaxOdometryThread(
+            DriveController[] driveControllers,
+            SteerController[] steerControllers,
+            DoubleSupplier gyroYawRadians,
+            double frequencyHz,
+            OdometrySampleRing samples) {
+        var moduleCount = samples.getModuleCount();
+        if (driveControllers.length != moduleCount || steerControllers.length != moduleCount) {
+            throw new IllegalArgumentException("The odometry thread needs one drive and one steer controller per module");
+        }
+        this.driveControllers = driveControllers;
+        this.steerControllers = steerControllers;
+        this.gyroYawRadians = gyroYawRadians;
+        this.periodSeconds = 1.0 / frequencyHz;
+        this.samples = samples;
+        drivePositionsM = new double[moduleCount];
+        steerAnglesRadians = new double[moduleCount];
+    }
+
+    @Override
+    public void start() {
+        notifier = new Notifier(this::sample);
+        notifier.setName("SparkMax odometry");
+        notifier.startPeriodic(periodSeconds);
+    }
+
+    @Override
+    public void stop() {
+        if (notifier != null) {
+            notifier.stop();
+            notifier.close();
+            notifier = null;
+        }
+    }
+
+    void sample() {
+        var timestampSeconds = RobotController.getFPGATime() / 1e6;
+        for (int i = 0; i < driveControllers.length; i++) {
+            drivePositionsM[i] = driveControllers[i].getPositionM();
+            steerAnglesRadians[i] = steerControllers[i].getAngleRadians();
+        }
+        var yawRadians = gyroYawRadians == null ? Double.NaN : gyroYawRadians.getAsDouble();
+        samples.offer(timestampSeconds, yawRadians, drivePositionsM, steerAnglesRadians);
+    }
+}
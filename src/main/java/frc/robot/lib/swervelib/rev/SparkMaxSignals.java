@@ -0,0 +1,44 @@
+package frc.robot.lib.swervelib.rev;
+
+import com.revrobotics.spark.SparkMax;
+import com.revrobotics.spark.SparkBase.PersistMode;
+import com.revrobotics.spark.SparkBase.ResetMode;
+import com.revrobotics.spark.config.SparkMaxConfig;
+
+import frc.robot.lib.SparkMaxUtils;
+
+/**
+ * Applies CAN signal rates to a SparkMax. Unlike Phoenix devices, its periodic status frames can't be
+ * turned off: the unused ones are slowed down instead.
+ */
+final class SparkMaxSignals {
+    static final int UNUSED_PERIOD_MS = 1000;
+    // Primary encoder position, until a budget is applied.
+    static final int DEFAULT_POSITION_PERIOD_MS = 20;
+
+    /**
+     * @param frequencyHz 0 if the signal is not used.
+     */
+    static int periodMs(double frequencyHz) {
+        if (frequencyHz <= 0) {
+            return UNUSED_PERIOD_MS;
+        }
+        return Math.max(1, (int) Math.ceil(1000 / frequencyHz));
+    }
+
+    /**
+     * The SparkMax does not timestamp its status frames. Read at a random time, a value refreshed every period
+     * is half a period old on average.
+     */
+    static double averageAgeSeconds(int periodMs) {
+        return periodMs / 2000.0;
+    }
+
+    static void apply(SparkMax motor, SparkMaxConfig signalsConfig) {
+        // Only the status frames change: keep the rest of the configuration, and don't wear the flash.
+        SparkMaxUtils.throwIfError(motor.configure(signalsConfig, ResetMode.kNoResetSafeParameters, PersistMode.kNoPersistParameters));
+    }
+
+    private SparkMaxSignals() {
+    }
+}
@@ -11,29 +11,30 @@ import com.revrobotics.spark.config.SparkBaseConfig.IdleMode;
 
 import frc.robot.lib.MathUtils;
 import frc.robot.lib.SparkMaxUtils;
-import frc.robot.lib.SystemUtils;
 import frc.robot.lib.swervelib.AbsoluteEncoder;
-import frc.robot.lib.swervelib.ContinuousAngle;
+import frc.robot.lib.swervelib.AngleMath;
+import frc.robot.lib.swervelib.CanSignal;
+import frc.robot.lib.swervelib.CanSignalBudget;
 import frc.robot.lib.swervelib.DiscreetAngle;
 import frc.robot.lib.swervelib.GearRatio;
 import frc.robot.lib.swervelib.SteerController;
 
 public final class SparkMaxSteerController implements SteerController {
-    private static final long SETTINGS_APPLIED_WAIT_TIMEOUT_MS = 500;
     private final SparkMax motor;
+    private boolean outputUsed = true;
     private final SparkClosedLoopController pidController;
-        private final SparkMaxConfig config = new SparkMaxConfig();
+    private final SparkMaxConfig config = new SparkMaxConfig();
     private final RelativeEncoder motorEncoder;
     private final AbsoluteEncoder absoluteEncoder;
 
-    private ContinuousAngle referenceAngle = ContinuousAngle.fromDegrees(0);
+    private double referenceAngleDegrees = 0;
+    private double angleAgeSeconds = SparkMaxSignals.averageAgeSeconds(SparkMaxSignals.DEFAULT_POSITION_PERIOD_MS);
 
     public SparkMaxSteerController(int motorCanId, SparkMaxSteerConfiguration steerConfiguration, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
         steerConfiguration.ensureHasPidConstants();
         this.absoluteEncoder = absoluteEncoder;
 
         motor = SparkMaxUtils.getController(motorCanId); // Already reset to factory defaults
-        config.signals.primaryEncoderPositionPeriodMs(20);
         config.idleMode(IdleMode.kBrake);
         config.inverted(true);
         config.smartCurrentLimit(38);
@@ -46,13 +47,8 @@ public final class SparkMaxSteerController implements SteerController {
 
         motorEncoder = motor.getEncoder();
         double positionToDegreesRatio = 360 * gearRatio.steerMotorToMechanismReduction;
-        config.absoluteEncoder.positionConversionFactor(positionToDegreesRatio);    
-        SystemUtils.waitUntil(
-            "setPositionConversionFactor for steer encoder " + motorCanId,
-            SETTINGS_APPLIED_WAIT_TIMEOUT_MS,
-            () -> MathUtils.areApproxEqual(positionToDegreesRatio, motor.configAccessor.absoluteEncoder.getPositionConversionFactor())
-        );
-        SparkMaxUtils.throwIfError(motorEncoder.setPosition(absoluteEncoder.getAbsoluteAngle().degrees()));
+        config.encoder.positionConversionFactor(positionToDegreesRatio);
+        config.encoder.velocityConversionFactor(positionToDegreesRatio / 60.0); // Degrees per second, for the latency compensation.
         
         pidController = motor.getClosedLoopController();
         config.closedLoop.pid(
@@ -61,28 +57,61 @@ public final class SparkMaxSteerController implements SteerController {
             steerConfiguration.derivativeConstant
         );
         SparkMaxUtils.throwIfError(motor.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters));
+        SparkMaxUtils.ensureApplied(
+            "setPositionConversionFactor for steer encoder",
+            motorCanId,
+            motor.configAccessor.encoder.getPositionConversionFactor(),
+            positionToDegreesRatio,
+            MathUtils.DEFAULT_EPSILON
+        );
+        SparkMaxUtils.throwIfError(motorEncoder.setPosition(absoluteEncoder.getAbsoluteAngle().degrees()));
         SparkMaxUtils.throwIfError(motor.clearFaults());
     }
 
     @Override
-    public ContinuousAngle getReferenceAngle() {
-        return referenceAngle;
+    public void applySignalBudget(CanSignalBudget budget) {
+        outputUsed = budget.isUsed(CanSignal.STEER_OUTPUT);
+        var signalsConfig = new SparkMaxConfig();
+        var positionPeriodMs = SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.STEER_POSITION));
+        signalsConfig.signals
+            .primaryEncoderPositionPeriodMs(positionPeriodMs)
+            .primaryEncoderVelocityPeriodMs(SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.STEER_VELOCITY)))
+            .appliedOutputPeriodMs(SparkMaxSignals.periodMs(budget.getFrequencyHz(CanSignal.STEER_OUTPUT)));
+        SparkMaxSignals.apply(motor, signalsConfig);
+        angleAgeSeconds = SparkMaxSignals.averageAgeSeconds(positionPeriodMs);
+        absoluteEncoder.applySignalBudget(budget);
+    }
+
+    @Override
+    public double getReferenceAngleRadians() {
+        return AngleMath.fromDegrees(referenceAngleDegrees);
     }
 
     @Override
-    public void setReferenceAngle(ContinuousAngle referenceAngle) {
-        this.referenceAngle = referenceAngle;
+    public void setReferenceAngleRadians(double referenceAngleRadians) {
+        this.referenceAngleDegrees = AngleMath.toDegrees(referenceAngleRadians);
         if (isAtReference()) {
             motor.stopMotor();
         }
         else {
-            pidController.setReference(referenceAngle.degrees(), SparkBase.ControlType.kPosition);
+            pidController.setReference(referenceAngleDegrees, SparkBase.ControlType.kPosition);
         }
     }
 
+    /**
+     * @return the angle at the time of the call: the last received one, moved forward by the velocity times its average age.
+     */
+    @Override
+    public double getAngleRadians() {
+        return AngleMath.fromDegrees(motorEncoder.getPosition() + motorEncoder.getVelocity() * angleAgeSeconds);
+    }
+
+    /**
+     * @return an estimate: the average age of the position frame, at its status period.
+     */
     @Override
-    public ContinuousAngle getAngle() {
-        return ContinuousAngle.fromDegrees(motorEncoder.getPosition());
+    public double getAngleAgeSeconds() {
+        return angleAgeSeconds;
     }
 
     @Override
@@ -92,7 +121,7 @@ public final class SparkMaxSteerController implements SteerController {
 
     @Override
     public double getOutput() {
-        return motor.getAppliedOutput();
+        return outputUsed ? motor.getAppliedOutput() : Double.NaN;
     }
 
     private static final double ENCODER_RESOLUTION_DEG = 360.0 * (1.0 / 42.0);
@@ -100,7 +129,7 @@ public final class SparkMaxSteerController implements SteerController {
     private boolean isAtReference() {
         return MathUtils.areApproxEqual(
             motor.getEncoder().getPosition(),
-            referenceAngle.degrees(),
+            referenceAngleDegrees,
             REFERENCE_TOLERANCE_DEG
         );
     }
@@ -4,22 +4,26 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.wpilibj.shuffleboard.BuiltInLayouts;
-import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
-import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardLayout;
-import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
-import frc.robot.lib.Navx;
 import frc.robot.lib.swervelib.*;
+import frc.robot.lib.swervelib.navx.NavXGyro;
 import frc.robot.lib.swervelib.ctre.CANCoderAbsoluteEncoderConfiguration;
+import frc.robot.lib.swervelib.ctre.PhoenixCanBus;
+import frc.robot.lib.swervelib.ctre.PhoenixOdometryConfiguration;
 import frc.robot.lib.swervelib.ctre.TalonFXDriveConfiguration;
 import frc.robot.lib.swervelib.ctre.TalonFXSteerConfiguration;
 
-import com.studica.frc.AHRS;
 
 public class KrakenMk4Drivetrain extends SubsystemBase {
+    // Le nom du CANivore pour passer le drivetrain sur un bus CAN FD.
+    private static final String CAN_BUS = SwerveModuleConfiguration.DEFAULT_CAN_BUS;
+
+    // Enregistre chaque mise à jour de l'odométrie dans le DataLog, pour l'analyser dans AdvantageScope.
+    private static final boolean RECORD_DRIVETRAIN = false;
+
     private static final int FRONT_LEFT_MODULE_DRIVE_MOTOR_ID = 3;
     private static final int FRONT_LEFT_MODULE_STEER_MOTOR_ID = 7;
     private static final int FRONT_LEFT_MODULE_STEER_ENCODER_ID = 9;
@@ -79,32 +83,36 @@ public class KrakenMk4Drivetrain extends SubsystemBase {
     private static final double STEER_POS_I = 0;
     private static final double STEER_POS_D = 0; // 2
 
-    private final AHRS navx = Navx.newReadyNavx(); // NavX connected over MXP
+    private final NavXGyro gyro = new NavXGyro(); // NavX connected over MXP
 
     private final SwerveDrive swerveDrive = new SwerveDrive(
         new SwerveModuleConfiguration( 
             FRONT_LEFT_MODULE_DRIVE_MOTOR_ID,
             FRONT_LEFT_MODULE_STEER_MOTOR_ID, 
             FRONT_LEFT_MODULE_STEER_ENCODER_ID, 
-            FRONT_LEFT_MODULE_STEER_ALIGN_ANGLE
+            FRONT_LEFT_MODULE_STEER_ALIGN_ANGLE,
+            CAN_BUS
         ), 
         new SwerveModuleConfiguration( 
             FRONT_RIGHT_MODULE_DRIVE_MOTOR_ID, 
             FRONT_RIGHT_MODULE_STEER_MOTOR_ID,
             FRONT_RIGHT_MODULE_STEER_ENCODER_ID, 
-            FRONT_RIGHT_MODULE_STEER_ALIGN_ANGLE
+            FRONT_RIGHT_MODULE_STEER_ALIGN_ANGLE,
+            CAN_BUS
         ), 
         new SwerveModuleConfiguration( 
             BACK_LEFT_MODULE_DRIVE_MOTOR_ID,
             BACK_LEFT_MODULE_STEER_MOTOR_ID, 
             BACK_LEFT_MODULE_STEER_ENCODER_ID,
-            BACK_LEFT_MODULE_STEER_ALIGN_ANGLE
+            BACK_LEFT_MODULE_STEER_ALIGN_ANGLE,
+            CAN_BUS
         ), 
         new SwerveModuleConfiguration(
             BACK_RIGHT_MODULE_DRIVE_MOTOR_ID,
             BACK_RIGHT_MODULE_STEER_MOTOR_ID,  
             BACK_RIGHT_MODULE_STEER_ENCODER_ID, 
-            BACK_RIGHT_MODULE_STEER_ALIGN_ANGLE
+            BACK_RIGHT_MODULE_STEER_ALIGN_ANGLE,
+            CAN_BUS
         ), 
         SdsGearRatios.MK4_L1,
         new TalonFXDriveConfiguration(),
@@ -114,39 +122,31 @@ public class KrakenMk4Drivetrain extends SubsystemBase {
         new SwerveDriveConfiguration(
             MAX_SPEED_MS, 
             KINEMATICS, 
-            () -> getGyroscopeRotation()
+            gyro
         )
+            .withOdometryThread(new PhoenixOdometryConfiguration())
+            .withSignalBudget(PhoenixCanBus.defaultSignalBudget(CAN_BUS))
     );
 
+    private final SwerveDriveTelemetry telemetry = new SwerveDriveTelemetry(swerveDrive);
+
     private final CommandXboxController gamepad;
 
     public KrakenMk4Drivetrain(CommandXboxController gamepad) {
         this.gamepad = gamepad;
-        setDefaultCommand(drive());
-
-        for(var location : ModuleLocation.values()) {
-            setModuleTelemetry(location);
+        if (RECORD_DRIVETRAIN) {
+            var recorder = new DrivetrainRecorder(swerveDrive.getModuleCount(), DataLogManager.getLog());
+            swerveDrive.setRecorder(recorder);
+            recorder.start();
         }
-    }
-
-    private static final ShuffleboardTab MODULE_TAB = Shuffleboard.getTab("Modules states");
-
-    private void setModuleTelemetry(ModuleLocation module) {
-        ShuffleboardLayout layout = MODULE_TAB.getLayout(module.name + " module", BuiltInLayouts.kList)
-            .withSize(2, 4)
-            .withPosition(module.index * 2, 0);
-            
-        layout.addDouble("Drive speed MS", () -> swerveDrive.getDriveSpeedMS(module));
-        layout.addDouble("Steer angle", () -> swerveDrive.getSteerAngle(module).degrees());
-        layout.addDouble("Steer reference angle", () -> swerveDrive.getSteerReferenceAngle(module).degrees());
-        layout.addDouble("Drive position ticks", () -> swerveDrive.getDrivePositionNativeUnits(module));
+        setDefaultCommand(drive());
     }
 
     /**
-     * Retourne l'angle du Gyromètre dans l'intervalle [0, 360]
+     * Retourne l'angle du Gyromètre, positif dans le sens antihoraire
      */
     private Rotation2d getGyroscopeRotation() {
-        return Rotation2d.fromDegrees(360 - navx.getFusedHeading());
+        return Rotation2d.fromRadians(gyro.getYawRadians());
     }
 
     public Command drive() {
@@ -166,5 +166,6 @@ public class KrakenMk4Drivetrain extends SubsystemBase {
     @Override
     public void periodic() {
         swerveDrive.periodic();
+        telemetry.publish();
     }
 }
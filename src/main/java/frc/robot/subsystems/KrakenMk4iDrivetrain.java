@@ -12,13 +12,12 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
-import frc.robot.lib.Navx;
 import frc.robot.lib.swervelib.*;
+import frc.robot.lib.swervelib.navx.NavXGyro;
 import frc.robot.lib.swervelib.ctre.CANCoderAbsoluteEncoderConfiguration;
 import frc.robot.lib.swervelib.ctre.TalonFXDriveConfiguration;
 import frc.robot.lib.swervelib.ctre.TalonFXSteerConfiguration;
 
-import com.kauailabs.navx.frc.AHRS;
 
 public class KrakenMk4iDrivetrain extends SubsystemBase {
     private static final int FRONT_LEFT_MODULE_DRIVE_MOTOR_ID = 141;
@@ -80,7 +79,7 @@ public class KrakenMk4iDrivetrain extends SubsystemBase {
     private static final double STEER_POS_I = 0;
     private static final double STEER_POS_D = 0; // 2
 
-    private final AHRS navx = Navx.newReadyNavx(); // NavX connected over MXP
+    private final NavXGyro gyro = new NavXGyro(); // NavX connected over MXP
 
     // private final SwerveDrive swerveDrive = new SwerveDrive(
     //     new SwerveModuleConfiguration( 
@@ -115,7 +114,7 @@ public class KrakenMk4iDrivetrain extends SubsystemBase {
     //     new SwerveDriveConfiguration(
     //         MAX_SPEED_MS, 
     //         KINEMATICS, 
-    //         () -> getGyroscopeRotation()
+    //         gyro
     //     )
     // );
 
@@ -144,10 +143,10 @@ public class KrakenMk4iDrivetrain extends SubsystemBase {
     }
 
     /**
-     * Retourne l'angle du Gyromètre dans l'intervalle [0, 360]
+     * Retourne l'angle du Gyromètre, positif dans le sens antihoraire
      */
     private Rotation2d getGyroscopeRotation() {
-        return Rotation2d.fromDegrees(360 - navx.getFusedHeading());
+        return Rotation2d.fromRadians(gyro.getYawRadians());
     }
 
     public Command drive() {
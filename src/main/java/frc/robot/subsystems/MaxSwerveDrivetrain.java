@@ -4,6 +4,7 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInLayouts;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardLayout;
@@ -11,20 +12,24 @@ import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
-import frc.robot.lib.Navx;
 import frc.robot.lib.swervelib.DiscreetAngle;
-import frc.robot.lib.swervelib.ModuleLocation;
+import frc.robot.lib.swervelib.DrivetrainRecorder;
 import frc.robot.lib.swervelib.RevGearRatios;
 import frc.robot.lib.swervelib.SwerveDrive;
 import frc.robot.lib.swervelib.SwerveDriveConfiguration;
+import frc.robot.lib.swervelib.SwerveDriveTelemetry;
 import frc.robot.lib.swervelib.SwerveModuleConfiguration;
+import frc.robot.lib.swervelib.navx.NavXGyro;
 import frc.robot.lib.swervelib.rev.SparkMaxAbsoluteEncoderConfiguration;
 import frc.robot.lib.swervelib.rev.SparkMaxDriveConfiguration;
+import frc.robot.lib.swervelib.rev.SparkMaxOdometryConfiguration;
 import frc.robot.lib.swervelib.rev.SparkMaxSteerConfiguration;
 
-import com.studica.frc.AHRS;
 
 public class MaxSwerveDrivetrain extends SubsystemBase {
+    // Enregistre chaque mise à jour de l'odométrie dans le DataLog, pour l'analyser dans AdvantageScope.
+    private static final boolean RECORD_DRIVETRAIN = false;
+
     private static final int FRONT_LEFT_MODULE_DRIVE_MOTOR_ID = 8;
     private static final int FRONT_LEFT_MODULE_STEER_MOTOR_ID = 6;
     private static final int FRONT_LEFT_MODULE_STEER_ENCODER_ID = 6;
@@ -84,8 +89,7 @@ public class MaxSwerveDrivetrain extends SubsystemBase {
     private static final double STEER_POS_I = 0;
     private static final double STEER_POS_D = 0.2;
 
-    private final AHRS navx = Navx.newReadyNavx(); // NavX connected over MXP
-    private double navxInitialAngle = 0;
+    private final NavXGyro gyro = new NavXGyro(); // NavX connected over MXP
 
     private final SwerveDrive swerveDrive = new SwerveDrive(
         new SwerveModuleConfiguration( 
@@ -120,46 +124,36 @@ public class MaxSwerveDrivetrain extends SubsystemBase {
         new SwerveDriveConfiguration(
             MAX_SPEED_MS, 
             KINEMATICS, 
-            () -> getGyroscopeRotation()
+            gyro
+        ).withOdometryThread(
+            new SparkMaxOdometryConfiguration().withGyroYaw(gyro::getYawRadians)
         )
     );
 
+    private final SwerveDriveTelemetry telemetry = new SwerveDriveTelemetry(swerveDrive);
+
     private final CommandXboxController gamepad;
 
     public MaxSwerveDrivetrain(CommandXboxController gamepad) {
         this.gamepad = gamepad;
-        navxInitialAngle = navx.getFusedHeading();
-        setDefaultCommand(drive());
-
-        for(var location : ModuleLocation.values()) {
-            setModuleTelemetry(location);
+        if (RECORD_DRIVETRAIN) {
+            var recorder = new DrivetrainRecorder(swerveDrive.getModuleCount(), DataLogManager.getLog());
+            swerveDrive.setRecorder(recorder);
+            recorder.start();
         }
+        setDefaultCommand(drive());
 
         ShuffleboardLayout layout = MODULE_TAB.getLayout("Drivetrain", BuiltInLayouts.kList)
             .withSize(2, 4)
             .withPosition(8, 0);
-        layout.addDouble("Navx init angle D", () -> navxInitialAngle);
-        layout.addDouble("Navx raw angle D", () -> navx.getFusedHeading());
+        layout.addDouble("Navx raw angle D", () -> gyro.getAhrs().getYaw());
         layout.addDouble("Navx norm angle D", () -> getGyroscopeRotation().getDegrees());
     }
 
     private static final ShuffleboardTab MODULE_TAB = Shuffleboard.getTab("Modules states");
 
-    private void setModuleTelemetry(ModuleLocation module) {
-        ShuffleboardLayout layout = MODULE_TAB.getLayout(module.name + " module", BuiltInLayouts.kList)
-            .withSize(2, 4)
-            .withPosition(module.index * 2, 0);
-            
-        layout.addDouble("Drive speed ms", () -> swerveDrive.getDriveSpeedMS(module));
-        layout.addDouble("Steer angle deg", () -> swerveDrive.getSteerAngle(module).degrees());
-        layout.addDouble("Steer ref angle deg", () -> swerveDrive.getSteerReferenceAngle(module).degrees());
-        layout.addDouble("Drive position rots", () -> swerveDrive.getDrivePositionNativeUnits(module));
-        layout.addDouble("Absolute angle", () -> swerveDrive.getSteerAbsoluteAngle(module).degrees());
-        layout.addDouble("Diff encoder", () -> swerveDrive.getSteerAbsoluteAngle(module).degrees() - swerveDrive.getSteerAngle(module).degrees());
-    }
-
     private Rotation2d getGyroscopeRotation() {
-        return Rotation2d.fromDegrees(-(navx.getFusedHeading() - navxInitialAngle));
+        return Rotation2d.fromRadians(gyro.getYawRadians());
     }
 
     public Command drive() {
@@ -183,5 +177,6 @@ public class MaxSwerveDrivetrain extends SubsystemBase {
     @Override
     public void periodic() {
         swerveDrive.periodic();
+        telemetry.publish();
     }
 }
@@ -0,0 +1,134 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class AngleMathTest {
+    static final double EPSILON = 0.0000001;
+
+    static void assertOptimizedEquals(double expectedAngleDegrees, double expectedDriveSign, double targetAngleDegrees, double currentAngleDegrees) {
+        var actual = new MutableSteerSetPoint();
+        AngleMath.optimize(Math.toRadians(targetAngleDegrees), Math.toRadians(currentAngleDegrees), actual);
+        assertEquals(expectedAngleDegrees, Math.toDegrees(actual.targetAngleRadians), EPSILON);
+        assertEquals(expectedDriveSign, actual.driveSign);
+    }
+
+    @Test
+    void whenWrappingThenWithinTwoPi() {
+        assertEquals(0, AngleMath.wrap(0));
+        assertEquals(Math.PI, AngleMath.wrap(Math.PI));
+        assertEquals(0, AngleMath.wrap(2 * Math.PI));
+        assertEquals(Math.toRadians(40), AngleMath.wrap(Math.toRadians(400)), EPSILON);
+        assertEquals(Math.toRadians(320), AngleMath.wrap(Math.toRadians(-40)), EPSILON);
+        assertEquals(0, AngleMath.wrap(Math.toRadians(-360)), EPSILON);
+        assertEquals(Math.toRadians(320), AngleMath.wrap(Math.toRadians(-400)), EPSILON);
+    }
+
+    @Test
+    void whenWrappingThenSameAsDiscreetAngle() {
+        for (double degrees = -1080; degrees <= 1080; degrees += 7.5) {
+            var radians = Math.toRadians(degrees);
+            assertEquals(DiscreetAngle.fromRadians(radians).radians(), AngleMath.wrap(radians));
+        }
+    }
+
+    @Test
+    void whenComputingShortestDeltaThenWithinPi() {
+        assertEquals(Math.toRadians(20), AngleMath.shortestDelta(Math.toRadians(350), Math.toRadians(10)), EPSILON);
+        assertEquals(Math.toRadians(-20), AngleMath.shortestDelta(Math.toRadians(10), Math.toRadians(350)), EPSILON);
+        assertEquals(Math.toRadians(-180), AngleMath.shortestDelta(0, Math.PI), EPSILON);
+        assertEquals(Math.toRadians(90), AngleMath.shortestDelta(Math.toRadians(-720), Math.toRadians(450)), EPSILON);
+    }
+
+    @Test
+    void whenUnwrappingThenClosestToReference() {
+        assertEquals(Math.toRadians(370), AngleMath.unwrap(Math.toRadians(10), Math.toRadians(350)), EPSILON);
+        assertEquals(Math.toRadians(-370), AngleMath.unwrap(Math.toRadians(350), Math.toRadians(-350)), EPSILON);
+        assertEquals(Math.toRadians(720), AngleMath.unwrap(0, Math.toRadians(710)), EPSILON);
+    }
+
+    @Test
+    void whenOptimizingThenSameCasesAsSwerveModuleTest() {
+        assertOptimizedEquals(0, -1, 180, 0);
+        assertOptimizedEquals(-90, 1, 270, 0);
+        assertOptimizedEquals(450, 1, 90, 360);
+        assertOptimizedEquals(90, -1, 270, 10);
+        assertOptimizedEquals(270, -1, 90, 350);
+        assertOptimizedEquals(630, -1, 90, 710);
+        assertOptimizedEquals(-450, 1, 270, -360);
+        assertOptimizedEquals(-450, -1, 90, -370);
+    }
+
+    @Test
+    void whenOptimizingThenSameAsObjectApi() {
+        var actual = new MutableSteerSetPoint();
+        for (double currentDegrees = -730; currentDegrees <= 730; currentDegrees += 11) {
+            for (double targetDegrees = 0; targetDegrees < 360; targetDegrees += 7) {
+                var expected = SwerveModule.getSteerAngleAndDriveSign(
+                    DiscreetAngle.fromDegrees(targetDegrees),
+                    ContinuousAngle.fromDegrees(currentDegrees)
+                );
+                AngleMath.optimize(Math.toRadians(targetDegrees), Math.toRadians(currentDegrees), actual);
+
+                assertEquals(expected.targetAngle.radians(), actual.targetAngleRadians, EPSILON);
+                assertEquals(expected.driveSign, actual.driveSign);
+            }
+        }
+    }
+
+    @Test
+    void whenTargetOutsideZeroTwoPiThenSameAsWrapped() {
+        var wrapped = new MutableSteerSetPoint();
+        var unwrapped = new MutableSteerSetPoint();
+        for (double currentDegrees = -730; currentDegrees <= 730; currentDegrees += 13) {
+            for (double targetDegrees = -179; targetDegrees <= 180; targetDegrees += 7) {
+                AngleMath.optimize(Math.toRadians(targetDegrees), Math.toRadians(currentDegrees), unwrapped);
+                AngleMath.optimize(AngleMath.wrap(Math.toRadians(targetDegrees)), Math.toRadians(currentDegrees), wrapped);
+
+                assertEquals(wrapped.targetAngleRadians, unwrapped.targetAngleRadians, EPSILON);
+                assertEquals(wrapped.driveSign, unwrapped.driveSign);
+            }
+        }
+    }
+
+    @Test
+    void whenOptimizingArraysThenSameAsOneByOne() {
+        var expected = new MutableSteerSetPoint();
+        var targetsRadians = new double[2];
+        var currentsRadians = new double[2];
+        var resultRadians = new double[2];
+        var resultDriveSigns = new double[2];
+        for (double currentDegrees = -730; currentDegrees <= 730; currentDegrees += 11) {
+            for (double targetDegrees = -179; targetDegrees < 360; targetDegrees += 7) {
+                // Exactly 90 deg away, rounding decides whether the drive is inverted.
+                if (Math.abs(Math.abs(AngleMath.toDegrees(AngleMath.shortestDelta(Math.toRadians(currentDegrees), Math.toRadians(targetDegrees)))) - 90) < EPSILON) {
+                    continue;
+                }
+                targetsRadians[1] = Math.toRadians(targetDegrees);
+                currentsRadians[1] = Math.toRadians(currentDegrees);
+                AngleMath.optimize(targetsRadians, currentsRadians, resultRadians, resultDriveSigns);
+                AngleMath.optimize(targetsRadians[1], currentsRadians[1], expected);
+
+                assertEquals(expected.targetAngleRadians, resultRadians[1], EPSILON);
+                assertEquals(expected.driveSign, resultDriveSigns[1]);
+            }
+        }
+    }
+
+    @Test
+    void whenAngleUnchangedThenRotationReused() {
+        var previous = new Rotation2d(0.5);
+        var candidate = new Rotation2d(0.7);
+
+        assertSame(previous, AngleMath.rotationOf(previous, 0.5));
+        assertSame(candidate, AngleMath.rotationOf(previous, candidate, 0.7));
+        assertSame(previous, AngleMath.rotationOf(previous, candidate, 0.5));
+        var changed = AngleMath.rotationOf(previous, candidate, 0.9);
+        assertNotSame(previous, changed);
+        assertEquals(0.9, changed.getRadians());
+    }
+}
@@ -0,0 +1,119 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CanSignalBudgetTest {
+    private static final int MODULE_COUNT = 4;
+    static final double EPSILON = 0.0000001;
+
+    private static SwerveDriveConfiguration newConfiguration() {
+        return new SwerveDriveConfiguration(
+            4.0,
+            new SwerveDriveKinematics(
+                new Translation2d(0.3, 0.3),
+                new Translation2d(0.3, -0.3),
+                new Translation2d(-0.3, 0.3),
+                new Translation2d(-0.3, -0.3)
+            ),
+            () -> Rotation2d.fromDegrees(0)
+        );
+    }
+
+    private static OdometryConfiguration odometryAt(double frequencyHz) {
+        return new OdometryConfiguration() {
+            @Override
+            public OdometrySampler createOdometrySampler(DriveController[] driveControllers, SteerController[] steerControllers, OdometrySampleRing samples) {
+                return null;
+            }
+
+            @Override
+            public double getFrequencyHz() {
+                return frequencyHz;
+            }
+        };
+    }
+
+    @Test
+    void whenSeveralConsumersThenHighestFrequency() {
+        var budget = new CanSignalBudget()
+            .withSignal(CanSignal.STEER_POSITION, CanSignalConsumer.TELEMETRY, 20)
+            .withSignal(CanSignal.DRIVE_OUTPUT, CanSignalConsumer.TELEMETRY, 10);
+
+        assertEquals(50, budget.getFrequencyHz(CanSignal.STEER_POSITION), EPSILON);
+        assertEquals(10, budget.getFrequencyHz(CanSignal.DRIVE_OUTPUT), EPSILON);
+        assertFalse(budget.withSignal(CanSignal.STEER_OUTPUT, CanSignalConsumer.TELEMETRY, 0).isUsed(CanSignal.STEER_OUTPUT));
+        // Slow, but never turned off by default: getOutput() would be stale.
+        assertEquals(4, new CanSignalBudget().getFrequencyHz(CanSignal.DRIVE_OUTPUT), EPSILON);
+        assertEquals(4, CanSignalBudget.forCanFd().getFrequencyHz(CanSignal.STEER_OUTPUT), EPSILON);
+        assertThrows(IllegalArgumentException.class, () -> budget.withSignal(CanSignal.DRIVE_VELOCITY, CanSignalConsumer.CONTROL, 2000));
+    }
+
+    @Test
+    void whenOdometryThreadThenPositionsAtItsFrequency() {
+        var configuration = newConfiguration();
+        assertSame(configuration.signalBudget, configuration.getEffectiveSignalBudget());
+
+        var budget = configuration.withOdometryThread(odometryAt(250)).getEffectiveSignalBudget();
+        assertEquals(250, budget.getFrequencyHz(CanSignal.DRIVE_POSITION), EPSILON);
+        assertEquals(250, budget.getFrequencyHz(CanSignal.STEER_POSITION), EPSILON);
+        assertEquals(50, budget.getFrequencyHz(CanSignal.DRIVE_VELOCITY), EPSILON);
+    }
+
+    @Test
+    void whenDrivetrainBudgetsThenFitOneMbitBus() {
+        var loopRate = newConfiguration().getEffectiveSignalBudget();
+        var phoenixOdometry = newConfiguration().withOdometryThread(odometryAt(250)).getEffectiveSignalBudget();
+
+        assertTrue(loopRate.estimateBusUtilization(MODULE_COUNT) < 0.3);
+        assertTrue(phoenixOdometry.estimateBusUtilization(MODULE_COUNT) < 0.6);
+        loopRate.ensureFitsBus(MODULE_COUNT);
+        phoenixOdometry.ensureFitsBus(MODULE_COUNT);
+    }
+
+    @Test
+    void whenBudgetSaturatesBusThenRejected() {
+        var budget = new CanSignalBudget();
+        for (var signal: CanSignal.values()) {
+            budget = budget.withSignal(signal, CanSignalConsumer.TELEMETRY, 1000);
+        }
+        var saturating = budget;
+
+        assertTrue(saturating.estimateBusUtilization(MODULE_COUNT) > 1);
+        assertThrows(IllegalArgumentException.class, () -> saturating.ensureFitsBus(MODULE_COUNT));
+    }
+
+    @Test
+    void whenFramesCountedThenSignalsControlAndBaseline() {
+        var budget = new CanSignalBudget().withControlFrequency(50);
+        // 50 + 50 + 50 + 50 Hz of signals, 10 Hz of absolute angle, 2 outputs at 4 Hz, 3 devices at 4 Hz,
+        // 2 control frames at 50 Hz.
+        var framesPerModule = 210 + 8 + 12 + 100;
+
+        assertEquals(MODULE_COUNT * framesPerModule, budget.estimateFramesPerSecond(MODULE_COUNT), EPSILON);
+        assertEquals(
+            MODULE_COUNT * framesPerModule * CanSignalBudget.BITS_PER_FRAME / 1e6,
+            budget.estimateBusUtilization(MODULE_COUNT),
+            EPSILON
+        );
+    }
+
+    @Test
+    void whenCanFdThenFasterRatesStillFitting() {
+        var budget = CanSignalBudget.forCanFd();
+        var phoenixOdometry = newConfiguration().withOdometryThread(odometryAt(250)).withSignalBudget(budget).getEffectiveSignalBudget();
+
+        assertEquals(100, budget.getFrequencyHz(CanSignal.DRIVE_VELOCITY), EPSILON);
+        assertEquals(20, budget.getFrequencyHz(CanSignal.ABSOLUTE_POSITION), EPSILON);
+        assertEquals(CanSignalBudget.CAN_FD_EQUIVALENT_BITRATE_BITS_PER_S, phoenixOdometry.bitrateBitsPerSecond, EPSILON);
+        phoenixOdometry.ensureFitsBus(MODULE_COUNT);
+        assertTrue(phoenixOdometry.estimateBusUtilization(MODULE_COUNT) < 0.25);
+        // The same rates would use more than half of a CAN 2.0 bus.
+        assertTrue(phoenixOdometry.withBitrate(CanSignalBudget.CAN_BITRATE_BITS_PER_S).estimateBusUtilization(MODULE_COUNT) > 0.5);
+    }
+}
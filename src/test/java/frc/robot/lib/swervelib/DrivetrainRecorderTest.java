@@ -0,0 +1,87 @@
+package frc.robot.lib.swervelib;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.util.datalog.DataLogWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrivetrainRecorderTest {
+    private static final int MODULE_COUNT = 4;
+
+    private final DrivetrainRecord record = new DrivetrainRecord(MODULE_COUNT);
+
+    private void fill(DrivetrainRecord record, double value) {
+        record.timestampSeconds = value;
+        record.gyroYawRadians = value / 2;
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            record.drivePositionsM[i] = value + i;
+            record.driveSpeedsMS[i] = value - i;
+            record.referenceSpeedsMS[i] = value * i;
+            record.steerAnglesRadians[i] = -value - i;
+            record.steerReferenceAnglesRadians[i] = -value + i;
+        }
+    }
+
+    @Test
+    void whenPolledThenRecordsInOfferOrder() {
+        var ring = new DrivetrainRecordRing(MODULE_COUNT, 4);
+        var polled = new DrivetrainRecord(MODULE_COUNT);
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 3; i++) {
+                fill(record, lap * 10 + i);
+                assertTrue(ring.offer(record));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.poll(polled));
+                var expected = new DrivetrainRecord(MODULE_COUNT);
+                fill(expected, lap * 10 + i);
+                assertEquals(expected.timestampSeconds, polled.timestampSeconds);
+                assertEquals(expected.gyroYawRadians, polled.gyroYawRadians);
+                assertArrayEquals(expected.drivePositionsM, polled.drivePositionsM);
+                assertArrayEquals(expected.driveSpeedsMS, polled.driveSpeedsMS);
+                assertArrayEquals(expected.referenceSpeedsMS, polled.referenceSpeedsMS);
+                assertArrayEquals(expected.steerAnglesRadians, polled.steerAnglesRadians);
+                assertArrayEquals(expected.steerReferenceAnglesRadians, polled.steerReferenceAnglesRadians);
+            }
+            assertFalse(ring.poll(polled));
+        }
+    }
+
+    @Test
+    void whenWriterBehindThenRecordsDroppedAndCounted() {
+        var recorder = new DrivetrainRecorder(MODULE_COUNT, new DataLogWriter(new ByteArrayOutputStream()), "Test", 8);
+
+        for (int i = 0; i < 10; i++) {
+            fill(record, i);
+            assertEquals(i < 8, recorder.record(record));
+        }
+        assertEquals(2, recorder.getDroppedCount());
+
+        assertEquals(8, recorder.writePending());
+        assertEquals(8, recorder.getWrittenCount());
+        assertEquals(0, recorder.writePending());
+
+        fill(record, 10);
+        assertTrue(recorder.record(record));
+        assertEquals(1, recorder.writePending());
+        assertEquals(2, recorder.getDroppedCount());
+    }
+
+    @Test
+    void whenStoppedThenQueuedRecordsWritten() {
+        var recorder = new DrivetrainRecorder(MODULE_COUNT, new DataLogWriter(new ByteArrayOutputStream()));
+        recorder.start();
+        for (int i = 0; i < 20; i++) {
+            fill(record, i);
+            recorder.record(record);
+        }
+        recorder.stop();
+
+        assertEquals(20, recorder.getWrittenCount());
+        assertEquals(0, recorder.getDroppedCount());
+    }
+}
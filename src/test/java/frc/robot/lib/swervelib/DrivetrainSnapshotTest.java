@@ -0,0 +1,243 @@
+package frc.robot.lib.swervelib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrivetrainSnapshotTest {
+    static final double EPSILON = 0.0000001;
+    static final double DRIVE_POSITION_AGE_S = 0.004;
+    static final double STEER_ANGLE_AGE_S = 0.006;
+
+    // Stands for the devices: the controllers only see a new reading after their signals are refreshed.
+    private double sensorValue = 0;
+    private int refreshCount = 0;
+    // A device unplugged: the refreshes fail, and the caches keep their values.
+    private boolean refreshFailing = false;
+    private int sensorRefresherCount = 0;
+    private int sensorReadCount = 0;
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private SwerveDrive swerveDrive;
+
+    @BeforeEach
+    void setUp() {
+        swerveDrive = fixture
+            .withDriveControllers((motorCanId, gearRatio, maxSpeedMS) -> new CountingDriveController())
+            .withSteerControllers((motorCanId, gearRatio, absoluteEncoder) -> new CountingSteerController())
+            .withConfiguration(configuration -> configuration.withSensorRefresher(() -> sensorRefresherCount++))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void whenPeriodicThenSensorsRefreshedOnceBeforeBeingRead() {
+        refreshCount = 0;
+        sensorRefresherCount = 0;
+        swerveDrive.periodic();
+
+        // All the drive and steer signals in a single batch.
+        assertEquals(1, refreshCount);
+        assertEquals(1, sensorRefresherCount);
+        assertEquals(sensorValue, swerveDrive.getDriveSpeedMS(ModuleLocation.FrontLeft));
+        assertEquals(sensorValue, swerveDrive.getDrivePositionM(ModuleLocation.BackRight));
+        assertEquals(sensorValue, swerveDrive.getSteerAngle(ModuleLocation.FrontRight).radians(), EPSILON);
+    }
+
+    @Test
+    void whenGettersCalledThenServedFromSnapshot() {
+        swerveDrive.periodic();
+        var cycle = swerveDrive.getSnapshot().getCycle();
+        var readsAfterCapture = sensorReadCount;
+        var capturedValue = sensorValue;
+        sensorValue += 10;
+
+        for (var location: ModuleLocation.values()) {
+            assertEquals(capturedValue, swerveDrive.getDriveSpeedMS(location));
+            assertEquals(capturedValue, swerveDrive.getDrivePositionM(location));
+            assertEquals(capturedValue, swerveDrive.getDrivePositionNativeUnits(location));
+            assertEquals(capturedValue, swerveDrive.getSteerAngle(location).radians(), EPSILON);
+        }
+        swerveDrive.getChassisSpeed();
+        swerveDrive.getEstimatedPositionM();
+
+        assertEquals(readsAfterCapture, sensorReadCount);
+        assertEquals(cycle, swerveDrive.getSnapshot().getCycle());
+    }
+
+    @Test
+    void whenNextPeriodicThenSnapshotUpdated() {
+        swerveDrive.periodic();
+        var firstCycle = swerveDrive.getSnapshot().getCycle();
+        var firstValue = swerveDrive.getDriveSpeedMS(ModuleLocation.BackLeft);
+
+        swerveDrive.periodic();
+
+        assertEquals(firstCycle + 1, swerveDrive.getSnapshot().getCycle());
+        assertEquals(firstValue + 1, swerveDrive.getDriveSpeedMS(ModuleLocation.BackLeft));
+    }
+
+    @Test
+    void whenPeriodicThenSampleAgesCaptured() {
+        swerveDrive.periodic();
+        var snapshot = swerveDrive.getSnapshot();
+
+        for (var location: ModuleLocation.values()) {
+            assertEquals(DRIVE_POSITION_AGE_S, snapshot.getDrivePositionAgeSeconds(location.index));
+            assertEquals(STEER_ANGLE_AGE_S, snapshot.getSteerAngleAgeSeconds(location.index));
+        }
+    }
+
+    @Test
+    void whenRefreshFailsThenCountedAndPreviousValuesKept() {
+        swerveDrive.periodic();
+        var capturedValue = swerveDrive.getDriveSpeedMS(ModuleLocation.FrontLeft);
+
+        refreshFailing = true;
+        swerveDrive.periodic();
+        swerveDrive.periodic();
+
+        assertEquals(2, swerveDrive.getFailedSensorRefreshCount());
+        assertEquals(capturedValue, swerveDrive.getDriveSpeedMS(ModuleLocation.FrontLeft));
+
+        refreshFailing = false;
+        swerveDrive.periodic();
+
+        assertEquals(2, swerveDrive.getFailedSensorRefreshCount());
+        assertNotEquals(capturedValue, swerveDrive.getDriveSpeedMS(ModuleLocation.FrontLeft));
+    }
+
+    /** Stands for a vendor library batch: a single refresh updates the cache of every device in it. */
+    private class FakeSensorSignals implements SensorSignals {
+        private final List<Runnable> caches;
+
+        FakeSensorSignals(List<Runnable> caches) {
+            this.caches = caches;
+        }
+
+        @Override
+        public boolean refresh() {
+            refreshCount++;
+            sensorValue += 1;
+            if (refreshFailing) {
+                return false;
+            }
+            for (var cache: caches) {
+                cache.run();
+            }
+            return true;
+        }
+
+        @Override
+        public SensorSignals batchWith(SensorSignals other) {
+            if (!(other instanceof FakeSensorSignals fakeSignals)) {
+                return null;
+            }
+            var batch = new ArrayList<>(caches);
+            batch.addAll(fakeSignals.caches);
+            return new FakeSensorSignals(batch);
+        }
+    }
+
+    private class CountingDriveController implements DriveController {
+        private double cachedValue = 0;
+
+        @Override
+        public void setOpenLoopSpeed(double pct) {
+        }
+
+        @Override
+        public void setClosedLoopSpeed(double speedMS) {
+        }
+
+        @Override
+        public double getSpeedMS() {
+            sensorReadCount++;
+            return cachedValue;
+        }
+
+        @Override
+        public double getOutput() {
+            return 0;
+        }
+
+        @Override
+        public double getPositionM() {
+            sensorReadCount++;
+            return cachedValue;
+        }
+
+        @Override
+        public double getPositionNativeUnits() {
+            sensorReadCount++;
+            return cachedValue;
+        }
+
+        @Override
+        public double getPositionAgeSeconds() {
+            return DRIVE_POSITION_AGE_S;
+        }
+
+        @Override
+        public double getReferenceSpeedMS() {
+            return 0;
+        }
+
+        @Override
+        public SensorSignals getSensorSignals() {
+            return new FakeSensorSignals(List.of(() -> cachedValue = sensorValue));
+        }
+    }
+
+    private class CountingSteerController implements SteerController {
+        private double cachedValue = 0;
+
+        @Override
+        public double getReferenceAngleRadians() {
+            return 0;
+        }
+
+        @Override
+        public void setReferenceAngleRadians(double referenceAngleRadians) {
+        }
+
+        @Override
+        public double getAngleRadians() {
+            sensorReadCount++;
+            return cachedValue;
+        }
+
+        @Override
+        public double getAngleAgeSeconds() {
+            return STEER_ANGLE_AGE_S;
+        }
+
+        @Override
+        public DiscreetAngle getAbsoluteAngle() {
+            sensorReadCount++;
+            return DiscreetAngle.fromRadians(cachedValue);
+        }
+
+        @Override
+        public double getOutput() {
+            return 0;
+        }
+
+        @Override
+        public SensorSignals getSensorSignals() {
+            return new FakeSensorSignals(List.of(() -> cachedValue = sensorValue));
+        }
+
+        @Override
+        public void periodic() {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * A drive motor reaching its set point immediately, and holding it for one period: each command moves its position
+ * forward by the speed times SwerveDriveFixture.PERIOD_S. The fields can be set by the tests, e.g. to stand for a
+ * wheel pushed by hand.
+ */
+public class FakeDriveController implements DriveController {
+    private final double maxSpeedMS;
+    public double speedMS = 0;
+    public double referenceSpeedMS = 0;
+    public double positionM = 0;
+    // getSpeedMS(), getPositionM() and getPositionNativeUnits() calls, the ones reading the CAN bus on a real motor.
+    public int sensorReadCount = 0;
+
+    public FakeDriveController(double maxSpeedMS) {
+        this.maxSpeedMS = maxSpeedMS;
+    }
+
+    @Override
+    public void setOpenLoopSpeed(double pct) {
+        speedMS = pct * maxSpeedMS;
+        positionM += speedMS * SwerveDriveFixture.PERIOD_S;
+    }
+
+    @Override
+    public void setClosedLoopSpeed(double speedMS) {
+        this.speedMS = speedMS;
+        referenceSpeedMS = speedMS;
+        positionM += speedMS * SwerveDriveFixture.PERIOD_S;
+    }
+
+    @Override
+    public double getSpeedMS() {
+        sensorReadCount++;
+        return speedMS;
+    }
+
+    @Override
+    public double getOutput() {
+        return speedMS / maxSpeedMS;
+    }
+
+    @Override
+    public double getPositionM() {
+        sensorReadCount++;
+        return positionM;
+    }
+
+    @Override
+    public double getPositionNativeUnits() {
+        sensorReadCount++;
+        return positionM;
+    }
+
+    @Override
+    public double getReferenceSpeedMS() {
+        return referenceSpeedMS;
+    }
+}
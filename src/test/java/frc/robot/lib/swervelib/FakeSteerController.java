@@ -0,0 +1,75 @@
+package frc.robot.lib.swervelib;
+
+/**
+ * A steer motor starting at the angle of its absolute encoder. It reaches its reference immediately, or when lagging,
+ * covers half of the remaining distance on each periodic() call, so the measured angle keeps changing like on a real
+ * module. The fields can be set by the tests.
+ */
+public class FakeSteerController implements SteerController {
+    private final boolean lagging;
+    public double referenceAngleRadians;
+    // The feedforward sent with the last reference.
+    public double referenceVelocityRadiansPerSecond = 0;
+    public double angleRadians;
+    // getAngleRadians() and getAbsoluteAngle() calls, the ones reading the CAN bus on a real motor.
+    public int sensorReadCount = 0;
+
+    public FakeSteerController(AbsoluteEncoder absoluteEncoder) {
+        this(absoluteEncoder, false);
+    }
+
+    public FakeSteerController(AbsoluteEncoder absoluteEncoder, boolean lagging) {
+        this.lagging = lagging;
+        angleRadians = absoluteEncoder.getAbsoluteAngleRadians();
+        referenceAngleRadians = angleRadians;
+    }
+
+    @Override
+    public double getReferenceAngleRadians() {
+        return referenceAngleRadians;
+    }
+
+    @Override
+    public void setReferenceAngleRadians(double referenceAngleRadians) {
+        setReferenceAngleRadians(referenceAngleRadians, 0);
+    }
+
+    @Override
+    public void setReferenceAngleRadians(double referenceAngleRadians, double velocityRadiansPerSecond) {
+        this.referenceAngleRadians = referenceAngleRadians;
+        referenceVelocityRadiansPerSecond = velocityRadiansPerSecond;
+        if (!lagging) {
+            angleRadians = referenceAngleRadians;
+        }
+    }
+
+    @Override
+    public double getAngleRadians() {
+        sensorReadCount++;
+        return angleRadians;
+    }
+
+    @Override
+    public DiscreetAngle getAbsoluteAngle() {
+        sensorReadCount++;
+        return DiscreetAngle.fromRadians(angleRadians);
+    }
+
+    @Override
+    public double getAbsoluteAngleRadians() {
+        sensorReadCount++;
+        return AngleMath.wrap(angleRadians);
+    }
+
+    @Override
+    public double getOutput() {
+        return referenceAngleRadians - angleRadians;
+    }
+
+    @Override
+    public void periodic() {
+        if (lagging) {
+            angleRadians += (referenceAngleRadians - angleRadians) * 0.5;
+        }
+    }
+}
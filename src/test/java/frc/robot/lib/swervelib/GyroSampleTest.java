@@ -0,0 +1,33 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GyroSampleTest {
+    static final double EPSILON = 0.0000001;
+
+    @Test
+    void whenRateKnownThenYawExtrapolatedToTime() {
+        var sample = new GyroSample();
+        sample.yawRadians = 1.0;
+        sample.yawRateRadiansPerSecond = 2.0;
+        sample.timestampSeconds = 10.0;
+
+        assertEquals(1.02, sample.getYawRadiansAt(10.01), EPSILON);
+        assertEquals(0.98, sample.getYawRadiansAt(9.99), EPSILON);
+    }
+
+    @Test
+    void whenTooOldOrUnknownThenYawAsMeasured() {
+        var sample = new GyroSample();
+        sample.yawRadians = 1.0;
+        sample.yawRateRadiansPerSecond = 2.0;
+        sample.timestampSeconds = 10.0;
+        assertEquals(1.0, sample.getYawRadiansAt(10.0 + 2 * GyroSample.MAX_EXTRAPOLATION_S));
+        assertEquals(1.0, sample.getYawRadiansAt(Double.NaN));
+
+        sample.yawRateRadiansPerSecond = Double.NaN;
+        assertEquals(1.0, sample.getYawRadiansAt(10.01));
+    }
+}
@@ -0,0 +1,57 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    @Test
+    void whenBucketingThenValueWithinBucketBounds() {
+        long previousUpperBound = -1;
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT; bucket++) {
+            var upperBound = LatencyHistogram.bucketUpperBoundNanos(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(previousUpperBound + 1));
+            assertEquals(bucket, LatencyHistogram.bucketOf(upperBound));
+            // Log-linear: a bucket is never wider than 1/16 of its values.
+            assertTrue(upperBound - previousUpperBound <= Math.max(1, (previousUpperBound + 1) / 16));
+            previousUpperBound = upperBound;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void whenRecordingThenPercentilesWithinBucketPrecision() {
+        var histogram = new LatencyHistogram();
+        // 1 us to 1 ms.
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_000, histogram.getValueAtPercentileNanos(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.getValueAtPercentileNanos(99), 990_000 / 16.0);
+        assertTrue(histogram.getValueAtPercentileNanos(50) >= 500_000);
+        assertEquals(1_000_000, histogram.getValueAtPercentileNanos(100));
+    }
+
+    @Test
+    void whenReadThenReset() {
+        var histogram = new LatencyHistogram();
+        var summary = new LatencySummary();
+        histogram.record(7);
+        histogram.record(5_000_000);
+        histogram.record(-3);
+
+        histogram.readAndReset(summary);
+        assertEquals(3, summary.count);
+        assertEquals(7, summary.p50Nanos);
+        assertEquals(5_000_000, summary.p99Nanos);
+        assertEquals(5_000_000, summary.maxNanos);
+
+        histogram.readAndReset(summary);
+        assertEquals(0, summary.count);
+        assertEquals(0, summary.p50Nanos);
+        assertEquals(0, summary.maxNanos);
+    }
+}
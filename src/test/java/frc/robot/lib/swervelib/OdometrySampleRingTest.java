@@ -0,0 +1,109 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OdometrySampleRingTest {
+    private static final int MODULE_COUNT = 4;
+
+    private final double[] drivePositionsM = new double[MODULE_COUNT];
+    private final double[] steerAnglesRadians = new double[MODULE_COUNT];
+    private final OdometrySample sample = new OdometrySample(MODULE_COUNT);
+
+    private boolean offer(OdometrySampleRing ring, double value) {
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            drivePositionsM[i] = value + i;
+            steerAnglesRadians[i] = -value - i;
+        }
+        return ring.offer(value, value / 2, drivePositionsM, steerAnglesRadians);
+    }
+
+    private void assertSampleEquals(double value, OdometrySample sample) {
+        assertEquals(value, sample.timestampSeconds);
+        assertEquals(value / 2, sample.gyroYawRadians);
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            assertEquals(value + i, sample.drivePositionsM[i]);
+            assertEquals(-value - i, sample.steerAnglesRadians[i]);
+        }
+    }
+
+    @Test
+    void whenCreatedThenCapacityRoundedToPowerOfTwo() {
+        assertEquals(1, new OdometrySampleRing(MODULE_COUNT, 1).getCapacity());
+        assertEquals(8, new OdometrySampleRing(MODULE_COUNT, 5).getCapacity());
+        assertEquals(64, new OdometrySampleRing(MODULE_COUNT, 64).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new OdometrySampleRing(0, 8));
+    }
+
+    @Test
+    void whenPolledThenSamplesInOfferOrder() {
+        var ring = new OdometrySampleRing(MODULE_COUNT, 8);
+        assertFalse(ring.poll(sample));
+
+        // Several laps, to go through the wrap around.
+        for (int lap = 0; lap < 5; lap++) {
+            for (int i = 0; i < 6; i++) {
+                assertTrue(offer(ring, lap * 10 + i));
+            }
+            assertEquals(6, ring.size());
+            for (int i = 0; i < 6; i++) {
+                assertTrue(ring.poll(sample));
+                assertSampleEquals(lap * 10 + i, sample);
+            }
+            assertFalse(ring.poll(sample));
+        }
+        assertEquals(0, ring.getDroppedCount());
+    }
+
+    @Test
+    void whenFullThenNewSamplesDroppedAndCounted() {
+        var ring = new OdometrySampleRing(MODULE_COUNT, 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(ring, i));
+        }
+        assertFalse(offer(ring, 4));
+        assertFalse(offer(ring, 5));
+        assertEquals(2, ring.getDroppedCount());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.poll(sample));
+            assertSampleEquals(i, sample);
+        }
+        assertTrue(offer(ring, 6));
+        assertTrue(ring.poll(sample));
+        assertSampleEquals(6, sample);
+    }
+
+    @Test
+    void whenProducedFromAnotherThreadThenSamplesInOrderAndNoneLost() throws InterruptedException {
+        var ring = new OdometrySampleRing(MODULE_COUNT, 16);
+        var sampleCount = 100_000;
+        var producer = new Thread(() -> {
+            var positions = new double[MODULE_COUNT];
+            var angles = new double[MODULE_COUNT];
+            for (int i = 0; i < sampleCount; i++) {
+                for (int j = 0; j < MODULE_COUNT; j++) {
+                    positions[j] = i + j;
+                    angles[j] = -i - j;
+                }
+                ring.offer(i, i / 2.0, positions, angles);
+            }
+        });
+        producer.start();
+
+        var received = 0;
+        var previous = -1.0;
+        while (producer.isAlive() || ring.size() > 0) {
+            while (ring.poll(sample)) {
+                assertTrue(sample.timestampSeconds > previous);
+                assertSampleEquals(sample.timestampSeconds, sample);
+                previous = sample.timestampSeconds;
+                received++;
+            }
+        }
+        producer.join();
+
+        assertEquals(sampleCount, received + ring.getDroppedCount());
+    }
+}
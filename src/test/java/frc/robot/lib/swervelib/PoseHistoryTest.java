@@ -0,0 +1,99 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoseHistoryTest {
+    static final double EPSILON = 0.0000001;
+
+    private final MutableDrivetrainState state = new MutableDrivetrainState();
+
+    private static void addStraightLine(PoseHistory history, double timestampSeconds) {
+        // Going along x at 2 m/s, y and heading following the same line.
+        history.add(timestampSeconds, 2 * timestampSeconds, -timestampSeconds, 0.1 * timestampSeconds, 2, -1, 0.1);
+    }
+
+    @Test
+    void whenEmptyThenNoState() {
+        var history = new PoseHistory(4);
+
+        assertFalse(history.getStateAt(1, state));
+        assertTrue(history.getPoseAt(1).isEmpty());
+        assertTrue(Double.isNaN(history.getNewestTimestampSeconds()));
+    }
+
+    @Test
+    void whenBetweenEntriesThenInterpolated() {
+        var history = new PoseHistory(8);
+        addStraightLine(history, 1.0);
+        addStraightLine(history, 1.02);
+        addStraightLine(history, 1.04);
+
+        assertTrue(history.getStateAt(1.03, state));
+        assertEquals(1.03, state.timestampSeconds);
+        assertEquals(2.06, state.xM, EPSILON);
+        assertEquals(-1.03, state.yM, EPSILON);
+        assertEquals(0.103, state.headingRadians, EPSILON);
+        assertEquals(2, state.vxMS, EPSILON);
+        assertEquals(-1, state.vyMS, EPSILON);
+        assertEquals(0.1, state.omegaRadiansPerS, EPSILON);
+
+        assertTrue(history.getStateAt(1.02, state));
+        assertEquals(2.04, state.xM, EPSILON);
+    }
+
+    @Test
+    void whenOutsideHistoryThenClosestEntry() {
+        var history = new PoseHistory(8);
+        addStraightLine(history, 1.0);
+        addStraightLine(history, 1.02);
+
+        assertTrue(history.getStateAt(0.5, state));
+        assertEquals(2.0, state.xM, EPSILON);
+        assertTrue(history.getStateAt(3.0, state));
+        assertEquals(2.04, state.xM, EPSILON);
+    }
+
+    @Test
+    void whenFullThenOldestEntriesOverwritten() {
+        var history = new PoseHistory(4);
+        for (int i = 0; i < 10; i++) {
+            addStraightLine(history, i);
+        }
+
+        assertEquals(4, history.size());
+        assertEquals(6, history.getOldestTimestampSeconds());
+        assertEquals(9, history.getNewestTimestampSeconds());
+        for (double t = 6; t <= 9; t += 0.25) {
+            assertTrue(history.getStateAt(t, state));
+            assertEquals(2 * t, state.xM, EPSILON);
+        }
+        history.getStateAt(2, state);
+        assertEquals(12, state.xM, EPSILON);
+    }
+
+    @Test
+    void whenNotNewerThenIgnored() {
+        var history = new PoseHistory(4);
+        assertTrue(history.add(1, 1, 0, 0, 0, 0, 0));
+        assertFalse(history.add(1, 2, 0, 0, 0, 0, 0));
+        assertFalse(history.add(0.5, 3, 0, 0, 0, 0, 0));
+        assertFalse(history.add(Double.NaN, 4, 0, 0, 0, 0, 0));
+
+        assertEquals(1, history.size());
+        history.getStateAt(1, state);
+        assertEquals(1, state.xM);
+    }
+
+    @Test
+    void whenHeadingCrossesPiThenInterpolatedTheShortWay() {
+        var history = new PoseHistory(4);
+        history.add(0, 0, 0, Math.toRadians(170), 0, 0, 0);
+        history.add(1, 0, 0, Math.toRadians(-170), 0, 0, 0);
+
+        history.getStateAt(0.5, state);
+        assertEquals(0, Math.sin(state.headingRadians), EPSILON);
+        assertEquals(-1, Math.cos(state.headingRadians), EPSILON);
+    }
+}
@@ -0,0 +1,87 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SensorSignalsTest {
+    /** Counts its refreshes, batched with the other signals of the same vendor. */
+    private static class VendorSignals implements SensorSignals {
+        private final String vendor;
+        private final VendorSignals[] devices;
+        private int refreshCount = 0;
+        private boolean failing = false;
+
+        VendorSignals(String vendor, VendorSignals... devices) {
+            this.vendor = vendor;
+            this.devices = devices;
+        }
+
+        @Override
+        public boolean refresh() {
+            refreshCount++;
+            var refreshed = !failing;
+            for (var device: devices) {
+                refreshed &= device.refresh();
+            }
+            return refreshed;
+        }
+
+        @Override
+        public SensorSignals batchWith(SensorSignals other) {
+            if (!(other instanceof VendorSignals vendorSignals) || !vendor.equals(vendorSignals.vendor)) {
+                return null;
+            }
+            return new VendorSignals(vendor, this, vendorSignals);
+        }
+    }
+
+    @Test
+    void whenSameVendorThenOneBatchPerVendor() {
+        var ctre1 = new VendorSignals("ctre");
+        var rev = new VendorSignals("rev");
+        var ctre2 = new VendorSignals("ctre");
+
+        var batches = SensorSignals.batch(ctre1, null, rev, ctre2);
+
+        assertEquals(2, batches.length);
+        for (var batch: batches) {
+            batch.refresh();
+        }
+        assertEquals(1, ctre1.refreshCount);
+        assertEquals(1, rev.refreshCount);
+        assertEquals(1, ctre2.refreshCount);
+    }
+
+    @Test
+    void whenCombiningOtherVendorsThenBothRefreshed() {
+        var ctre = new VendorSignals("ctre");
+        var rev = new VendorSignals("rev");
+
+        SensorSignals.of(ctre, rev).refresh();
+
+        assertEquals(1, ctre.refreshCount);
+        assertEquals(1, rev.refreshCount);
+        assertSame(ctre, SensorSignals.of(ctre, null));
+        assertSame(rev, SensorSignals.of(null, rev));
+        assertNull(SensorSignals.of(null, null));
+    }
+
+    @Test
+    void whenOneRefreshFailsThenOthersStillRefreshed() {
+        var ctre = new VendorSignals("ctre");
+        var rev = new VendorSignals("rev");
+        ctre.failing = true;
+
+        assertFalse(SensorSignals.of(ctre, rev).refresh());
+
+        assertEquals(1, rev.refreshCount);
+        ctre.failing = false;
+        assertTrue(SensorSignals.of(ctre, rev).refresh());
+    }
+
+    @Test
+    void whenNoSignalsThenNoBatch() {
+        assertEquals(0, SensorSignals.batch(null, null).length);
+    }
+}
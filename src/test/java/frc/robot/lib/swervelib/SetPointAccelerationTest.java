@@ -0,0 +1,55 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SetPointAccelerationTest {
+    private static final long MS = 1_000_000;
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void whenSetPointsChangeThenAccelerationFromTheirPeriod() {
+        var acceleration = new SetPointAcceleration();
+
+        assertEquals(0, acceleration.update(1.0, 0), EPSILON);
+        assertEquals(5, acceleration.update(1.1, 20 * MS), EPSILON);
+        assertEquals(-2.5, acceleration.update(1.0, 60 * MS), EPSILON);
+        assertEquals(0, acceleration.update(1.0, 80 * MS), EPSILON);
+    }
+
+    @Test
+    void whenSentTwiceInACycleThenFirstAccelerationKept() {
+        var acceleration = new SetPointAcceleration();
+        acceleration.update(1.0, 0);
+
+        assertEquals(5, acceleration.update(1.1, 20 * MS), EPSILON);
+        assertEquals(5, acceleration.update(1.2, 20 * MS + 100_000), EPSILON);
+        // From the set point of the first call.
+        assertEquals(5, acceleration.update(1.2, 40 * MS), EPSILON);
+    }
+
+    @Test
+    void whenPausedOrResetThenNoAcceleration() {
+        var acceleration = new SetPointAcceleration();
+        acceleration.update(1.0, 0);
+
+        assertEquals(0, acceleration.update(2.0, 500 * MS), EPSILON);
+        assertEquals(50, acceleration.update(3.0, 520 * MS), EPSILON);
+
+        acceleration.reset();
+        assertEquals(0, acceleration.update(1.0, 540 * MS), EPSILON);
+    }
+
+    @Test
+    void whenSetPointChangesSignThenNoAcceleration() {
+        var acceleration = new SetPointAcceleration();
+        acceleration.update(2.0, 0);
+
+        // The steer optimization inverted the drive.
+        assertEquals(0, acceleration.update(-2.0, 20 * MS), EPSILON);
+        assertEquals(-5, acceleration.update(-2.1, 40 * MS), EPSILON);
+        // Stopping is not a sign change.
+        assertEquals(105, acceleration.update(0, 60 * MS), EPSILON);
+    }
+}
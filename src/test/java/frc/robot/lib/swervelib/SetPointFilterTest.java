@@ -0,0 +1,49 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SetPointFilterTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    void whenSameSetPointThenSuppressedUntilKeepAlive() {
+        var filter = new SetPointFilterConfiguration().createSetPointFilter();
+
+        assertTrue(filter.shouldSend(0, 0, 0));
+        assertFalse(filter.shouldSend(0, 0, 20 * MS));
+        assertFalse(filter.shouldSend(0, 0, 80 * MS));
+        assertTrue(filter.shouldSend(0, 0, 100 * MS));
+        assertFalse(filter.shouldSend(0, 0, 120 * MS));
+
+        assertEquals(2, filter.getPassedCallCount());
+        assertEquals(3, filter.getSkippedCallCount());
+    }
+
+    @Test
+    void whenChangedBeyondToleranceOrModeThenSent() {
+        var filter = new SetPointFilterConfiguration().withTolerance(0.01).createSetPointFilter();
+
+        assertTrue(filter.shouldSend(0, 1.0, 0));
+        assertFalse(filter.shouldSend(0, 1.005, 20 * MS));
+        // Compared to the last sent set point, so small steps can't add up unnoticed.
+        assertTrue(filter.shouldSend(0, 1.015, 40 * MS));
+        assertTrue(filter.shouldSend(1, 1.015, 60 * MS));
+        assertTrue(filter.shouldSend(1, Double.NaN, 80 * MS));
+
+        filter.reset();
+        assertTrue(filter.shouldSend(1, Double.NaN, 80 * MS));
+    }
+
+    @Test
+    void whenDisabledThenAlwaysSent() {
+        var filter = SetPointFilterConfiguration.disabled().createSetPointFilter();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(filter.shouldSend(0, 0, i * 20 * MS));
+        }
+        assertEquals(0, filter.getSkippedCallCount());
+        assertThrows(IllegalArgumentException.class, () -> new SetPointFilterConfiguration(-1, 0.1));
+    }
+}
@@ -0,0 +1,204 @@
+package frc.robot.lib.swervelib;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.util.WPIUtilJNI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the bytes allocated by a control loop cycle. The swervelib side allocates nothing, but the Rotation2d of
+ * each module angle that changed: WPILib's pose estimator takes them immutable, and keeps them in its history.
+ * The estimator allocates internally too: periodic() is measured against the same estimator calls made alone.
+ */
+public class SwerveDriveAllocationTest {
+    private static final int WARMUP_CYCLES = 20_000;
+    private static final int MEASURED_CYCLES = 1_000;
+    private static final int MODULE_COUNT = SwerveDriveFixture.FOUR_MODULES.length;
+    private static final int COMMAND_COUNT = 64;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private SwerveDrive swerveDrive;
+    private final Rotation2d restAngle = Rotation2d.fromDegrees(30);
+    private final SwerveModuleState[] states = new SwerveModuleState[] {
+        new SwerveModuleState(1.0, Rotation2d.fromDegrees(10)),
+        new SwerveModuleState(1.0, Rotation2d.fromDegrees(100)),
+        new SwerveModuleState(1.0, Rotation2d.fromDegrees(190)),
+        new SwerveModuleState(1.0, Rotation2d.fromDegrees(-80))
+    };
+
+    @BeforeEach
+    void setUp() {
+        swerveDrive = fixture.withGyroAngle(() -> restAngle).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        WPIUtilJNI.disableMockTime();
+        fixture.close();
+    }
+
+    /** Full speed in a direction turning by a few degrees on each command, while rotating. */
+    private static ChassisSpeeds[] turningCommands() {
+        var result = new ChassisSpeeds[COMMAND_COUNT];
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            var direction = i * 2 * Math.PI / COMMAND_COUNT;
+            result[i] = new ChassisSpeeds(2 * Math.cos(direction), 2 * Math.sin(direction), 1.0);
+        }
+        return result;
+    }
+
+    /** The size of a Rotation2d kept past the cycle, as the pose estimator does. */
+    private static long rotationBytesPerCycle() {
+        var rotations = new Rotation2d[COMMAND_COUNT];
+        var cycle = new int[1];
+        return allocatedBytesPerCycle(() -> {
+            var i = cycle[0]++;
+            rotations[i % COMMAND_COUNT] = new Rotation2d(i * 0.001);
+        });
+    }
+
+    @Test
+    void whenPeriodicWithTurningModulesThenOnlyTheirRotationsAllocated() {
+        // The steer motors move on each periodic(), and the commands change on each cycle.
+        var swerveDrive = fixture.withLaggingSteer().build();
+        var commands = turningCommands();
+        var cycle = new int[1];
+        var nowMicros = new long[1];
+        WPIUtilJNI.enableMockTime();
+        var periodicBytes = allocatedBytesPerCycle(() -> {
+            nowMicros[0] += 20_000;
+            WPIUtilJNI.setMockTime(nowMicros[0]);
+            swerveDrive.periodic();
+            swerveDrive.setClosedLoopSpeed(commands[cycle[0]++ % COMMAND_COUNT]);
+        });
+        var previousAngleRadians = swerveDrive.getSteerAngle(0).radians();
+        swerveDrive.periodic();
+        assertNotEquals(previousAngleRadians, swerveDrive.getSteerAngle(0).radians());
+
+        // The same estimator calls, on module positions allocated beforehand.
+        var positions = new SwerveModulePosition[COMMAND_COUNT][MODULE_COUNT];
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            for (int j = 0; j < MODULE_COUNT; j++) {
+                positions[i][j] = new SwerveModulePosition(0.01 * i, Rotation2d.fromDegrees(5 * i + j));
+            }
+        }
+        var estimator = new SwerveDrivePoseEstimator(new SwerveDriveKinematics(SwerveDriveFixture.FOUR_MODULES), restAngle, positions[0], new Pose2d());
+        var estimatorCycle = new int[1];
+        var estimatorBytes = allocatedBytesPerCycle(() -> {
+            var i = estimatorCycle[0]++;
+            estimator.updateWithTime(i * 0.02, restAngle, positions[i % COMMAND_COUNT]);
+            estimator.getEstimatedPosition();
+        });
+
+        var rotationBytes = rotationBytesPerCycle();
+
+        assertTrue(
+            periodicBytes - estimatorBytes <= MODULE_COUNT * rotationBytes,
+            String.format("periodic(): %d bytes, estimator: %d bytes, Rotation2d: %d bytes", periodicBytes, estimatorBytes, rotationBytes)
+        );
+    }
+
+    @Test
+    void whenReadingTelemetryThenMeasuredRotationsShared() {
+        // Immediate steer: the references are the angles measured after them.
+        var commands = turningCommands();
+        var cycle = new int[1];
+        var telemetryBytes = allocatedBytesPerCycle(() -> {
+            swerveDrive.setClosedLoopSpeed(commands[cycle[0]++ % COMMAND_COUNT]);
+            swerveDrive.captureSnapshot();
+            swerveDrive.refreshModulePositions();
+            swerveDrive.getModuleStates();
+            swerveDrive.getReferenceModuleStates();
+            swerveDrive.getChassisSpeed();
+        });
+
+        var rotationBytes = rotationBytesPerCycle();
+        // Only the rotations of the module positions.
+        assertTrue(telemetryBytes <= MODULE_COUNT * rotationBytes, telemetryBytes + " bytes");
+        assertSame(swerveDrive.getChassisSpeed(), swerveDrive.getChassisSpeed());
+    }
+
+    @Test
+    void whenRefreshingUnchangedModulePositionsThenNothingIsAllocated() {
+        assertEquals(0, allocatedBytesPerCycle(() -> swerveDrive.refreshModulePositions()));
+    }
+
+    @Test
+    void whenCapturingSnapshotThenNothingIsAllocated() {
+        assertEquals(0, allocatedBytesPerCycle(() -> swerveDrive.captureSnapshot()));
+    }
+
+    @Test
+    void whenSettingModuleStatesThenNothingIsAllocated() {
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            swerveDrive.setClosedLoopModuleStates(states);
+            swerveDrive.refreshModulePositions();
+        }));
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            swerveDrive.steerAllWheelsAtRestTo(restAngle);
+            swerveDrive.refreshModulePositions();
+        }));
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            swerveDrive.stop();
+            swerveDrive.refreshModulePositions();
+        }));
+    }
+
+    @Test
+    void whenSettingChassisSpeedsThenNothingIsAllocated() {
+        var chassisSpeeds = new ChassisSpeeds(1.0, 0.5, 1.0);
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            swerveDrive.setClosedLoopSpeed(chassisSpeeds);
+            swerveDrive.captureSnapshot();
+        }));
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            swerveDrive.setOpenLoopSpeed(chassisSpeeds);
+            swerveDrive.captureSnapshot();
+        }));
+    }
+
+    @Test
+    void whenGeneratingSetPointsThenNothingIsAllocated() {
+        var generator = new SwerveSetPointGeneratorConfiguration(10, 2 * Math.PI).createSetPointGenerator(
+            new SwerveKinematics(SwerveDriveFixture.FOUR_MODULES),
+            SwerveDriveFixture.MAX_SPEED_MS
+        );
+        var speedsMS = new double[4];
+        var anglesRadians = new double[4];
+        var cycle = new int[1];
+        assertEquals(0, allocatedBytesPerCycle(() -> {
+            // Alternating directions, so both limits are hit.
+            var direction = (cycle[0]++ / 50) % 2 == 0 ? 1 : -1;
+            generator.generate(direction * 2.0, 1.0, direction * 1.0, speedsMS, anglesRadians);
+        }));
+    }
+
+    private static long allocatedBytesPerCycle(Runnable cycle) {
+        for (int i = 0; i < WARMUP_CYCLES; i++) {
+            cycle.run();
+        }
+
+        long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CYCLES; i++) {
+            cycle.run();
+        }
+        long allocatedAfter = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+
+        return (allocatedAfter - allocatedBefore) / MEASURED_CYCLES;
+    }
+}
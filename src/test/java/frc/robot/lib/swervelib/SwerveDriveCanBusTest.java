@@ -0,0 +1,76 @@
+package frc.robot.lib.swervelib;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static frc.robot.lib.swervelib.SwerveDriveFixture.module;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDriveCanBusTest {
+    // By CAN id: the modules are created in parallel.
+    private final Map<Integer, String> driveBuses = new ConcurrentHashMap<>();
+    private final Map<Integer, String> steerBuses = new ConcurrentHashMap<>();
+    private final Map<Integer, String> encoderBuses = new ConcurrentHashMap<>();
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void whenModulesOnNamedBusesThenDevicesCreatedOnThem() {
+        fixture
+            .withModules(
+                module(1).withCanBus("canivore"),
+                module(2).withCanBus("canivore"),
+                module(3),
+                module(4).withCanBus("other")
+            )
+            .withDriveControllers(new DriveConfiguration() {
+                @Override
+                public DriveController createDriveController(int motorCanId, GearRatio gearRatio, double maxSpeedMS) {
+                    throw new IllegalStateException("The bus name should be given");
+                }
+
+                @Override
+                public DriveController createDriveController(int motorCanId, String canBusName, GearRatio gearRatio, double maxSpeedMS) {
+                    driveBuses.put(motorCanId, canBusName);
+                    return new FakeDriveController(maxSpeedMS);
+                }
+            })
+            .withSteerControllers(new SteerConfiguration() {
+                @Override
+                public SteerController createSteerController(int motorCanId, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
+                    throw new IllegalStateException("The bus name should be given");
+                }
+
+                @Override
+                public SteerController createSteerController(int motorCanId, String canBusName, GearRatio gearRatio, AbsoluteEncoder absoluteEncoder) {
+                    steerBuses.put(motorCanId, canBusName);
+                    return new FakeSteerController(absoluteEncoder);
+                }
+            })
+            .withAbsoluteEncoders(new AbsoluteEncoderConfiguration() {
+                @Override
+                public AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, DiscreetAngle alignAngle) {
+                    throw new IllegalStateException("The bus name should be given");
+                }
+
+                @Override
+                public AbsoluteEncoder createAbsoluteEncoder(int encoderCanId, String canBusName, DiscreetAngle alignAngle) {
+                    encoderBuses.put(encoderCanId, canBusName);
+                    return () -> alignAngle;
+                }
+            })
+            .build();
+
+        var expected = Map.of(1, "canivore", 2, "canivore", 3, SwerveModuleConfiguration.DEFAULT_CAN_BUS, 4, "other");
+        assertEquals(expected, driveBuses);
+        assertEquals(expected, steerBuses);
+        assertEquals(expected, encoderBuses);
+    }
+}
@@ -0,0 +1,180 @@
+package frc.robot.lib.swervelib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+
+/**
+ * Builds SwerveDrives on {@link FakeDriveController} and {@link FakeSteerController}, for the tests and the benchmarks.
+ * By default, 4 modules at the corners of a 60 cm square, each with its own CAN ids, and a gyro at 0.
+ * <p>
+ * Closes the drives it built when closed.
+ */
+public class SwerveDriveFixture implements AutoCloseable {
+    public static final double PERIOD_S = 0.02;
+    public static final double MAX_SPEED_MS = 4.0;
+
+    public static final Translation2d[] FOUR_MODULES = {
+        new Translation2d(0.3, 0.3),
+        new Translation2d(0.3, -0.3),
+        new Translation2d(-0.3, 0.3),
+        new Translation2d(-0.3, -0.3)
+    };
+
+    public static final Translation2d[] THREE_MODULES = {
+        new Translation2d(0.3, 0),
+        new Translation2d(-0.15, 0.26),
+        new Translation2d(-0.15, -0.26)
+    };
+
+    public static final Translation2d[] SIX_MODULES = {
+        new Translation2d(0.3, 0.25),
+        new Translation2d(0.3, -0.25),
+        new Translation2d(0, 0.25),
+        new Translation2d(0, -0.25),
+        new Translation2d(-0.3, 0.25),
+        new Translation2d(-0.3, -0.25)
+    };
+
+    private static final Rotation2d ZERO = Rotation2d.fromDegrees(0);
+
+    private Translation2d[] moduleLocationsM = FOUR_MODULES;
+    // null: one module per location, the CAN ids of module i being 3i + 1 to 3i + 3.
+    private SwerveModuleConfiguration[] moduleConfigurations;
+    private Supplier<Rotation2d> gyroAngleSupplier = () -> ZERO;
+    private UnaryOperator<SwerveDriveConfiguration> configurator = UnaryOperator.identity();
+    // null: the fakes.
+    private DriveConfiguration driveConfiguration;
+    private SteerConfiguration steerConfiguration;
+    private AbsoluteEncoderConfiguration absoluteEncoderConfiguration = (encoderCanId, alignAngle) -> () -> alignAngle;
+    private boolean laggingSteer = false;
+
+    private FakeDriveController[] driveControllers;
+    private FakeSteerController[] steerControllers;
+    private final List<SwerveDrive> swerveDrives = new ArrayList<>();
+
+    public static SwerveModuleConfiguration module(int canId) {
+        return new SwerveModuleConfiguration(canId, canId, canId, DiscreetAngle.fromDegrees(0));
+    }
+
+    public SwerveDriveFixture withModuleLocations(Translation2d... moduleLocationsM) {
+        this.moduleLocationsM = moduleLocationsM;
+        return this;
+    }
+
+    /**
+     * The fakes are told apart by their CAN ids: each module needs its own.
+     */
+    public SwerveDriveFixture withModules(SwerveModuleConfiguration... moduleConfigurations) {
+        this.moduleConfigurations = moduleConfigurations;
+        return this;
+    }
+
+    public SwerveDriveFixture withGyroAngle(Supplier<Rotation2d> gyroAngleSupplier) {
+        this.gyroAngleSupplier = gyroAngleSupplier;
+        return this;
+    }
+
+    /**
+     * @param configurator applied to the default configuration, e.g. to add an odometry thread.
+     */
+    public SwerveDriveFixture withConfiguration(UnaryOperator<SwerveDriveConfiguration> configurator) {
+        this.configurator = configurator;
+        return this;
+    }
+
+    public SwerveDriveFixture withDriveControllers(DriveConfiguration driveConfiguration) {
+        this.driveConfiguration = driveConfiguration;
+        return this;
+    }
+
+    public SwerveDriveFixture withSteerControllers(SteerConfiguration steerConfiguration) {
+        this.steerConfiguration = steerConfiguration;
+        return this;
+    }
+
+    public SwerveDriveFixture withAbsoluteEncoders(AbsoluteEncoderConfiguration absoluteEncoderConfiguration) {
+        this.absoluteEncoderConfiguration = absoluteEncoderConfiguration;
+        return this;
+    }
+
+    /**
+     * The fake steer motors only cover half of the remaining distance to their reference on each cycle.
+     */
+    public SwerveDriveFixture withLaggingSteer() {
+        laggingSteer = true;
+        return this;
+    }
+
+    public SwerveDrive build() {
+        var modules = moduleConfigurations != null ? moduleConfigurations : defaultModules(moduleLocationsM.length);
+        driveControllers = new FakeDriveController[modules.length];
+        steerControllers = new FakeSteerController[modules.length];
+        var swerveDrive = new SwerveDrive(
+            modules,
+            SdsGearRatios.MK4_L1,
+            driveConfiguration != null ? driveConfiguration : (motorCanId, gearRatio, maxSpeedMS) -> {
+                var controller = new FakeDriveController(maxSpeedMS);
+                driveControllers[moduleIndex(modules, motorCanId, true)] = controller;
+                return controller;
+            },
+            steerConfiguration != null ? steerConfiguration : (motorCanId, gearRatio, absoluteEncoder) -> {
+                var controller = new FakeSteerController(absoluteEncoder, laggingSteer);
+                steerControllers[moduleIndex(modules, motorCanId, false)] = controller;
+                return controller;
+            },
+            absoluteEncoderConfiguration,
+            createConfiguration()
+        );
+        swerveDrives.add(swerveDrive);
+        return swerveDrive;
+    }
+
+    /**
+     * @return the configuration build() uses.
+     */
+    public SwerveDriveConfiguration createConfiguration() {
+        return configurator.apply(new SwerveDriveConfiguration(MAX_SPEED_MS, new SwerveDriveKinematics(moduleLocationsM), gyroAngleSupplier));
+    }
+
+    /**
+     * @return the fake of the module in the last built drive. null when created by withDriveControllers().
+     */
+    public FakeDriveController getDriveController(int moduleIndex) {
+        return driveControllers[moduleIndex];
+    }
+
+    public FakeSteerController getSteerController(int moduleIndex) {
+        return steerControllers[moduleIndex];
+    }
+
+    @Override
+    public void close() {
+        for (var swerveDrive: swerveDrives) {
+            swerveDrive.close();
+        }
+        swerveDrives.clear();
+    }
+
+    private static SwerveModuleConfiguration[] defaultModules(int moduleCount) {
+        var result = new SwerveModuleConfiguration[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            result[i] = new SwerveModuleConfiguration(3 * i + 1, 3 * i + 2, 3 * i + 3, DiscreetAngle.fromDegrees(0));
+        }
+        return result;
+    }
+
+    private static int moduleIndex(SwerveModuleConfiguration[] modules, int motorCanId, boolean drive) {
+        for (int i = 0; i < modules.length; i++) {
+            if ((drive ? modules[i].driveMotorCanId : modules[i].steerMotorCanId) == motorCanId) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No module with motor " + motorCanId);
+    }
+}
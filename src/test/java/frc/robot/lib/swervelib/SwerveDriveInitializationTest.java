@@ -0,0 +1,81 @@
+package frc.robot.lib.swervelib;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import static frc.robot.lib.swervelib.SwerveDriveFixture.module;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDriveInitializationTest {
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture()
+        .withModules(module(1), module(2), module(3), module(4));
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void whenCreatingModulesThenConfiguredConcurrently() {
+        // Each module only completes once all of them started: fails unless they are configured in parallel.
+        var allStarted = new CountDownLatch(4);
+        fixture.withDriveControllers((motorCanId, gearRatio, maxSpeedMS) -> {
+            allStarted.countDown();
+            try {
+                if (!allStarted.await(2, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Modules configured one after the other");
+                }
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return new FakeDriveController(maxSpeedMS);
+        }).build();
+    }
+
+    @Test
+    void whenSeveralModulesFailThenAllReportedTogether() {
+        fixture.withDriveControllers((motorCanId, gearRatio, maxSpeedMS) -> {
+            if (motorCanId == 2 || motorCanId == 4) {
+                throw new IllegalStateException("Drive motor " + motorCanId + " not responding");
+            }
+            return new FakeDriveController(maxSpeedMS);
+        });
+        var error = assertThrows(RuntimeException.class, fixture::build);
+
+        assertTrue(error.getMessage().contains("module 1 (drive 2"));
+        assertTrue(error.getMessage().contains("Drive motor 2 not responding"));
+        assertTrue(error.getMessage().contains("module 3 (drive 4"));
+        assertTrue(error.getMessage().contains("Drive motor 4 not responding"));
+        assertFalse(error.getMessage().contains("module 0"));
+        assertEquals(2, error.getSuppressed().length);
+    }
+
+    @Test
+    void whenGyroBecomesReadyThenPoseKeptAndHeadingFollowsGyro() {
+        var gyroReady = new AtomicBoolean(false);
+        var gyroDegrees = new AtomicReference<Double>(0.0);
+        var swerveDrive = fixture
+            .withGyroAngle(() -> Rotation2d.fromDegrees(gyroDegrees.get()))
+            .withConfiguration(configuration -> configuration.withGyroReadiness(gyroReady::get))
+            .build();
+        swerveDrive.periodic();
+        assertFalse(swerveDrive.isGyroSeeded());
+
+        // The calibrated heading shows up: the robot did not turn.
+        gyroDegrees.set(90.0);
+        gyroReady.set(true);
+        swerveDrive.periodic();
+        assertTrue(swerveDrive.isGyroSeeded());
+
+        gyroDegrees.set(100.0);
+        swerveDrive.periodic();
+        assertEquals(10, swerveDrive.getEstimatedPositionM().getRotation().getDegrees(), 1e-6);
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives simulated three and six module drivetrains: modules reaching their set points immediately.
+ */
+public class SwerveDriveModuleCountTest {
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    private static void drive(SwerveDrive swerveDrive, ChassisSpeeds chassisSpeeds, int cycleCount) {
+        for (int i = 0; i < cycleCount; i++) {
+            swerveDrive.periodic();
+            swerveDrive.setClosedLoopSpeed(chassisSpeeds);
+        }
+        swerveDrive.periodic();
+    }
+
+    @Test
+    void whenThreeModulesDrivingThenOdometryFollows() {
+        var swerveDrive = fixture.withModuleLocations(SwerveDriveFixture.THREE_MODULES).build();
+        assertEquals(3, swerveDrive.getModuleCount());
+
+        drive(swerveDrive, new ChassisSpeeds(0, 1, 0), 50);
+
+        assertEquals(0, swerveDrive.getEstimatedPositionM().getX(), 1e-6);
+        assertEquals(1, swerveDrive.getEstimatedPositionM().getY(), 1e-6);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, swerveDrive.getDriveSpeedMS(i), 1e-9);
+        }
+    }
+
+    @Test
+    void whenSixModulesDrivingThenOdometryFollows() {
+        var swerveDrive = fixture.withModuleLocations(SwerveDriveFixture.SIX_MODULES).build();
+        assertEquals(6, swerveDrive.getModuleCount());
+
+        drive(swerveDrive, new ChassisSpeeds(1.5, 0, 0), 50);
+
+        assertEquals(1.5, swerveDrive.getEstimatedPositionM().getX(), 1e-6);
+        assertEquals(0, swerveDrive.getEstimatedPositionM().getY(), 1e-6);
+    }
+
+    @Test
+    void whenSixModulesRotatingThenChassisSpeedsMeasured() {
+        var swerveDrive = fixture.withModuleLocations(SwerveDriveFixture.SIX_MODULES).build();
+
+        drive(swerveDrive, new ChassisSpeeds(0.5, 0, 1), 1);
+
+        var chassisSpeeds = swerveDrive.getChassisSpeed();
+        assertEquals(0.5, chassisSpeeds.vxMetersPerSecond, 1e-9);
+        assertEquals(0, chassisSpeeds.vyMetersPerSecond, 1e-9);
+        assertEquals(1, chassisSpeeds.omegaRadiansPerSecond, 1e-9);
+        // The middle modules only see the rotation around the center.
+        assertEquals(0.25, swerveDrive.getDriveSpeedMS(2), 1e-9);
+    }
+
+    @Test
+    void whenModuleCountDiffersFromKinematicsThenRejected() {
+        fixture
+            .withModuleLocations(SwerveDriveFixture.THREE_MODULES)
+            .withModules(
+                new SwerveModuleConfiguration(1, 2, 3, DiscreetAngle.fromDegrees(0)),
+                new SwerveModuleConfiguration(4, 5, 6, DiscreetAngle.fromDegrees(0))
+            );
+        var error = assertThrows(IllegalArgumentException.class, fixture::build);
+        assertTrue(error.getMessage().contains("2 module configurations for 3 module locations"));
+    }
+}
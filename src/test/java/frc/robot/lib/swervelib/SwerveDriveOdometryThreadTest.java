@@ -0,0 +1,124 @@
+package frc.robot.lib.swervelib;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DataLogWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDriveOdometryThreadTest {
+    private static final int MODULE_COUNT = 4;
+    static final double EPSILON = 0.0000001;
+
+    private final double[] drivePositionsM = new double[MODULE_COUNT];
+    private final double[] steerAnglesRadians = new double[MODULE_COUNT];
+    private OdometrySampleRing samples;
+    private boolean samplerStarted = false;
+    private boolean samplerStopped = false;
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private SwerveDrive swerveDrive;
+
+    @BeforeEach
+    void setUp() {
+        swerveDrive = fixture
+            .withConfiguration(configuration -> configuration.withOdometryThread((driveControllers, steerControllers, samples) -> {
+                assertEquals(MODULE_COUNT, driveControllers.length);
+                assertEquals(MODULE_COUNT, steerControllers.length);
+                this.samples = samples;
+                return new OdometrySampler() {
+                    @Override
+                    public void start() {
+                        samplerStarted = true;
+                    }
+
+                    @Override
+                    public void stop() {
+                        samplerStopped = true;
+                    }
+                };
+            }))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    private void offerStraightSample(double timestampSeconds, double positionM) {
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            drivePositionsM[i] = positionM;
+            steerAnglesRadians[i] = 0;
+        }
+        samples.offer(timestampSeconds, Double.NaN, drivePositionsM, steerAnglesRadians);
+    }
+
+    @Test
+    void whenCreatedThenSamplerStarted() {
+        assertTrue(samplerStarted);
+        assertEquals(MODULE_COUNT, samples.getModuleCount());
+    }
+
+    @Test
+    void whenClosedThenSamplerStopped() {
+        assertFalse(samplerStopped);
+
+        swerveDrive.close();
+
+        assertTrue(samplerStopped);
+    }
+
+    @Test
+    void whenPeriodicThenAllSamplesReplayed() {
+        for (int i = 1; i <= 5; i++) {
+            offerStraightSample(1 + i * 0.004, i * 0.01);
+        }
+        swerveDrive.periodic();
+
+        assertEquals(0, samples.size());
+        assertEquals(0.05, swerveDrive.getEstimatedPositionM().getX(), EPSILON);
+        assertEquals(0, swerveDrive.getEstimatedPositionM().getY(), EPSILON);
+    }
+
+    @Test
+    void whenNoSampleThenMainLoopReadingUsed() {
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            fixture.getDriveController(i).positionM = 0.2;
+        }
+        swerveDrive.periodic();
+
+        assertEquals(0.2, swerveDrive.getEstimatedPositionM().getX(), EPSILON);
+    }
+
+    @Test
+    void whenResetThenEarlierSamplesDiscarded() {
+        offerStraightSample(1.004, 0.5);
+        swerveDrive.resetEstimatedPosition(new Pose2d(2, 3, Rotation2d.fromDegrees(0)));
+        swerveDrive.periodic();
+
+        assertEquals(2, swerveDrive.getEstimatedPositionM().getX(), EPSILON);
+        assertEquals(3, swerveDrive.getEstimatedPositionM().getY(), EPSILON);
+    }
+
+    @Test
+    void whenRecordingThenOneRecordPerReplayedSample() {
+        var recorder = new DrivetrainRecorder(MODULE_COUNT, new DataLogWriter(new ByteArrayOutputStream()));
+        swerveDrive.setRecorder(recorder);
+        for (int i = 1; i <= 5; i++) {
+            offerStraightSample(1 + i * 0.004, i * 0.01);
+        }
+        swerveDrive.periodic();
+        assertEquals(5, recorder.writePending());
+
+        // Without samples, the cycle snapshot is recorded instead.
+        swerveDrive.periodic();
+        assertEquals(1, recorder.writePending());
+        assertThrows(IllegalArgumentException.class, () -> swerveDrive.setRecorder(new DrivetrainRecorder(3, new DataLogWriter(new ByteArrayOutputStream()))));
+    }
+}
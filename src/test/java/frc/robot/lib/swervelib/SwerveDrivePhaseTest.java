@@ -0,0 +1,144 @@
+package frc.robot.lib.swervelib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+import static frc.robot.lib.swervelib.SwerveDriveFixture.module;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDrivePhaseTest {
+    private final List<String> busEvents = new ArrayList<>();
+    private final List<RecordingSteerController> steerControllers = new ArrayList<>();
+    private final List<RecordingDriveController> driveControllers = new ArrayList<>();
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private SwerveDrive swerveDrive;
+
+    @BeforeEach
+    void setUp() {
+        swerveDrive = fixture
+            .withModules(module(1), module(2), module(3), module(4))
+            .withDriveControllers((motorCanId, gearRatio, maxSpeedMS) -> {
+                var controller = new RecordingDriveController(motorCanId, maxSpeedMS);
+                synchronized (driveControllers) {
+                    driveControllers.add(controller);
+                }
+                return controller;
+            })
+            .withSteerControllers((motorCanId, gearRatio, absoluteEncoder) -> {
+                var controller = new RecordingSteerController(motorCanId, absoluteEncoder);
+                synchronized (steerControllers) {
+                    steerControllers.add(controller);
+                }
+                return controller;
+            })
+            .build();
+        swerveDrive.periodic();
+        busEvents.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.close();
+    }
+
+    @Test
+    void whenCommandingThenNoReadAndFramesSentBackToBack() {
+        swerveDrive.setClosedLoopSpeed(new ChassisSpeeds(1, 0, 0));
+
+        assertEquals(List.of(
+            "steer 1", "drive 1",
+            "steer 2", "drive 2",
+            "steer 3", "drive 3",
+            "steer 4", "drive 4"
+        ), busEvents);
+    }
+
+    @Test
+    void whenCommandingThenOptimizedFromSnapshotAngles() {
+        // Turned since the snapshot: the command must still be computed from the readings of the cycle.
+        for (var controller: steerControllers) {
+            controller.angleRadians = Math.PI;
+        }
+
+        swerveDrive.setClosedLoopSpeed(new ChassisSpeeds(1, 0, 0));
+
+        for (var controller: driveControllers) {
+            assertEquals(1, controller.speedMS, 1e-9);
+        }
+    }
+
+    @Test
+    void whenCommandingThenPhasesTimestampedInOrder() {
+        var timestamps = swerveDrive.getPhaseTimestamps();
+        assertTrue(Double.isFinite(timestamps.getSenseSeconds()));
+        assertTrue(Double.isNaN(timestamps.getActuateSeconds()));
+
+        swerveDrive.setOpenLoopSpeed(new ChassisSpeeds(1, 0, 0));
+
+        assertTrue(timestamps.getSenseSeconds() <= timestamps.getComputeSeconds());
+        assertTrue(timestamps.getComputeSeconds() <= timestamps.getActuateSeconds());
+        assertTrue(timestamps.getActuateSeconds() <= timestamps.getActuateEndSeconds());
+        assertTrue(timestamps.getSenseToActuateSeconds() >= 0);
+        assertTrue(timestamps.getActuateSpreadSeconds() >= 0);
+    }
+
+    private class RecordingDriveController extends FakeDriveController {
+        private final int canId;
+
+        RecordingDriveController(int canId, double maxSpeedMS) {
+            super(maxSpeedMS);
+            this.canId = canId;
+        }
+
+        @Override
+        public void setOpenLoopSpeed(double pct) {
+            busEvents.add("drive " + canId);
+            super.setOpenLoopSpeed(pct);
+        }
+
+        @Override
+        public void setClosedLoopSpeed(double speedMS) {
+            busEvents.add("drive " + canId);
+            super.setClosedLoopSpeed(speedMS);
+        }
+
+        @Override
+        public double getSpeedMS() {
+            busEvents.add("read drive " + canId);
+            return super.getSpeedMS();
+        }
+
+        @Override
+        public double getPositionM() {
+            busEvents.add("read drive " + canId);
+            return super.getPositionM();
+        }
+    }
+
+    private class RecordingSteerController extends FakeSteerController {
+        private final int canId;
+
+        RecordingSteerController(int canId, AbsoluteEncoder absoluteEncoder) {
+            super(absoluteEncoder);
+            this.canId = canId;
+        }
+
+        @Override
+        public void setReferenceAngleRadians(double referenceAngleRadians, double velocityRadiansPerSecond) {
+            busEvents.add("steer " + canId);
+            super.setReferenceAngleRadians(referenceAngleRadians, velocityRadiansPerSecond);
+        }
+
+        @Override
+        public double getAngleRadians() {
+            busEvents.add("read steer " + canId);
+            return super.getAngleRadians();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.util.WPIUtilJNI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDriveSecondOrderKinematicsTest {
+    private static final double PERIOD_S = SwerveDriveFixture.PERIOD_S;
+    private static final Translation2d[] MODULE_LOCATIONS = SwerveDriveFixture.FOUR_MODULES;
+
+    private final FakeSteerController[] steerControllers = new FakeSteerController[MODULE_LOCATIONS.length];
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private long nowMicros = 0;
+
+    @BeforeEach
+    void setUp() {
+        WPIUtilJNI.enableMockTime();
+        WPIUtilJNI.setMockTime(nowMicros);
+    }
+
+    @AfterEach
+    void tearDown() {
+        WPIUtilJNI.disableMockTime();
+        fixture.close();
+    }
+
+    /** One robot loop: the clock moves forward by the period, then the drivetrain is commanded. */
+    private void drive(SwerveDrive swerveDrive, ChassisSpeeds chassisSpeeds, double periodSeconds) {
+        nowMicros += (long) (periodSeconds * 1e6);
+        WPIUtilJNI.setMockTime(nowMicros);
+        swerveDrive.periodic();
+        swerveDrive.setClosedLoopSpeed(chassisSpeeds);
+    }
+
+    private SwerveDrive createSwerveDrive(boolean secondOrder) {
+        var swerveDrive = fixture
+            .withConfiguration(configuration -> secondOrder ? configuration.withSecondOrderKinematics(PERIOD_S) : configuration)
+            .build();
+        for (int i = 0; i < steerControllers.length; i++) {
+            steerControllers[i] = fixture.getSteerController(i);
+        }
+        return swerveDrive;
+    }
+
+    @Test
+    void whenTranslatingWhileRotatingThenSteerFeedforwardFollowsModuleAngles() {
+        var swerveDrive = createSwerveDrive(true);
+        var omegaRadiansPerSecond = 2.0;
+        var previousAnglesRadians = new double[MODULE_LOCATIONS.length];
+        var previousVelocitiesRadiansPerSecond = new double[MODULE_LOCATIONS.length];
+
+        for (int cycle = 0; cycle < 25; cycle++) {
+            // Constant field relative velocity: the robot relative one turns the other way.
+            var heading = new Rotation2d(omegaRadiansPerSecond * cycle * PERIOD_S);
+            drive(swerveDrive, ChassisSpeeds.fromFieldRelativeSpeeds(1.5, 0, omegaRadiansPerSecond, heading), PERIOD_S);
+
+            for (int i = 0; i < MODULE_LOCATIONS.length; i++) {
+                var angleRadians = steerControllers[i].referenceAngleRadians;
+                var velocityRadiansPerSecond = steerControllers[i].referenceVelocityRadiansPerSecond;
+                if (cycle > 1) {
+                    // The feedforward sent with a set point is how fast the module turns toward the next one.
+                    var angleVelocityRadiansPerSecond = (angleRadians - previousAnglesRadians[i]) / PERIOD_S;
+                    assertEquals(angleVelocityRadiansPerSecond, previousVelocitiesRadiansPerSecond[i], 0.02 * Math.abs(angleVelocityRadiansPerSecond));
+                }
+                previousAnglesRadians[i] = angleRadians;
+                previousVelocitiesRadiansPerSecond[i] = velocityRadiansPerSecond;
+            }
+        }
+        // The modules do turn: the feedforward is not trivially 0.
+        assertTrue(Math.abs(steerControllers[0].referenceVelocityRadiansPerSecond) > 0.5);
+    }
+
+    @Test
+    void whenCommandsPausedThenNoSteerFeedforwardSpike() {
+        var swerveDrive = createSwerveDrive(true);
+        drive(swerveDrive, new ChassisSpeeds(0, 1, 0), PERIOD_S);
+        drive(swerveDrive, new ChassisSpeeds(0, 1, 0), PERIOD_S);
+
+        // E.g. disabled, then enabled again with another command.
+        drive(swerveDrive, new ChassisSpeeds(1, 0, 0.5), 2.0);
+
+        for (var steerController: steerControllers) {
+            assertEquals(0, steerController.referenceVelocityRadiansPerSecond);
+        }
+    }
+
+    @Test
+    void whenCommandsLateThenAccelerationFromMeasuredPeriod() {
+        var onTime = createSwerveDrive(true);
+        var onTimeSteerControllers = steerControllers.clone();
+        drive(onTime, new ChassisSpeeds(1, 0, 0), PERIOD_S);
+        drive(onTime, new ChassisSpeeds(1, 0, 0.5), PERIOD_S);
+
+        var late = createSwerveDrive(true);
+        drive(late, new ChassisSpeeds(1, 0, 0), PERIOD_S);
+        drive(late, new ChassisSpeeds(1, 0, 0.5), 2 * PERIOD_S);
+
+        for (int i = 0; i < MODULE_LOCATIONS.length; i++) {
+            // Same change over twice the time: half the module angular velocity.
+            assertEquals(onTimeSteerControllers[i].referenceVelocityRadiansPerSecond / 2, steerControllers[i].referenceVelocityRadiansPerSecond, 1e-9);
+            assertNotEquals(0, steerControllers[i].referenceVelocityRadiansPerSecond);
+        }
+    }
+
+    @Test
+    void whenSpinningInPlaceThenNoSteerFeedforward() {
+        var swerveDrive = createSwerveDrive(true);
+
+        for (int cycle = 0; cycle < 5; cycle++) {
+            drive(swerveDrive, new ChassisSpeeds(0, 0, 3), PERIOD_S);
+        }
+
+        for (var steerController: steerControllers) {
+            assertEquals(0, steerController.referenceVelocityRadiansPerSecond, 1e-9);
+        }
+    }
+
+    @Test
+    void whenSecondOrderThenChassisSpeedsDiscretized() {
+        var swerveDrive = createSwerveDrive(true);
+        var expected = new ChassisSpeeds();
+        SwerveKinematics.discretize(2, 0, 3, PERIOD_S, expected);
+
+        drive(swerveDrive, new ChassisSpeeds(2, 0, 3), PERIOD_S);
+
+        var states = swerveDrive.getReferenceModuleStates();
+        var result = new SwerveDriveKinematics(MODULE_LOCATIONS).toChassisSpeeds(states);
+        assertEquals(expected.vxMetersPerSecond, result.vxMetersPerSecond, 1e-9);
+        // Against the drift when translating while rotating.
+        assertEquals(expected.vyMetersPerSecond, result.vyMetersPerSecond, 1e-9);
+        assertTrue(Math.abs(result.vyMetersPerSecond) > 1e-3);
+        assertEquals(3, result.omegaRadiansPerSecond, 1e-9);
+    }
+
+    @Test
+    void whenFirstOrderThenNoSteerFeedforward() {
+        var swerveDrive = createSwerveDrive(false);
+
+        for (int cycle = 0; cycle < 5; cycle++) {
+            drive(swerveDrive, ChassisSpeeds.fromFieldRelativeSpeeds(1.5, 0, 2, new Rotation2d(2 * cycle * PERIOD_S)), PERIOD_S);
+        }
+
+        for (var steerController: steerControllers) {
+            assertEquals(0, steerController.referenceVelocityRadiansPerSecond);
+        }
+    }
+
+    @Test
+    void whenModuleStatesSetThenNoSteerFeedforward() {
+        var swerveDrive = createSwerveDrive(true);
+        drive(swerveDrive, new ChassisSpeeds(0, 1, 0), PERIOD_S);
+        drive(swerveDrive, new ChassisSpeeds(1, 0, 0), PERIOD_S);
+
+        var state = new SwerveModuleState(1, Rotation2d.fromDegrees(45));
+        swerveDrive.setClosedLoopModuleStates(new SwerveModuleState[] {state, state, state, state});
+
+        for (var steerController: steerControllers) {
+            assertEquals(0, steerController.referenceVelocityRadiansPerSecond);
+        }
+    }
+
+    @Test
+    void whenPeriodNotPositiveThenRejected() {
+        var configuration = fixture.createConfiguration();
+
+        assertThrows(IllegalArgumentException.class, () -> configuration.withSecondOrderKinematics(0));
+        assertFalse(configuration.hasSecondOrderKinematics());
+        assertTrue(configuration.withSecondOrderKinematics(PERIOD_S).hasSecondOrderKinematics());
+    }
+}
@@ -0,0 +1,122 @@
+package frc.robot.lib.swervelib;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveDriveTelemetryTest {
+    static final double EPSILON = 0.0000001;
+
+    private NetworkTableInstance networkTables;
+    private final SwerveDriveFixture fixture = new SwerveDriveFixture();
+    private SwerveDrive swerveDrive;
+
+    @BeforeEach
+    void setUp() {
+        networkTables = NetworkTableInstance.create();
+        swerveDrive = fixture.build();
+        setDriveSpeed(1.5);
+    }
+
+    private void setDriveSpeed(double speedMS) {
+        for (int i = 0; i < swerveDrive.getModuleCount(); i++) {
+            fixture.getDriveController(i).speedMS = speedMS;
+        }
+    }
+
+    private int getSensorReadCount() {
+        var result = 0;
+        for (int i = 0; i < swerveDrive.getModuleCount(); i++) {
+            result += fixture.getDriveController(i).sensorReadCount + fixture.getSteerController(i).sensorReadCount;
+        }
+        return result;
+    }
+
+    @AfterEach
+    void tearDown() {
+        networkTables.close();
+        fixture.close();
+    }
+
+    @Test
+    void whenPublishingThenSnapshotValuesPublishedWithoutReadingSensors() {
+        var telemetry = new SwerveDriveTelemetry(swerveDrive, new SwerveDriveTelemetryConfiguration(), networkTables);
+        var moduleStates = networkTables.getTable(SwerveDriveTelemetryConfiguration.DEFAULT_TABLE_NAME)
+            .getStructArrayTopic("ModuleStates", SwerveModuleState.struct)
+            .subscribe(new SwerveModuleState[0]);
+        var pose = networkTables.getTable(SwerveDriveTelemetryConfiguration.DEFAULT_TABLE_NAME)
+            .getStructTopic("Pose", Pose2d.struct)
+            .subscribe(new Pose2d(-1, -1, Rotation2d.fromDegrees(0)));
+
+        swerveDrive.periodic();
+        var readsAfterPeriodic = getSensorReadCount();
+        telemetry.publish();
+
+        assertEquals(readsAfterPeriodic, getSensorReadCount());
+        var published = moduleStates.get();
+        assertEquals(4, published.length);
+        for (var state: published) {
+            assertEquals(1.5, state.speedMetersPerSecond, EPSILON);
+            assertEquals(0, state.angle.getRadians(), EPSILON);
+        }
+        assertNotEquals(-1, pose.get().getX());
+    }
+
+    @Test
+    void whenDecimatedThenPublishedEveryNCycles() {
+        var telemetry = new SwerveDriveTelemetry(
+            swerveDrive,
+            new SwerveDriveTelemetryConfiguration().withModuleStatesDecimation(3),
+            networkTables
+        );
+        var moduleStates = networkTables.getTable(SwerveDriveTelemetryConfiguration.DEFAULT_TABLE_NAME)
+            .getStructArrayTopic("ModuleStates", SwerveModuleState.struct)
+            .subscribe(new SwerveModuleState[0]);
+
+        var expectedSpeedsMS = new double[] { 1, 1, 1, 4, 4, 4, 7 };
+        for (int cycle = 0; cycle < expectedSpeedsMS.length; cycle++) {
+            setDriveSpeed(cycle + 1);
+            swerveDrive.periodic();
+            telemetry.publish();
+            assertEquals(expectedSpeedsMS[cycle], moduleStates.get()[0].speedMetersPerSecond, EPSILON);
+        }
+    }
+
+    @Test
+    void whenTimingsPublishedThenHistogramsReset() {
+        var telemetry = new SwerveDriveTelemetry(
+            swerveDrive,
+            new SwerveDriveTelemetryConfiguration().withTimingsDecimation(2),
+            networkTables
+        );
+        var sensorRead = networkTables.getTable(SwerveDriveTelemetryConfiguration.DEFAULT_TABLE_NAME)
+            .getDoubleArrayTopic("Timings/SensorReadUs")
+            .subscribe(new double[0]);
+
+        swerveDrive.periodic();
+        telemetry.publish();
+        assertEquals(0, sensorRead.get().length);
+        assertEquals(1, swerveDrive.getTimings().get(DrivetrainStage.SENSOR_READ).getCount());
+
+        swerveDrive.periodic();
+        telemetry.publish();
+        swerveDrive.periodic();
+        telemetry.publish();
+        var published = sensorRead.get();
+        assertEquals(3, published.length);
+        assertTrue(published[0] <= published[1] && published[1] <= published[2]);
+        assertEquals(0, swerveDrive.getTimings().get(DrivetrainStage.SENSOR_READ).getCount());
+    }
+
+    @Test
+    void whenDecimationNotPositiveThenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SwerveDriveTelemetryConfiguration().withPoseDecimation(0));
+    }
+}
@@ -0,0 +1,197 @@
+package frc.robot.lib.swervelib;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveKinematicsTest {
+    private static final double EPSILON = 1e-9;
+    private static final double MAX_SPEED_MS = 4.786;
+    private static final int SAMPLE_COUNT = 1000;
+
+    // KrakenMk4Drivetrain, KrakenMk4iDrivetrain and MaxSwerveDrivetrain.
+    private static final Translation2d[][] LAYOUTS = {
+        rectangle(.415, .596, .420, .594),
+        rectangle(.632, .63, .631, .635),
+        rectangle(.47, .47, .47, .47),
+        {
+            new Translation2d(0.3, 0),
+            new Translation2d(-0.2, 0.25),
+            new Translation2d(-0.2, -0.25)
+        }
+    };
+
+    private static Translation2d[] rectangle(double frontSideM, double rightSideM, double backSideM, double leftSideM) {
+        return new Translation2d[] {
+            new Translation2d(frontSideM / 2, leftSideM / 2),
+            new Translation2d(frontSideM / 2, -rightSideM / 2),
+            new Translation2d(-backSideM / 2, leftSideM / 2),
+            new Translation2d(-backSideM / 2, -rightSideM / 2)
+        };
+    }
+
+    @Test
+    void whenComputingModuleStatesThenSameAsWpilib() {
+        var random = new Random(3550);
+        for (var layout: LAYOUTS) {
+            var wpilibKinematics = new SwerveDriveKinematics(layout);
+            var kinematics = new SwerveKinematics(layout);
+            var speedsMS = new double[layout.length];
+            var anglesRadians = new double[layout.length];
+
+            for (int sample = 0; sample < SAMPLE_COUNT; sample++) {
+                var chassisSpeeds = randomChassisSpeeds(random);
+                var expected = wpilibKinematics.toSwerveModuleStates(chassisSpeeds);
+                SwerveDriveKinematics.desaturateWheelSpeeds(expected, MAX_SPEED_MS);
+
+                kinematics.toModuleStates(chassisSpeeds.vxMetersPerSecond, chassisSpeeds.vyMetersPerSecond, chassisSpeeds.omegaRadiansPerSecond, speedsMS, anglesRadians);
+                SwerveKinematics.desaturate(speedsMS, MAX_SPEED_MS);
+
+                for (int i = 0; i < layout.length; i++) {
+                    assertEquals(expected[i].speedMetersPerSecond, speedsMS[i], EPSILON);
+                    assertEquals(0, AngleMath.shortestDelta(expected[i].angle.getRadians(), anglesRadians[i]), EPSILON);
+                }
+            }
+        }
+    }
+
+    @Test
+    void whenComputingChassisSpeedsThenSameAsWpilib() {
+        var random = new Random(3550);
+        var result = new ChassisSpeeds();
+        for (var layout: LAYOUTS) {
+            var wpilibKinematics = new SwerveDriveKinematics(layout);
+            var kinematics = new SwerveKinematics(layout);
+            var states = new SwerveModuleState[layout.length];
+            var speedsMS = new double[layout.length];
+            var anglesRadians = new double[layout.length];
+
+            for (int sample = 0; sample < SAMPLE_COUNT; sample++) {
+                // Measured states are not consistent with each other: the least squares solution matters.
+                for (int i = 0; i < layout.length; i++) {
+                    speedsMS[i] = (random.nextDouble() * 2 - 1) * MAX_SPEED_MS;
+                    anglesRadians[i] = (random.nextDouble() * 2 - 1) * Math.PI;
+                    states[i] = new SwerveModuleState(speedsMS[i], new Rotation2d(anglesRadians[i]));
+                }
+                var expected = wpilibKinematics.toChassisSpeeds(states);
+
+                kinematics.toChassisSpeeds(speedsMS, anglesRadians, result);
+
+                assertEquals(expected.vxMetersPerSecond, result.vxMetersPerSecond, EPSILON);
+                assertEquals(expected.vyMetersPerSecond, result.vyMetersPerSecond, EPSILON);
+                assertEquals(expected.omegaRadiansPerSecond, result.omegaRadiansPerSecond, EPSILON);
+            }
+        }
+    }
+
+    @Test
+    void whenDiscretizingThenSameAsWpilib() {
+        var random = new Random(3550);
+        var result = new ChassisSpeeds();
+        for (int sample = 0; sample < SAMPLE_COUNT; sample++) {
+            var chassisSpeeds = randomChassisSpeeds(random);
+            var expected = ChassisSpeeds.discretize(chassisSpeeds, 0.02);
+
+            SwerveKinematics.discretize(chassisSpeeds.vxMetersPerSecond, chassisSpeeds.vyMetersPerSecond, chassisSpeeds.omegaRadiansPerSecond, 0.02, result);
+
+            assertEquals(expected.vxMetersPerSecond, result.vxMetersPerSecond, EPSILON);
+            assertEquals(expected.vyMetersPerSecond, result.vyMetersPerSecond, EPSILON);
+            assertEquals(expected.omegaRadiansPerSecond, result.omegaRadiansPerSecond, EPSILON);
+        }
+    }
+
+    @Test
+    void whenNotRotatingThenDiscretizingKeepsSpeeds() {
+        var result = new ChassisSpeeds();
+        SwerveKinematics.discretize(1.5, -2, 0, 0.02, result);
+
+        assertEquals(1.5, result.vxMetersPerSecond, EPSILON);
+        assertEquals(-2, result.vyMetersPerSecond, EPSILON);
+        assertEquals(0, result.omegaRadiansPerSecond, EPSILON);
+    }
+
+    @Test
+    void whenStoppedThenModuleAnglesKept() {
+        var kinematics = new SwerveKinematics(LAYOUTS[0]);
+        var speedsMS = new double[4];
+        var anglesRadians = new double[4];
+        kinematics.toModuleStates(0, 1, 0, speedsMS, anglesRadians);
+
+        kinematics.toModuleStates(0, 0, 0, speedsMS, anglesRadians);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, speedsMS[i]);
+            assertEquals(Math.PI / 2, anglesRadians[i], EPSILON);
+        }
+    }
+
+    @Test
+    void whenComputingSteerVelocitiesThenSameAsModuleAngleDerivatives() {
+        var random = new Random(3550);
+        var dtSeconds = 1e-6;
+        for (var layout: LAYOUTS) {
+            var kinematics = new SwerveKinematics(layout);
+            var speedsMS = new double[layout.length];
+            var anglesRadians = new double[layout.length];
+            var nextAnglesRadians = new double[layout.length];
+            var steerVelocitiesRadiansPerSecond = new double[layout.length];
+
+            for (int sample = 0; sample < SAMPLE_COUNT; sample++) {
+                var speeds = randomChassisSpeeds(random);
+                var accelerations = randomChassisSpeeds(random);
+
+                kinematics.toSteerVelocities(
+                    speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond,
+                    accelerations.vxMetersPerSecond, accelerations.vyMetersPerSecond, accelerations.omegaRadiansPerSecond,
+                    steerVelocitiesRadiansPerSecond);
+
+                kinematics.toModuleStates(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond, speedsMS, anglesRadians);
+                kinematics.toModuleStates(
+                    speeds.vxMetersPerSecond + accelerations.vxMetersPerSecond * dtSeconds,
+                    speeds.vyMetersPerSecond + accelerations.vyMetersPerSecond * dtSeconds,
+                    speeds.omegaRadiansPerSecond + accelerations.omegaRadiansPerSecond * dtSeconds,
+                    speedsMS,
+                    nextAnglesRadians);
+                for (int i = 0; i < layout.length; i++) {
+                    if (speedsMS[i] > 0.5) {
+                        var expected = AngleMath.shortestDelta(anglesRadians[i], nextAnglesRadians[i]) / dtSeconds;
+                        assertEquals(expected, steerVelocitiesRadiansPerSecond[i], 1e-3 * Math.max(1, Math.abs(expected)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void whenModuleSlowThenNoSteerVelocity() {
+        var kinematics = new SwerveKinematics(LAYOUTS[0]);
+        var steerVelocitiesRadiansPerSecond = new double[4];
+
+        kinematics.toSteerVelocities(0.01, 0, 0, 0, 10, 0, steerVelocitiesRadiansPerSecond);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, steerVelocitiesRadiansPerSecond[i]);
+        }
+    }
+
+    @Test
+    void whenModulesAtTheSameLocationThenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SwerveKinematics(new Translation2d(0.3, 0.3), new Translation2d(0.3, 0.3)));
+    }
+
+    private static ChassisSpeeds randomChassisSpeeds(Random random) {
+        return new ChassisSpeeds(
+            (random.nextDouble() * 2 - 1) * MAX_SPEED_MS,
+            (random.nextDouble() * 2 - 1) * MAX_SPEED_MS,
+            (random.nextDouble() * 2 - 1) * 2 * Math.PI
+        );
+    }
+}
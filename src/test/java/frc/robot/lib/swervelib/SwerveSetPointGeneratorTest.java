@@ -0,0 +1,139 @@
+package frc.robot.lib.swervelib;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwerveSetPointGeneratorTest {
+    private static final double EPSILON = 1e-9;
+    private static final double MAX_SPEED_MS = 4.0;
+    private static final double PERIOD_S = 0.02;
+    private static final double MAX_ACCELERATION_MSS = 10;
+    private static final double MAX_STEER_VELOCITY_RADIANS_PER_S = 2 * Math.PI;
+
+    private static final SwerveKinematics KINEMATICS = new SwerveKinematics(
+        new Translation2d(0.3, 0.3),
+        new Translation2d(0.3, -0.3),
+        new Translation2d(-0.3, 0.3),
+        new Translation2d(-0.3, -0.3)
+    );
+
+    private final double[] speedsMS = new double[4];
+    private final double[] anglesRadians = new double[4];
+
+    private static SwerveSetPointGenerator createGenerator(double maxAccelerationMSS, double maxSteerVelocityRadiansPerSecond) {
+        return new SwerveSetPointGeneratorConfiguration(maxAccelerationMSS, maxSteerVelocityRadiansPerSecond)
+            .createSetPointGenerator(KINEMATICS, MAX_SPEED_MS);
+    }
+
+    @Test
+    void whenNoLimitThenSameAsKinematics() {
+        var generator = createGenerator(Double.NaN, Double.NaN);
+        var expectedSpeedsMS = new double[4];
+        var expectedAnglesRadians = new double[4];
+
+        generator.generate(1, -2, 3, speedsMS, anglesRadians);
+        KINEMATICS.toModuleStates(1, -2, 3, expectedSpeedsMS, expectedAnglesRadians);
+
+        assertArrayEquals(expectedSpeedsMS, speedsMS, EPSILON);
+        assertArrayEquals(expectedAnglesRadians, anglesRadians, EPSILON);
+    }
+
+    @Test
+    void whenAcceleratingThenSpeedRampsUpToTarget() {
+        var generator = createGenerator(MAX_ACCELERATION_MSS, Double.NaN);
+
+        for (int cycle = 1; cycle <= 20; cycle++) {
+            generator.generate(MAX_SPEED_MS, 0, 0, speedsMS, anglesRadians);
+            for (var speedMS: speedsMS) {
+                assertEquals(cycle * MAX_ACCELERATION_MSS * PERIOD_S, speedMS, EPSILON);
+            }
+        }
+
+        generator.generate(MAX_SPEED_MS, 0, 0, speedsMS, anglesRadians);
+        for (var speedMS: speedsMS) {
+            assertEquals(MAX_SPEED_MS, speedMS, EPSILON);
+        }
+    }
+
+    @Test
+    void whenReversingThenSlowsDownWithoutTurning() {
+        var generator = createGenerator(MAX_ACCELERATION_MSS, MAX_STEER_VELOCITY_RADIANS_PER_S);
+        generator.reset(1, 0, 0, anglesRadians);
+
+        var previousSpeedMS = 1.0;
+        for (int cycle = 0; cycle < 10; cycle++) {
+            generator.generate(-1, 0, 0, speedsMS, anglesRadians);
+            assertEquals(MAX_ACCELERATION_MSS * PERIOD_S, Math.abs(previousSpeedMS - speedsMS[0]), EPSILON);
+            previousSpeedMS = speedsMS[0];
+        }
+        // Through zero speed: the module drives backward.
+        generator.generate(-1, 0, 0, speedsMS, anglesRadians);
+        assertEquals(0, AngleMath.shortestDelta(0, anglesRadians[0]) % Math.PI, EPSILON);
+    }
+
+    @Test
+    void whenChangingDirectionThenSteerVelocityLimited() {
+        var generator = createGenerator(Double.NaN, MAX_STEER_VELOCITY_RADIANS_PER_S);
+        generator.reset(1, 0, 0, anglesRadians);
+
+        var previousAngleRadians = 0.0;
+        for (int cycle = 0; cycle < 20; cycle++) {
+            generator.generate(0, 1, 0, speedsMS, anglesRadians);
+            var steerChangeRadians = Math.abs(AngleMath.shortestDelta(previousAngleRadians, anglesRadians[0]));
+            assertTrue(steerChangeRadians <= MAX_STEER_VELOCITY_RADIANS_PER_S * PERIOD_S + EPSILON);
+            previousAngleRadians = anglesRadians[0];
+        }
+        // 90 deg at 2 pi rad/s: 0.25 s.
+        assertEquals(Math.PI / 2, anglesRadians[0], 1e-6);
+    }
+
+    @Test
+    void whenModulesTurnDifferentlyThenAllWithinSteerLimit() {
+        var generator = createGenerator(Double.NaN, MAX_STEER_VELOCITY_RADIANS_PER_S);
+        var random = new Random(3550);
+        var previousSpeedsMS = new double[4];
+        var previousAnglesRadians = new double[4];
+
+        for (int sample = 0; sample < 1000; sample++) {
+            // Rotating while translating: each module turns by another angle, some inverting their drive.
+            var vxMS = (random.nextDouble() * 2 - 1) * 2;
+            var vyMS = (random.nextDouble() * 2 - 1) * 2;
+            var omegaRadiansPerSecond = (random.nextDouble() * 2 - 1) * 4;
+            KINEMATICS.toModuleStates(vxMS, vyMS, omegaRadiansPerSecond, previousSpeedsMS, previousAnglesRadians);
+            generator.reset(vxMS, vyMS, omegaRadiansPerSecond, previousAnglesRadians);
+
+            generator.generate((random.nextDouble() * 2 - 1) * 2, (random.nextDouble() * 2 - 1) * 2, (random.nextDouble() * 2 - 1) * 4, speedsMS, anglesRadians);
+
+            for (int i = 0; i < 4; i++) {
+                if (previousSpeedsMS[i] > SwerveKinematics.MIN_MODULE_SPEED_MS && speedsMS[i] > SwerveKinematics.MIN_MODULE_SPEED_MS) {
+                    // The drive can be inverted: the module turns by at most 90 deg.
+                    var steerChangeRadians = Math.abs(AngleMath.shortestDelta(previousAnglesRadians[i], anglesRadians[i]));
+                    steerChangeRadians = Math.min(steerChangeRadians, Math.PI - steerChangeRadians);
+                    assertTrue(steerChangeRadians <= MAX_STEER_VELOCITY_RADIANS_PER_S * PERIOD_S + 1e-6, "sample " + sample + ", module " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void whenAtRestThenSteersFreely() {
+        var generator = createGenerator(MAX_ACCELERATION_MSS, MAX_STEER_VELOCITY_RADIANS_PER_S);
+
+        generator.generate(0, 1, 0, speedsMS, anglesRadians);
+
+        assertEquals(Math.PI / 2, anglesRadians[0], EPSILON);
+        assertEquals(MAX_ACCELERATION_MSS * PERIOD_S, speedsMS[0], EPSILON);
+    }
+
+    @Test
+    void whenLimitsNotPositiveThenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SwerveSetPointGeneratorConfiguration(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SwerveSetPointGeneratorConfiguration(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new SwerveSetPointGeneratorConfiguration(1, 1, 0));
+    }
+}
@@ -0,0 +1,108 @@
+package frc.robot.lib.swervelib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VisionMeasurementQueueTest {
+    private final List<double[]> received = new ArrayList<>();
+    private final VisionMeasurementQueue.Consumer collector = (xM, yM, headingRadians, timestampSeconds, stdDevXM, stdDevYM, stdDevHeadingRadians) ->
+        received.add(new double[] { xM, yM, headingRadians, timestampSeconds, stdDevXM, stdDevYM, stdDevHeadingRadians });
+
+    private static boolean offer(VisionMeasurementQueue queue, double timestampSeconds) {
+        return queue.offer(timestampSeconds * 2, timestampSeconds * 3, timestampSeconds * 4, timestampSeconds, 0.1, 0.2, 0.3);
+    }
+
+    @Test
+    void whenDrainedThenInTimestampOrder() {
+        var queue = new VisionMeasurementQueue(8);
+        offer(queue, 3);
+        offer(queue, 1);
+        offer(queue, 2);
+
+        assertEquals(3, queue.drain(0, collector));
+
+        assertEquals(3, received.size());
+        for (int i = 0; i < 3; i++) {
+            var measurement = received.get(i);
+            var timestampSeconds = i + 1;
+            assertArrayEquals(new double[] { timestampSeconds * 2, timestampSeconds * 3, timestampSeconds * 4, timestampSeconds, 0.1, 0.2, 0.3 }, measurement);
+        }
+        assertEquals(0, queue.drain(0, collector));
+    }
+
+    @Test
+    void whenFullThenNewMeasurementsDroppedAndCounted() {
+        var queue = new VisionMeasurementQueue(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(queue, i));
+        }
+        assertFalse(offer(queue, 10));
+        assertEquals(1, queue.getOverflowCount());
+
+        assertEquals(4, queue.drain(0, collector));
+        // Room again once drained.
+        for (int i = 0; i < 4; i++) {
+            assertTrue(offer(queue, 20 + i));
+        }
+        assertEquals(4, queue.drain(0, collector));
+        assertEquals(1, queue.getOverflowCount());
+    }
+
+    @Test
+    void whenTooOldThenDroppedAndCounted() {
+        var queue = new VisionMeasurementQueue(8);
+        offer(queue, 1);
+        offer(queue, 5);
+        offer(queue, Double.NaN);
+        offer(queue, 2);
+
+        assertEquals(1, queue.drain(4, collector));
+
+        assertEquals(5, received.get(0)[3]);
+        assertEquals(3, queue.getStaleCount());
+    }
+
+    @Test
+    void whenOfferedFromSeveralThreadsThenNoneLostOrDuplicated() throws InterruptedException {
+        var queue = new VisionMeasurementQueue(16);
+        var producerCount = 4;
+        var measurementsPerProducer = 20_000;
+        var producers = new Thread[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            var producer = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < measurementsPerProducer; i++) {
+                    var id = producer * measurementsPerProducer + i;
+                    queue.offer(id, -id, 0, 1, Double.NaN, Double.NaN, Double.NaN);
+                }
+            });
+            producers[p].start();
+        }
+
+        var seen = new boolean[producerCount * measurementsPerProducer];
+        var receivedCount = new int[1];
+        VisionMeasurementQueue.Consumer checker = (xM, yM, headingRadians, timestampSeconds, stdDevXM, stdDevYM, stdDevHeadingRadians) -> {
+            var id = (int) xM;
+            assertEquals(-xM, yM);
+            assertFalse(seen[id]);
+            seen[id] = true;
+            receivedCount[0]++;
+        };
+        var running = true;
+        while (running) {
+            running = false;
+            for (var producer: producers) {
+                running |= producer.isAlive();
+            }
+            queue.drain(0, checker);
+        }
+        queue.drain(0, checker);
+
+        assertEquals(producerCount * measurementsPerProducer, receivedCount[0] + queue.getOverflowCount());
+        assertEquals(0, queue.getStaleCount());
+    }
+}
@@ -0,0 +1,29 @@
+package frc.robot.lib.swervelib.ctre;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.swervelib.SetPointFilterConfiguration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhoenixControlDispatchTest {
+    @Test
+    void whenPeriodicThenEverySetPointPassedOn() {
+        var filter = PhoenixControlDispatch.PERIODIC.createSetPointFilter(new SetPointFilterConfiguration());
+
+        assertTrue(filter.shouldSend(0, 0));
+        assertTrue(filter.shouldSend(0, 0));
+        assertEquals(0, filter.getSkippedCallCount());
+    }
+
+    @Test
+    void whenOneShotThenUnchangedSetPointsSkipped() {
+        for (var dispatch: new PhoenixControlDispatch[] {PhoenixControlDispatch.ONE_SHOT, PhoenixControlDispatch.ONE_SHOT_TIMESYNC}) {
+            var filter = dispatch.createSetPointFilter(new SetPointFilterConfiguration());
+
+            assertTrue(filter.shouldSend(0, 0));
+            assertFalse(filter.shouldSend(0, 0));
+            assertEquals(1, filter.getSkippedCallCount());
+        }
+    }
+}
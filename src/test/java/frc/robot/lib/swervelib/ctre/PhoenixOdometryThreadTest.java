@@ -0,0 +1,86 @@
+package frc.robot.lib.swervelib.ctre;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.lib.SystemUtils;
+import frc.robot.lib.swervelib.OdometrySample;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the odometry thread against simulated TalonFX devices (Phoenix simulation, desktop natives).
+ */
+public class PhoenixOdometryThreadTest {
+    private static final int MODULE_COUNT = 4;
+    private static final double EPSILON = 0.001;
+    private static final double METERS_PER_ROTATION = 0.05;
+    private static final double RADIANS_PER_ROTATION = 0.5;
+    private static final long SAMPLES_WAIT_TIMEOUT_MS = 2000;
+
+    private final TalonFX[] driveMotors = new TalonFX[MODULE_COUNT];
+    private final TalonFX[] steerMotors = new TalonFX[MODULE_COUNT];
+    private PhoenixOdometryThread odometryThread;
+
+    @BeforeEach
+    void setUp() {
+        assertTrue(HAL.initialize(500, 0));
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            driveMotors[i] = new TalonFX(1 + i);
+            steerMotors[i] = new TalonFX(1 + MODULE_COUNT + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (odometryThread != null) {
+            odometryThread.stop();
+        }
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            driveMotors[i].close();
+            steerMotors[i].close();
+        }
+    }
+
+    @Test
+    void whenRunningThenModulePositionsSampledWithIncreasingTimestamps() {
+        var drivePositions = new BaseStatusSignal[MODULE_COUNT];
+        var steerPositions = new BaseStatusSignal[MODULE_COUNT];
+        var metersPerRotation = new double[MODULE_COUNT];
+        var radiansPerRotation = new double[MODULE_COUNT];
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            driveMotors[i].getSimState().setRawRotorPosition(10 + i);
+            steerMotors[i].getSimState().setRawRotorPosition(-i);
+            drivePositions[i] = driveMotors[i].getPosition().clone();
+            steerPositions[i] = steerMotors[i].getPosition().clone();
+            metersPerRotation[i] = METERS_PER_ROTATION;
+            radiansPerRotation[i] = RADIANS_PER_ROTATION;
+        }
+        var samples = new OdometrySampleRing(MODULE_COUNT, 64);
+        odometryThread = new PhoenixOdometryThread(
+            drivePositions, metersPerRotation, steerPositions, radiansPerRotation, null, 250, samples
+        );
+
+        odometryThread.start();
+        SystemUtils.waitUntil("odometry samples", SAMPLES_WAIT_TIMEOUT_MS, () -> samples.size() >= 5);
+        odometryThread.stop();
+
+        var sample = new OdometrySample(MODULE_COUNT);
+        var previousTimestampSeconds = Double.NEGATIVE_INFINITY;
+        while (samples.poll(sample)) {
+            assertTrue(sample.timestampSeconds > previousTimestampSeconds);
+            assertTrue(Double.isNaN(sample.gyroYawRadians));
+            for (int i = 0; i < MODULE_COUNT; i++) {
+                assertEquals((10 + i) * METERS_PER_ROTATION, sample.drivePositionsM[i], EPSILON);
+                assertEquals(-i * RADIANS_PER_ROTATION, sample.steerAnglesRadians[i], EPSILON);
+            }
+            previousTimestampSeconds = sample.timestampSeconds;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package frc.robot.lib.swervelib.ctre;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.swervelib.SensorSignals;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhoenixSensorSignalsTest {
+    @Test
+    void whenDevicesOnTwoBusesThenOneBatchPerBus() {
+        var rioModule = new PhoenixSensorSignals("rio");
+        var canivoreModule = new PhoenixSensorSignals("canivore");
+        var rioGyro = new PhoenixSensorSignals("");
+        var canivoreGyro = new PhoenixSensorSignals("canivore");
+
+        var batches = SensorSignals.batch(rioModule, canivoreModule, rioGyro, canivoreGyro);
+
+        assertEquals(2, batches.length);
+        assertEquals("rio", ((PhoenixSensorSignals) batches[0]).getCanBusName());
+        assertEquals("canivore", ((PhoenixSensorSignals) batches[1]).getCanBusName());
+        assertNull(rioModule.batchWith(canivoreModule));
+    }
+}
@@ -0,0 +1,95 @@
+package frc.robot.lib.swervelib.ctre;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.lib.SystemUtils;
+import frc.robot.lib.swervelib.OdometrySample;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Pigeon 2 gyro against a simulated device (Phoenix simulation, desktop natives).
+ */
+public class Pigeon2GyroTest {
+    private static final int PIGEON_CAN_ID = 20;
+    private static final double EPSILON = 0.001;
+    private static final long UPDATE_WAIT_TIMEOUT_MS = 2000;
+
+    private Pigeon2Gyro gyro;
+    private TalonFX driveMotor;
+    private TalonFX steerMotor;
+    private PhoenixOdometryThread odometryThread;
+
+    @BeforeEach
+    void setUp() {
+        assertTrue(HAL.initialize(500, 0));
+        gyro = new Pigeon2Gyro(PIGEON_CAN_ID);
+        gyro.getPigeon().getSimState().setSupplyVoltage(12);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (odometryThread != null) {
+            odometryThread.stop();
+        }
+        if (driveMotor != null) {
+            driveMotor.close();
+            steerMotor.close();
+        }
+        gyro.getPigeon().close();
+    }
+
+    @Test
+    void whenRefreshedThenCounterclockwiseYawAndRate() {
+        var simState = gyro.getPigeon().getSimState();
+        simState.setRawYaw(30);
+        simState.setAngularVelocityZ(0);
+
+        SystemUtils.waitUntil("Pigeon 2 yaw", UPDATE_WAIT_TIMEOUT_MS, () -> {
+            gyro.getSensorSignals().refresh();
+            return Math.abs(gyro.getYawRadians() - Math.toRadians(30)) < EPSILON;
+        });
+        assertEquals(0, gyro.getYawRateRadiansPerSecond(), EPSILON);
+
+        simState.setAngularVelocityZ(90);
+        SystemUtils.waitUntil("Pigeon 2 yaw rate", UPDATE_WAIT_TIMEOUT_MS, () -> {
+            gyro.getSensorSignals().refresh();
+            return Math.abs(gyro.getYawRateRadiansPerSecond() - Math.toRadians(90)) < EPSILON;
+        });
+        // Latency compensated: moved forward by the rate times the age of the frame.
+        assertTrue(gyro.getYawRadians() >= Math.toRadians(30));
+    }
+
+    @Test
+    void whenSampledWithModulesThenYawInOdometrySamples() {
+        gyro.getPigeon().getSimState().setRawYaw(-45);
+        driveMotor = new TalonFX(1);
+        steerMotor = new TalonFX(2);
+        var samples = new OdometrySampleRing(1, 64);
+        odometryThread = new PhoenixOdometryThread(
+            new BaseStatusSignal[]{driveMotor.getPosition().clone()},
+            new double[]{1},
+            new BaseStatusSignal[]{steerMotor.getPosition().clone()},
+            new double[]{1},
+            gyro.newYawSignal(),
+            250,
+            samples
+        );
+
+        odometryThread.start();
+        SystemUtils.waitUntil("odometry samples", UPDATE_WAIT_TIMEOUT_MS, () -> samples.size() >= 5);
+        odometryThread.stop();
+
+        var sample = new OdometrySample(1);
+        while (samples.poll(sample)) {
+        }
+        assertEquals(Math.toRadians(-45), sample.gyroYawRadians, EPSILON);
+    }
+}
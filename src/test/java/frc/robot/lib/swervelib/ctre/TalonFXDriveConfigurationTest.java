@@ -0,0 +1,34 @@
+package frc.robot.lib.swervelib.ctre;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TalonFXDriveConfigurationTest {
+    @Test
+    void whenNoFeedForwardThenNotSet() {
+        assertFalse(new TalonFXDriveConfiguration().hasFeedForward());
+    }
+
+    @Test
+    void whenFeedForwardThenSlot0ConstantsSet() {
+        var configuration = new TalonFXDriveConfiguration().withFeedForward(0.2, 0.12, 0.01);
+
+        assertTrue(configuration.hasFeedForward());
+        assertEquals(0.2, configuration.staticConstant);
+        assertEquals(0.12, configuration.velocityConstant);
+        assertEquals(0.01, configuration.accelerationConstant);
+        assertFalse(configuration.hasMotionMagicAcceleration());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void whenWithMotionMagicThenSameAsFeedForward() {
+        var configuration = new TalonFXDriveConfiguration().withMotionMagic(0.12, 0.01, 0.2);
+
+        assertTrue(configuration.hasMotionMagic());
+        assertEquals(0.2, configuration.staticConstant);
+        assertEquals(0.12, configuration.velocityConstant);
+        assertEquals(0.01, configuration.accelerationConstant);
+    }
+}
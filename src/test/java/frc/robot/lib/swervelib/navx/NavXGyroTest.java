@@ -0,0 +1,53 @@
+package frc.robot.lib.swervelib.navx;
+
+import org.junit.jupiter.api.Test;
+
+import com.studica.frc.AHRS;
+import com.studica.frc.AHRSProtocol.AHRSUpdateBase;
+
+import frc.robot.lib.swervelib.GyroSample;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NavXGyroTest {
+    static final double EPSILON = 0.0000001;
+
+    private final NavXGyro gyro = new NavXGyro(new AHRS(AHRS.NavXComType.kMXP_SPI), 10.0, true);
+
+    private void receive(long systemTimestampMs, long sensorTimestampMs, double yawDegrees) {
+        var data = new AHRSUpdateBase();
+        data.yaw = (float) yawDegrees;
+        gyro.timestampedDataReceived(systemTimestampMs, sensorTimestampMs, data, null);
+    }
+
+    @Test
+    void whenUpdatedThenCounterclockwiseYawAndRate() {
+        receive(1000, 500, 10);
+        receive(1005, 510, 12);
+
+        var sample = new GyroSample();
+        gyro.read(sample);
+        assertEquals(Math.toRadians(-12), sample.yawRadians, EPSILON);
+        assertEquals(Math.toRadians(-200), sample.yawRateRadiansPerSecond, 0.0001);
+        assertEquals(1.005, sample.timestampSeconds, EPSILON);
+    }
+
+    @Test
+    void whenYawWrapsThenRateContinuous() {
+        receive(1000, 500, 179);
+        receive(1010, 510, -179);
+
+        assertEquals(Math.toRadians(-200), gyro.getYawRateRadiansPerSecond(), 0.0001);
+    }
+
+    @Test
+    void whenYawStillZeroThenCalibrating() {
+        assertFalse(gyro.isReady());
+        receive(1000, 500, 0);
+        assertEquals(NavXGyro.Readiness.CALIBRATING, gyro.getReadiness());
+
+        receive(1010, 510, 0.5);
+        assertEquals(NavXGyro.Readiness.READY, gyro.getReadiness());
+        assertTrue(gyro.isReady());
+    }
+}
@@ -0,0 +1,78 @@
+package frc.robot.lib.swervelib.rev;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.lib.swervelib.DiscreetAngle;
+import frc.robot.lib.swervelib.DriveController;
+import frc.robot.lib.swervelib.FakeDriveController;
+import frc.robot.lib.swervelib.FakeSteerController;
+import frc.robot.lib.swervelib.OdometrySample;
+import frc.robot.lib.swervelib.OdometrySampleRing;
+import frc.robot.lib.swervelib.SteerController;
+import frc.robot.lib.swervelib.SwerveDriveFixture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparkMaxOdometryThreadTest {
+    private static final int MODULE_COUNT = 4;
+
+    private double yawRadians = 0;
+
+    @Test
+    void whenSampledThenModulePositionsAndYawQueued() {
+        var driveControllers = new FakeDriveController[MODULE_COUNT];
+        var steerControllers = new FakeSteerController[MODULE_COUNT];
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            driveControllers[i] = new FakeDriveController(SwerveDriveFixture.MAX_SPEED_MS);
+            steerControllers[i] = new FakeSteerController(() -> DiscreetAngle.fromDegrees(0));
+            steerControllers[i].angleRadians = -i;
+        }
+        var samples = new OdometrySampleRing(MODULE_COUNT, 8);
+        var thread = new SparkMaxOdometryThread(driveControllers, steerControllers, () -> yawRadians, 200, samples);
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < MODULE_COUNT; j++) {
+                driveControllers[j].positionM = i * 0.01 + j;
+            }
+            yawRadians = i * 0.1;
+            thread.sample();
+        }
+
+        var sample = new OdometrySample(MODULE_COUNT);
+        var previousTimestampSeconds = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(samples.poll(sample));
+            assertTrue(sample.timestampSeconds >= previousTimestampSeconds);
+            assertEquals(i * 0.1, sample.gyroYawRadians);
+            for (int j = 0; j < MODULE_COUNT; j++) {
+                assertEquals(i * 0.01 + j, sample.drivePositionsM[j]);
+                assertEquals(-j, sample.steerAnglesRadians[j]);
+            }
+            previousTimestampSeconds = sample.timestampSeconds;
+        }
+        assertFalse(samples.poll(sample));
+    }
+
+    @Test
+    void whenNoGyroThenYawLeftToMainLoop() {
+        var samples = new OdometrySampleRing(1, 1);
+        var thread = new SparkMaxOdometryThread(
+            new DriveController[] { new FakeDriveController(SwerveDriveFixture.MAX_SPEED_MS) },
+            new SteerController[] { new FakeSteerController(() -> DiscreetAngle.fromDegrees(0)) },
+            null,
+            100,
+            samples
+        );
+        thread.sample();
+
+        var sample = new OdometrySample(1);
+        assertTrue(samples.poll(sample));
+        assertTrue(Double.isNaN(sample.gyroYawRadians));
+    }
+
+    @Test
+    void whenFrequencyOutOfRangeThenRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SparkMaxOdometryConfiguration().withFrequency(500));
+        assertThrows(IllegalArgumentException.class, () -> new SparkMaxOdometryConfiguration().withFrequency(0));
+    }
+}